@@ -0,0 +1,17 @@
+#!/bin/sh
+
+#
+# Runs the JMH benchmarks with allocation profiling and writes the results as JSON.  Build first with
+# mvn -pl bench -am package.
+#
+#   run-bench.sh [include regex] [result file]
+#
+# e.g. run-bench.sh 'WindowBenchmark' results/$(git rev-parse --short HEAD).json
+#
+
+SCRIPT_DIR=$(cd $(dirname "$0"); pwd)
+
+INCLUDE=${1:-dashboard.bench}
+RESULT=${2:-${SCRIPT_DIR}/../target/jmh-result.json}
+
+java -DGRIDGAIN_QUIET=true -jar "${SCRIPT_DIR}/../target/benchmarks.jar" "${INCLUDE}" "${RESULT}"
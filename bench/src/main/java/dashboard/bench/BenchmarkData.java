@@ -0,0 +1,72 @@
+package dashboard.bench;
+
+import dashboard.core.model.HashTag;
+import dashboard.core.model.HashTagFactory;
+import dashboard.core.model.Tweet;
+import dashboard.core.model.TweetFactory;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+/*
+    inputs shared by the benchmarks, generated from a fixed seed so every run and every commit measures the same
+    data.  screen names and hash tags are skewed toward a few hot keys the way the sample stream is
+ */
+final class BenchmarkData {
+
+    static final int SCREEN_NAMES = 10000;
+
+    static final int HASH_TAGS = 5000;
+
+    private static final long SEED = 42;
+
+    private BenchmarkData() {
+    }
+
+    static Random random() {
+        return new Random(SEED);
+    }
+
+    static String screenName(Random random) {
+        return "user" + skewed(random, SCREEN_NAMES);
+    }
+
+    static String hashTag(Random random) {
+        return "tag" + skewed(random, HASH_TAGS);
+    }
+
+    static List<Tweet> tweets(int count) {
+
+        final Random random = random();
+
+        final List<Tweet> tweets = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            tweets.add(TweetFactory.create(random.nextLong() & Long.MAX_VALUE, random.nextInt(SCREEN_NAMES), screenName(random),
+                    "benchmark tweet #" + hashTag(random) + " #" + hashTag(random), new Date(), "en", "benchmark", false));
+        }
+
+        return tweets;
+    }
+
+    static List<HashTag> hashTags(int count) {
+
+        final Random random = random();
+
+        final List<HashTag> hashTags = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            hashTags.add(HashTagFactory.create("tweet" + i, hashTag(random)));
+        }
+
+        return hashTags;
+    }
+
+    private static int skewed(Random random, int bound) {
+        final double r = random.nextDouble();
+
+        return (int) (bound * r * r * r);
+    }
+}
@@ -0,0 +1,33 @@
+package dashboard.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/*
+    runs the benchmarks matching the first argument (all by default) with the gc profiler, so every result carries
+    its allocation rate and bytes per operation, and writes JMH's JSON to the second argument
+    (target/jmh-result.json by default).  iterations and forks are fixed on the benchmark classes, so two result
+    files from different commits compare like for like
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+
+        final String include = args.length > 0 ? args[0] : "dashboard.bench";
+        final String result = args.length > 1 ? args[1] : "target/jmh-result.json";
+
+        final Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result)
+                .shouldFailOnError(true)
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,112 @@
+package dashboard.bench;
+
+import dashboard.core.model.HashTag;
+import dashboard.core.streaming.index.CountingIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+    the counts alone, without a window: a batch of hash tags counted in and the batch that falls out of a window of
+    half the batches counted off, by CountingIndex and by a map of boxed counts updated the way HashTagCountUpdater
+    updates its tree index.  the counting index should show ~0 bytes per operation under BenchmarkRunner's gc
+    profiler once the keys have all been seen
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CountingIndexBenchmark {
+
+    private static final int BATCH_SIZE = 256;
+
+    private static final int BATCHES = 64;
+
+    @Param({"counting", "boxed"})
+    private String counts;
+
+    private CountingIndex index;
+
+    private Map<String, Long> boxed;
+
+    private List<HashTag> hashTags;
+
+    private int next;
+
+    @Setup
+    public void setup() {
+
+        index = new CountingIndex();
+        boxed = new HashMap<>();
+
+        hashTags = BenchmarkData.hashTags(BATCH_SIZE * BATCHES);
+
+        for (int batch = 0; batch < BATCHES / 2; batch++) {
+            add(batch);
+        }
+    }
+
+    @Benchmark
+    public int addRemove() {
+
+        final int batch = next++ % BATCHES;
+
+        add((batch + BATCHES / 2) % BATCHES);
+        remove(batch);
+
+        return "counting".equals(counts) ? index.size() : boxed.size();
+    }
+
+    private void add(int batch) {
+
+        if ("counting".equals(counts)) {
+            for (HashTag hashTag : batch(batch)) {
+                index.add(hashTag.getText(), hashTag.getWeight());
+            }
+        } else {
+            for (HashTag hashTag : batch(batch)) {
+                final Long count = boxed.get(hashTag.getText());
+
+                boxed.put(hashTag.getText(), count != null ? count + hashTag.getWeight() : hashTag.getWeight());
+            }
+        }
+    }
+
+    private void remove(int batch) {
+
+        if ("counting".equals(counts)) {
+            for (HashTag hashTag : batch(batch)) {
+                index.remove(hashTag.getText(), hashTag.getWeight());
+            }
+        } else {
+            for (HashTag hashTag : batch(batch)) {
+                final long count = boxed.get(hashTag.getText()) - hashTag.getWeight();
+
+                if (count > 0) {
+                    boxed.put(hashTag.getText(), count);
+                } else {
+                    boxed.remove(hashTag.getText());
+                }
+            }
+        }
+    }
+
+    private List<HashTag> batch(int batch) {
+        return hashTags.subList(batch * BATCH_SIZE, (batch + 1) * BATCH_SIZE);
+    }
+}
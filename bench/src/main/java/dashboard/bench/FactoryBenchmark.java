@@ -0,0 +1,66 @@
+package dashboard.bench;
+
+import dashboard.core.model.HashTag;
+import dashboard.core.model.HashTagFactory;
+import dashboard.core.model.Tweet;
+import dashboard.core.model.TweetFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+    model creation as the ingest path does it, a random GUID per object included
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FactoryBenchmark {
+
+    private static final int SIZE = 1024;
+
+    private final String[] screenNames = new String[SIZE];
+
+    private final String[] hashTags = new String[SIZE];
+
+    private final Date createdAt = new Date();
+
+    private int next;
+
+    @Setup
+    public void setup() {
+        final Random random = BenchmarkData.random();
+
+        for (int i = 0; i < SIZE; i++) {
+            screenNames[i] = BenchmarkData.screenName(random);
+            hashTags[i] = BenchmarkData.hashTag(random);
+        }
+    }
+
+    @Benchmark
+    public Tweet createTweet() {
+        final int i = next++ & (SIZE - 1);
+
+        return TweetFactory.create(i, i, screenNames[i], hashTags[i], createdAt, "en", "benchmark", false);
+    }
+
+    @Benchmark
+    public HashTag createHashTag() {
+        final int i = next++ & (SIZE - 1);
+
+        return HashTagFactory.create(screenNames[i], hashTags[i]);
+    }
+}
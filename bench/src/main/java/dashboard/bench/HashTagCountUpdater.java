@@ -1,4 +1,4 @@
-package dashboard.core.streaming.index.updater;
+package dashboard.bench;
 
 import dashboard.core.model.HashTag;
 import org.gridgain.grid.GridException;
@@ -6,7 +6,9 @@ import org.gridgain.grid.streamer.index.GridStreamerIndexEntry;
 import org.gridgain.grid.streamer.index.GridStreamerIndexUpdater;
 import org.jetbrains.annotations.Nullable;
 
-
+/*
+    the tree index count the hash tag windows kept before CountingIndex, for WindowBenchmark to compare against
+ */
 public class HashTagCountUpdater implements GridStreamerIndexUpdater<HashTag, String, Long> {
 
     @Nullable
@@ -18,18 +20,20 @@ public class HashTagCountUpdater implements GridStreamerIndexUpdater<HashTag, St
     @Nullable
     @Override
     public Long initialValue(HashTag hashTag, String s) {
-        return 1l;
+        return (long) hashTag.getWeight();
     }
 
     @Nullable
     @Override
     public Long onAdded(GridStreamerIndexEntry<HashTag, String, Long> entry, HashTag hashTag) throws GridException {
-        return entry.value() + 1;
+        return entry.value() + hashTag.getWeight();
     }
 
     @Nullable
     @Override
     public Long onRemoved(GridStreamerIndexEntry<HashTag, String, Long> entry, HashTag hashTag) {
-        return entry.value() - 1 == 0 ? 1L : entry.value() - 1;
+        final long value = entry.value() - hashTag.getWeight();
+
+        return value <= 0 ? 1L : value;
     }
 }
@@ -0,0 +1,74 @@
+package dashboard.bench;
+
+import dashboard.core.model.HashTag;
+import dashboard.core.model.Tweet;
+import org.gridgain.grid.GridException;
+import org.gridgain.grid.marshaller.optimized.GridOptimizedMarshaller;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Externalizable round trips through the marshaller grid-gain.xml configures, which is what every event
+    crossing nodes and every cache entry sent to a backup pays
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MarshallerBenchmark {
+
+    private GridOptimizedMarshaller marshaller;
+
+    private Tweet tweet;
+
+    private HashTag hashTag;
+
+    private byte[] tweetBytes;
+
+    private byte[] hashTagBytes;
+
+    @Setup
+    public void setup() throws GridException {
+        marshaller = new GridOptimizedMarshaller();
+        marshaller.setClassNames(Arrays.asList(Tweet.class.getName(), HashTag.class.getName()));
+
+        tweet = BenchmarkData.tweets(1).get(0);
+        hashTag = BenchmarkData.hashTags(1).get(0);
+
+        tweetBytes = marshaller.marshal(tweet);
+        hashTagBytes = marshaller.marshal(hashTag);
+    }
+
+    @Benchmark
+    public byte[] marshalTweet() throws GridException {
+        return marshaller.marshal(tweet);
+    }
+
+    @Benchmark
+    public Tweet unmarshalTweet() throws GridException {
+        return marshaller.unmarshal(tweetBytes, null);
+    }
+
+    @Benchmark
+    public byte[] marshalHashTag() throws GridException {
+        return marshaller.marshal(hashTag);
+    }
+
+    @Benchmark
+    public HashTag unmarshalHashTag() throws GridException {
+        return marshaller.unmarshal(hashTagBytes, null);
+    }
+}
@@ -0,0 +1,73 @@
+package dashboard.bench;
+
+import dashboard.core.hpc.CountReducer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+    the merge behind the hash tag and top tweeter summaries: one count map per streamer node summed by key and
+    cut to the top entries.  keys is the distinct keys per node; the nodes overlap the way they do after the
+    streamer topology changes
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReducerBenchmark {
+
+    @Param({"1", "4"})
+    private int nodes;
+
+    @Param({"1000", "10000"})
+    private int keys;
+
+    private List<Map<String, Long>> counts;
+
+    @Setup
+    public void setup() {
+
+        final Random random = BenchmarkData.random();
+
+        counts = new ArrayList<>(nodes);
+
+        for (int node = 0; node < nodes; node++) {
+            final Map<String, Long> nodeCounts = new HashMap<>();
+
+            while (nodeCounts.size() < keys) {
+                nodeCounts.put("tag" + random.nextInt(keys * 2), (long) random.nextInt(1000) + 1);
+            }
+
+            counts.add(nodeCounts);
+        }
+    }
+
+    @Benchmark
+    public Map<String, Long> countReducer() {
+
+        final CountReducer reducer = new CountReducer();
+
+        for (Map<String, Long> nodeCounts : counts) {
+            reducer.collect(nodeCounts);
+        }
+
+        return reducer.reduce();
+    }
+}
@@ -1,4 +1,4 @@
-package dashboard.core.streaming.index.updater;
+package dashboard.bench;
 
 import dashboard.core.model.Tweet;
 import org.apache.commons.lang3.StringUtils;
@@ -7,7 +7,9 @@ import org.gridgain.grid.streamer.index.GridStreamerIndexEntry;
 import org.gridgain.grid.streamer.index.GridStreamerIndexUpdater;
 import org.jetbrains.annotations.Nullable;
 
-
+/*
+    the tree index count the top tweeters window kept before CountingIndex, for WindowBenchmark to compare against
+ */
 public class TopTweeterCountUpdater implements GridStreamerIndexUpdater<Tweet, String, Long> {
     @Nullable
     @Override
@@ -23,18 +25,20 @@ public class TopTweeterCountUpdater implements GridStreamerIndexUpdater<Tweet, S
     @Nullable
     @Override
     public Long initialValue(Tweet tweet, String s) {
-        return 1L;
+        return (long) tweet.getWeight();
     }
 
     @Nullable
     @Override
     public Long onAdded(GridStreamerIndexEntry<Tweet, String, Long> entry, Tweet tweet) throws GridException {
-        return entry.value() + 1;
+        return entry.value() + tweet.getWeight();
     }
 
     @Nullable
     @Override
     public Long onRemoved(GridStreamerIndexEntry<Tweet, String, Long> entry, Tweet tweet) {
-        return entry.value() - 1 == 0 ? 1L : entry.value() - 1;
+        final long value = entry.value() - tweet.getWeight();
+
+        return value <= 0 ? 1L : value;
     }
 }
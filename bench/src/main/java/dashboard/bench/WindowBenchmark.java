@@ -0,0 +1,165 @@
+package dashboard.bench;
+
+import dashboard.core.model.HashTag;
+import dashboard.core.model.Tweet;
+import dashboard.core.streaming.index.CountingIndex;
+import org.gridgain.grid.GridException;
+import org.gridgain.grid.streamer.index.tree.GridStreamerTreeIndexProvider;
+import org.gridgain.grid.streamer.window.GridStreamerBoundedSizeWindow;
+import org.gridgain.grid.streamer.window.GridStreamerUnboundedWindow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+    a full window taking one batch and giving the same number back to eviction, the steady state of
+    AddHashTagToWindowsStage followed by RemoveHashTagFromWindowsStage, counted by the tree index and updaters the
+    windows were configured with, by the CountingIndex the stages keep now, or not at all.  the tweeter case
+    enqueues into an unbounded window as the topTweeters window does.  the streamer windows are bounded by time, a
+    size bound makes each cycle evict exactly one batch.  BenchmarkRunner's gc profiler gives the bytes each
+    costs per batch
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WindowBenchmark {
+
+    private static final int BATCH_SIZE = 256;
+
+    private static final int BATCHES = 64;
+
+    @Param({"10000", "100000"})
+    private int windowSize;
+
+    @Param({"tree", "counting", "none"})
+    private String index;
+
+    private GridStreamerBoundedSizeWindow<HashTag> hashTagWindow;
+
+    private GridStreamerUnboundedWindow<Tweet> tweeterWindow;
+
+    private CountingIndex hashTagCounts;
+
+    private CountingIndex tweeterCounts;
+
+    private List<HashTag> hashTags;
+
+    private List<Tweet> tweets;
+
+    private int next;
+
+    @Setup
+    public void setup() throws GridException {
+
+        hashTagWindow = new GridStreamerBoundedSizeWindow<>();
+        hashTagWindow.setMaximumSize(windowSize);
+
+        tweeterWindow = new GridStreamerUnboundedWindow<>();
+
+        if ("tree".equals(index)) {
+            final GridStreamerTreeIndexProvider<HashTag, String, Long> hashTagIndex = new GridStreamerTreeIndexProvider<>();
+            hashTagIndex.setUpdater(new HashTagCountUpdater());
+
+            hashTagWindow.setIndexes(hashTagIndex);
+
+            final GridStreamerTreeIndexProvider<Tweet, String, Long> tweeterIndex = new GridStreamerTreeIndexProvider<>();
+            tweeterIndex.setUpdater(new TopTweeterCountUpdater());
+
+            tweeterWindow.setIndexes(tweeterIndex);
+        } else if ("counting".equals(index)) {
+            hashTagCounts = new CountingIndex();
+            tweeterCounts = new CountingIndex();
+        }
+
+        hashTagWindow.start();
+        tweeterWindow.start();
+
+        hashTags = BenchmarkData.hashTags(BATCH_SIZE * BATCHES);
+        tweets = BenchmarkData.tweets(BATCH_SIZE * BATCHES);
+
+        while (hashTagWindow.size() < windowSize) {
+            addHashTags(nextBatch(hashTags));
+        }
+
+        removeHashTags(hashTagWindow.pollEvictedAll());
+
+        while (tweeterWindow.size() < windowSize) {
+            addTweets(nextBatch(tweets));
+        }
+    }
+
+    @Benchmark
+    public Collection<HashTag> hashTagEnqueueEvict() throws GridException {
+        addHashTags(nextBatch(hashTags));
+
+        return removeHashTags(hashTagWindow.pollEvicted(BATCH_SIZE));
+    }
+
+    @Benchmark
+    public Collection<Tweet> tweeterEnqueueDequeue() throws GridException {
+        addTweets(nextBatch(tweets));
+
+        return removeTweets(tweeterWindow.dequeue(BATCH_SIZE));
+    }
+
+    private void addHashTags(List<HashTag> batch) throws GridException {
+        if (hashTagCounts != null) {
+            for (HashTag hashTag : batch) {
+                hashTagCounts.add(hashTag.getText(), hashTag.getWeight());
+            }
+        }
+
+        hashTagWindow.enqueueAll(batch);
+    }
+
+    private Collection<HashTag> removeHashTags(Collection<HashTag> evicted) {
+        if (hashTagCounts != null) {
+            for (HashTag hashTag : evicted) {
+                hashTagCounts.remove(hashTag.getText(), hashTag.getWeight());
+            }
+        }
+
+        return evicted;
+    }
+
+    private void addTweets(List<Tweet> batch) throws GridException {
+        if (tweeterCounts != null) {
+            for (Tweet tweet : batch) {
+                tweeterCounts.add(tweet.getScreenName(), tweet.getWeight());
+            }
+        }
+
+        tweeterWindow.enqueueAll(batch);
+    }
+
+    private Collection<Tweet> removeTweets(Collection<Tweet> dequeued) {
+        if (tweeterCounts != null) {
+            for (Tweet tweet : dequeued) {
+                tweeterCounts.remove(tweet.getScreenName(), tweet.getWeight());
+            }
+        }
+
+        return dequeued;
+    }
+
+    private <T> List<T> nextBatch(List<T> events) {
+        final int batch = next++ % BATCHES;
+
+        return events.subList(batch * BATCH_SIZE, (batch + 1) * BATCH_SIZE);
+    }
+}
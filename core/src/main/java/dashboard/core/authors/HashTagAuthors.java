@@ -0,0 +1,113 @@
+package dashboard.core.authors;
+
+import dashboard.core.model.HashTag;
+import dashboard.core.utils.HyperLogLog;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+    the distinct users behind each hash tag, as a hyperloglog sketch per tag in one bucket per minute for the last
+    minutes.  a window's count is the merge of the buckets it spans, so it moves a minute at a time rather than
+    with every event, and the sketches of several nodes merge into the cluster wide count.  tags are keyed by
+    their text as the window indexes are.
+
+    kept in the streamer's local space so a reset of the streamer starts it over
+ */
+public class HashTagAuthors {
+
+    public static final String LOCAL_SPACE_KEY = "hashTagAuthors";
+
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+    private final Bucket[] buckets;
+
+    public HashTagAuthors(int minutes) {
+        this.buckets = new Bucket[minutes + 1];
+
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new Bucket();
+        }
+    }
+
+    public void record(Collection<HashTag> hashTags, long now) {
+
+        final long minute = now / MINUTE;
+
+        final Bucket bucket = buckets[(int) (minute % buckets.length)];
+
+        synchronized (bucket) {
+            bucket.roll(minute);
+
+            for (HashTag hashTag : hashTags) {
+                if (hashTag.getText() == null) {
+                    continue;
+                }
+
+                HyperLogLog sketch = bucket.sketches.get(hashTag.getText());
+
+                if (sketch == null) {
+                    sketch = new HyperLogLog();
+                    bucket.sketches.put(hashTag.getText(), sketch);
+                }
+
+                sketch.add(hashTag.getUserId());
+            }
+        }
+    }
+
+    /*
+        a sketch of the authors of each of tags seen over the last windowMillis, tags never seen are left out
+     */
+    public Map<String, HyperLogLog> authors(Collection<String> tags, long windowMillis, long now) {
+
+        final long from = (now - windowMillis) / MINUTE;
+        final long to = now / MINUTE;
+
+        final Map<String, HyperLogLog> authors = new HashMap<>();
+
+        for (Bucket bucket : buckets) {
+            synchronized (bucket) {
+                if (bucket.minute < from || bucket.minute > to) {
+                    continue;
+                }
+
+                for (String tag : tags) {
+                    final HyperLogLog sketch = bucket.sketches.get(tag);
+
+                    if (sketch == null) {
+                        continue;
+                    }
+
+                    HyperLogLog merged = authors.get(tag);
+
+                    if (merged == null) {
+                        merged = new HyperLogLog();
+                        authors.put(tag, merged);
+                    }
+
+                    merged.merge(sketch);
+                }
+            }
+        }
+
+        return authors;
+    }
+
+    private static class Bucket {
+
+        private final Map<String, HyperLogLog> sketches = new HashMap<>();
+
+        private long minute = -1;
+
+        void roll(long minute) {
+            if (this.minute != minute) {
+                this.minute = minute;
+
+                sketches.clear();
+            }
+        }
+    }
+}
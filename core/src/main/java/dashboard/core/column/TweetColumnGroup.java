@@ -0,0 +1,29 @@
+package dashboard.core.column;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+    what a TweetColumns count groups by.  the time groups bucket createdAt and key the counts by bucket start
+ */
+public enum TweetColumnGroup {
+
+    LANGUAGE(0),
+    SOURCE(0),
+    USER(0),
+    MINUTE(TimeUnit.MINUTES.toMillis(1)),
+    HOUR(TimeUnit.HOURS.toMillis(1));
+
+    private final long step;
+
+    TweetColumnGroup(long step) {
+        this.step = step;
+    }
+
+    public boolean isTime() {
+        return step > 0;
+    }
+
+    long getStep() {
+        return step;
+    }
+}
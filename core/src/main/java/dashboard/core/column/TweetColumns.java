@@ -0,0 +1,402 @@
+package dashboard.core.column;
+
+import dashboard.core.model.Tweet;
+import dashboard.core.utils.LongLongHashMap;
+import org.gridgain.grid.Grid;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/*
+    structure of arrays copy of the tweets that pass through this streamer node, for analytic scans that would
+    otherwise read every Tweet object through H2.  rows are appended to fixed size segments of primitive
+    columns, languageCode and source dictionary coded, and the oldest segment is dropped once maxRows is
+    exceeded.  each segment keeps the createdAt range of its rows so scans skip segments outside the range.
+
+    appends are serialized, scans read up to the row count a segment has published and never lock.  kept in the
+    node local map like the Tweet cache it mirrors, so a reset of the streamer windows leaves it
+ */
+public class TweetColumns {
+
+    private static final String NODE_LOCAL_KEY = TweetColumns.class.getName();
+
+    private static final int SEGMENT_ROWS = 1 << 16;
+
+    private static final int MAX_TIME_BUCKETS = 100000;
+
+    private final int maxSegments;
+
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+
+    private final Dictionary languages = new Dictionary();
+
+    private final Dictionary sources = new Dictionary();
+
+    // guarded by this
+    private Segment tail;
+
+    public TweetColumns(int maxRows) {
+        this.maxSegments = Math.max(2, (maxRows + SEGMENT_ROWS - 1) / SEGMENT_ROWS);
+    }
+
+    /*
+        null until AddTweetToDatabaseStage has registered the node's columns
+     */
+    public static TweetColumns get(Grid grid) {
+        final ConcurrentMap<String, TweetColumns> nodeLocal = grid.nodeLocalMap();
+
+        return nodeLocal.get(NODE_LOCAL_KEY);
+    }
+
+    /*
+        the node's columns, registering these when there are none yet
+     */
+    public TweetColumns register(Grid grid) {
+        final ConcurrentMap<String, TweetColumns> nodeLocal = grid.nodeLocalMap();
+
+        final TweetColumns registered = nodeLocal.putIfAbsent(NODE_LOCAL_KEY, this);
+
+        return registered != null ? registered : this;
+    }
+
+    public synchronized void append(Collection<Tweet> tweets) {
+
+        for (Tweet tweet : tweets) {
+            if (tail == null || tail.size == SEGMENT_ROWS) {
+                tail = new Segment();
+                segments.add(tail);
+
+                if (segments.size() > maxSegments) {
+                    segments.remove(0);
+                }
+            }
+
+            tail.append(tweet.getTweetId(), tweet.getUserId(), tweet.getCreatedAt() != null ? tweet.getCreatedAt().getTime() : 0,
+                    languages.code(tweet.getLanguageCode()), sources.code(tweet.getSource()), tweet.isFake());
+        }
+    }
+
+    public long rows() {
+        long rows = 0;
+
+        for (Segment segment : segments) {
+            rows += segment.size;
+        }
+
+        return rows;
+    }
+
+    /*
+        counts the rows with createdAt in [from, to), real tweets only unless includeFake, grouped by group.  tweets
+        are partitioned by screen name, so a user's count is whole on one node and USER is cut to the limit
+        highest here rather than after every node's users have been sent
+     */
+    public Map<String, Long> count(TweetColumnGroup group, long from, long to, boolean includeFake, int limit) {
+
+        switch (group) {
+            case LANGUAGE:
+                return decode(countCodes(true, from, to, includeFake), languages);
+            case SOURCE:
+                return decode(countCodes(false, from, to, includeFake), sources);
+            case USER:
+                return countUsers(from, to, includeFake, limit);
+            default:
+                return countTime(group.getStep(), from, to, includeFake);
+        }
+    }
+
+    private long[] countCodes(boolean language, long from, long to, boolean includeFake) {
+
+        long[] counts = new long[0];
+
+        for (Segment segment : segments) {
+            if (!segment.overlaps(from, to)) {
+                continue;
+            }
+
+            final int size = segment.size;
+            final int[] codes = language ? segment.language : segment.source;
+            final long[] createdAt = segment.createdAt;
+            final boolean[] fake = segment.fake;
+
+            // codes only grow, so one resize per segment covers every code it can hold
+            final int maxCode = language ? languages.size() : sources.size();
+
+            if (counts.length < maxCode + 1) {
+                final long[] grown = new long[maxCode + 1];
+                System.arraycopy(counts, 0, grown, 0, counts.length);
+                counts = grown;
+            }
+
+            for (int row = 0; row < size; row++) {
+                final long time = createdAt[row];
+
+                if (time >= from && time < to && (includeFake || !fake[row])) {
+                    counts[codes[row]]++;
+                }
+            }
+        }
+
+        return counts;
+    }
+
+    private Map<String, Long> countUsers(long from, long to, boolean includeFake, int limit) {
+
+        final LongLongHashMap counts = new LongLongHashMap(1024);
+
+        for (Segment segment : segments) {
+            if (!segment.overlaps(from, to)) {
+                continue;
+            }
+
+            final int size = segment.size;
+            final long[] userId = segment.userId;
+            final long[] createdAt = segment.createdAt;
+            final boolean[] fake = segment.fake;
+
+            for (int row = 0; row < size; row++) {
+                final long time = createdAt[row];
+
+                if (time >= from && time < to && (includeFake || !fake[row])) {
+                    counts.add(userId[row], 1);
+                }
+            }
+        }
+
+        final TopUsers top = new TopUsers(Math.max(0, Math.min(limit, counts.size())));
+
+        counts.forEach(top);
+
+        final Map<String, Long> result = new HashMap<>(top.size * 2);
+
+        for (int i = 0; i < top.size; i++) {
+            result.put(Long.toString(top.userIds[i]), top.counts[i]);
+        }
+
+        return result;
+    }
+
+    private Map<String, Long> countTime(long step, long from, long to, boolean includeFake) {
+
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+
+        for (Segment segment : segments) {
+            if (segment.overlaps(from, to) && segment.size > 0) {
+                min = Math.min(min, segment.minCreatedAt);
+                max = Math.max(max, segment.maxCreatedAt);
+            }
+        }
+
+        final Map<String, Long> result = new HashMap<>();
+
+        if (min > max) {
+            return result;
+        }
+
+        final long start = Math.max(from, min) - Math.max(from, min) % step;
+        final long end = Math.min(to, max + 1);
+
+        final long[] buckets = new long[(int) Math.min(MAX_TIME_BUCKETS, (end - start + step - 1) / step)];
+        final long limit = start + buckets.length * step;
+
+        for (Segment segment : segments) {
+            if (!segment.overlaps(from, to)) {
+                continue;
+            }
+
+            final int size = segment.size;
+            final long[] createdAt = segment.createdAt;
+            final boolean[] fake = segment.fake;
+
+            for (int row = 0; row < size; row++) {
+                final long time = createdAt[row];
+
+                if (time >= from && time < to && time >= start && time < limit && (includeFake || !fake[row])) {
+                    buckets[(int) ((time - start) / step)]++;
+                }
+            }
+        }
+
+        for (int i = 0; i < buckets.length; i++) {
+            if (buckets[i] > 0) {
+                result.put(Long.toString(start + i * step), buckets[i]);
+            }
+        }
+
+        return result;
+    }
+
+    private static Map<String, Long> decode(long[] counts, Dictionary dictionary) {
+
+        final Map<String, Long> result = new HashMap<>();
+
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0) {
+                final String value = dictionary.value(code);
+                result.put(value != null ? value : "", counts[code]);
+            }
+        }
+
+        return result;
+    }
+
+    private static class Segment {
+
+        private final long[] tweetId = new long[SEGMENT_ROWS];
+
+        private final long[] userId = new long[SEGMENT_ROWS];
+
+        private final long[] createdAt = new long[SEGMENT_ROWS];
+
+        private final int[] language = new int[SEGMENT_ROWS];
+
+        private final int[] source = new int[SEGMENT_ROWS];
+
+        private final boolean[] fake = new boolean[SEGMENT_ROWS];
+
+        private volatile long minCreatedAt = Long.MAX_VALUE;
+
+        private volatile long maxCreatedAt = Long.MIN_VALUE;
+
+        // written after the row, so a scan that reads it sees every row below it
+        private volatile int size;
+
+        void append(long tweetId, long userId, long createdAt, int language, int source, boolean fake) {
+            final int row = size;
+
+            this.tweetId[row] = tweetId;
+            this.userId[row] = userId;
+            this.createdAt[row] = createdAt;
+            this.language[row] = language;
+            this.source[row] = source;
+            this.fake[row] = fake;
+
+            minCreatedAt = Math.min(minCreatedAt, createdAt);
+            maxCreatedAt = Math.max(maxCreatedAt, createdAt);
+
+            size = row + 1;
+        }
+
+        boolean overlaps(long from, long to) {
+            return size > 0 && maxCreatedAt >= from && minCreatedAt < to;
+        }
+    }
+
+    /*
+        string to code mapping, code 0 is null
+     */
+    private static class Dictionary {
+
+        private final ConcurrentMap<String, Integer> codes = new ConcurrentHashMap<>();
+
+        private volatile String[] values = new String[16];
+
+        private int size = 1;
+
+        synchronized int code(String value) {
+            if (value == null) {
+                return 0;
+            }
+
+            final Integer code = codes.get(value);
+
+            if (code != null) {
+                return code;
+            }
+
+            if (size == values.length) {
+                final String[] grown = new String[size * 2];
+                System.arraycopy(values, 0, grown, 0, size);
+                values = grown;
+            }
+
+            values[size] = value;
+            codes.put(value, size);
+
+            return size++;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        String value(int code) {
+            final String[] current = values;
+
+            return code < current.length ? current[code] : null;
+        }
+    }
+
+    /*
+        the users with the highest counts, as a min heap on the count so the lowest kept is the one displaced
+     */
+    private static class TopUsers implements LongLongHashMap.EntryVisitor {
+
+        private final long[] userIds;
+
+        private final long[] counts;
+
+        private int size;
+
+        TopUsers(int limit) {
+            this.userIds = new long[limit];
+            this.counts = new long[limit];
+        }
+
+        @Override
+        public void visit(long userId, long count) {
+
+            if (size < counts.length) {
+                userIds[size] = userId;
+                counts[size] = count;
+
+                for (int i = size++; i > 0 && counts[(i - 1) / 2] > counts[i]; i = (i - 1) / 2) {
+                    swap(i, (i - 1) / 2);
+                }
+            } else if (size > 0 && count > counts[0]) {
+                userIds[0] = userId;
+                counts[0] = count;
+
+                int i = 0;
+
+                while (true) {
+                    final int left = 2 * i + 1;
+                    final int right = left + 1;
+
+                    int smallest = i;
+
+                    if (left < size && counts[left] < counts[smallest]) {
+                        smallest = left;
+                    }
+
+                    if (right < size && counts[right] < counts[smallest]) {
+                        smallest = right;
+                    }
+
+                    if (smallest == i) {
+                        break;
+                    }
+
+                    swap(i, smallest);
+                    i = smallest;
+                }
+            }
+        }
+
+        private void swap(int i, int j) {
+            final long userId = userIds[i];
+            final long count = counts[i];
+
+            userIds[i] = userIds[j];
+            counts[i] = counts[j];
+            userIds[j] = userId;
+            counts[j] = count;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package dashboard.core.enrich;
+
+import dashboard.core.model.Tweet;
+import dashboard.core.search.TweetTokenizer;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/*
+    lexicon score of the text: +1 for each positive word or smiley, -1 for each negative one.  a small english
+    word list, enough to tell the tone of a hash tag apart, and replaceable through the properties
+ */
+public class SentimentEnricher extends TweetEnricher {
+
+    private static final String[] POSITIVE_SMILEYS = {":)", ":-)", ":d", ";)", "<3"};
+
+    private static final String[] NEGATIVE_SMILEYS = {":(", ":-(", ":'("};
+
+    private Set<String> positiveWords = new HashSet<>(Arrays.asList(
+            "good", "great", "love", "loved", "like", "awesome", "amazing", "best", "happy", "nice", "win", "excellent",
+            "beautiful", "cool", "fun", "thanks", "thank", "perfect", "wonderful", "glad", "lol", "yay", "congrats"));
+
+    private Set<String> negativeWords = new HashSet<>(Arrays.asList(
+            "bad", "worst", "hate", "hated", "awful", "terrible", "sad", "angry", "fail", "sucks", "ugly", "boring",
+            "wrong", "sick", "poor", "horrible", "annoying", "disappointed", "broken", "lost", "cry", "ugh"));
+
+    public void setPositiveWords(Set<String> positiveWords) {
+        this.positiveWords = positiveWords;
+    }
+
+    public void setNegativeWords(Set<String> negativeWords) {
+        this.negativeWords = negativeWords;
+    }
+
+    @Override
+    protected void enrich(Tweet tweet) {
+
+        final String text = tweet.getText();
+
+        int score = 0;
+
+        for (String token : TweetTokenizer.tokenize(text)) {
+            if (positiveWords.contains(token)) {
+                score++;
+            } else if (negativeWords.contains(token)) {
+                score--;
+            }
+        }
+
+        if (text != null) {
+            final String lower = text.toLowerCase(Locale.ENGLISH);
+
+            for (String smiley : POSITIVE_SMILEYS) {
+                score += StringUtils.countMatches(lower, smiley);
+            }
+
+            for (String smiley : NEGATIVE_SMILEYS) {
+                score -= StringUtils.countMatches(lower, smiley);
+            }
+        }
+
+        tweet.setSentiment(score);
+    }
+}
@@ -0,0 +1,15 @@
+package dashboard.core.enrich;
+
+import dashboard.core.model.Tweet;
+import dashboard.core.search.TweetTokenizer;
+
+/*
+    number of distinct search tokens in the text, by the same rules as the text index
+ */
+public class TokenCountEnricher extends TweetEnricher {
+
+    @Override
+    protected void enrich(Tweet tweet) {
+        tweet.setTokenCount(TweetTokenizer.tokenize(tweet.getText()).size());
+    }
+}
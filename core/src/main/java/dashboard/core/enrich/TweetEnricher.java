@@ -0,0 +1,69 @@
+package dashboard.core.enrich;
+
+import dashboard.core.model.Tweet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    one piece of per-tweet work done by EnrichTweetStage.  enrich() runs on the stage's fork-join pool, many tweets
+    at once, so it may only touch the tweet it is given.  an enricher gets budgetMillis for each batch; tweets of
+    the batch it has not reached by then are passed on without its fields.
+
+    a tweet the enricher throws on is passed on as it is, and only the first failure is logged.  the
+    enriched, skipped and failed counts are reported with EnrichTweetStage's metrics
+ */
+public abstract class TweetEnricher {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private long budgetMillis = 20;
+
+    private final AtomicLong enriched = new AtomicLong();
+
+    private final AtomicLong skipped = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
+
+    protected abstract void enrich(Tweet tweet);
+
+    public String name() {
+        return this.getClass().getSimpleName();
+    }
+
+    public void setBudgetMillis(long budgetMillis) {
+        this.budgetMillis = budgetMillis;
+    }
+
+    public long getBudgetMillis() {
+        return budgetMillis;
+    }
+
+    public final void apply(Tweet tweet) {
+        try {
+            enrich(tweet);
+            enriched.incrementAndGet();
+        } catch (RuntimeException e) {
+            if (failed.getAndIncrement() == 0) {
+                log.warn(name() + " failed on tweet " + tweet.getTweetId() + ", further failures are only counted", e);
+            }
+        }
+    }
+
+    public final void skip(int tweets) {
+        skipped.addAndGet(tweets);
+    }
+
+    public long getEnriched() {
+        return enriched.get();
+    }
+
+    public long getSkipped() {
+        return skipped.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+}
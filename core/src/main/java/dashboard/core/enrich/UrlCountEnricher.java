@@ -0,0 +1,26 @@
+package dashboard.core.enrich;
+
+import dashboard.core.model.Tweet;
+import org.apache.commons.lang3.StringUtils;
+
+/*
+    number of links in the text
+ */
+public class UrlCountEnricher extends TweetEnricher {
+
+    @Override
+    protected void enrich(Tweet tweet) {
+
+        int urls = 0;
+
+        if (tweet.getText() != null) {
+            for (String word : StringUtils.split(tweet.getText())) {
+                if (StringUtils.startsWithIgnoreCase(word, "http://") || StringUtils.startsWithIgnoreCase(word, "https://")) {
+                    urls++;
+                }
+            }
+        }
+
+        tweet.setUrlCount(urls);
+    }
+}
@@ -0,0 +1,59 @@
+package dashboard.core.graph;
+
+import dashboard.core.utils.HashUtils;
+
+import java.util.Arrays;
+
+/*
+    count-min sketch over long keys: depth rows of width counters, an estimate is the smallest counter of the key
+    and never below the true count.  not thread safe
+ */
+class CountMinSketch {
+
+    private final int[][] rows;
+
+    private final int mask;
+
+    CountMinSketch(int depth, int width) {
+        this.rows = new int[depth][Integer.highestOneBit(Math.max(2, width - 1)) << 1];
+        this.mask = rows[0].length - 1;
+    }
+
+    void add(long key) {
+
+        final long hash1 = HashUtils.mix(key);
+        final long hash2 = HashUtils.mix(hash1) | 1;
+
+        for (int i = 0; i < rows.length; i++) {
+            final int slot = slot(hash1, hash2, i);
+
+            if (rows[i][slot] < Integer.MAX_VALUE) {
+                rows[i][slot]++;
+            }
+        }
+    }
+
+    long estimate(long key) {
+
+        final long hash1 = HashUtils.mix(key);
+        final long hash2 = HashUtils.mix(hash1) | 1;
+
+        int estimate = Integer.MAX_VALUE;
+
+        for (int i = 0; i < rows.length; i++) {
+            estimate = Math.min(estimate, rows[i][slot(hash1, hash2, i)]);
+        }
+
+        return estimate;
+    }
+
+    void clear() {
+        for (int[] row : rows) {
+            Arrays.fill(row, 0);
+        }
+    }
+
+    private int slot(long hash1, long hash2, int row) {
+        return (int) ((hash1 + row * hash2) >>> 32) & mask;
+    }
+}
@@ -0,0 +1,263 @@
+package dashboard.core.graph;
+
+import org.gridgain.grid.Grid;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/*
+    hash tags that appear in the same tweet, as a graph of weighted edges in one bucket per minute for the last
+    minutes.  both ends of an edge point at the same weight so a pair is counted once and either tag finds it.
+
+    a bucket holds at most maxEdges edges: past that the lightest are pruned and the bucket's threshold raised, and
+    a new edge is only admitted once a count-min sketch of every pair in the minute estimates it above the
+    threshold, starting it at that estimate.  a pair that turns hot after being pruned comes back with about its
+    true weight, while the long tail of one-off pairs stays out of the graph
+ */
+public class HashTagGraph {
+
+    private static final String NODE_LOCAL_KEY = HashTagGraph.class.getName();
+
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+    // a tweet stuffed with tags would add a pair per two of them
+    private static final int MAX_TAGS_PER_TWEET = 10;
+
+    private static final int SKETCH_DEPTH = 4;
+
+    private static final int SKETCH_WIDTH = 1 << 14;
+
+    private final Bucket[] buckets;
+
+    private final int maxEdges;
+
+    public HashTagGraph(int minutes, int maxEdges) {
+        this.maxEdges = maxEdges;
+        this.buckets = new Bucket[minutes + 1];
+
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new Bucket();
+        }
+    }
+
+    public static HashTagGraph get(Grid grid) {
+        final ConcurrentMap<String, HashTagGraph> nodeLocal = grid.nodeLocalMap();
+
+        return nodeLocal.get(NODE_LOCAL_KEY);
+    }
+
+    /*
+        the node's graph, registering this one when there is none yet
+     */
+    public HashTagGraph register(Grid grid) {
+        final ConcurrentMap<String, HashTagGraph> nodeLocal = grid.nodeLocalMap();
+
+        final HashTagGraph registered = nodeLocal.putIfAbsent(NODE_LOCAL_KEY, this);
+
+        return registered != null ? registered : this;
+    }
+
+    /*
+        adds an edge between every two tags of each tweet, tags compared lower cased
+     */
+    public void record(Collection<? extends Collection<String>> tweets, long now) {
+
+        final long minute = now / MINUTE;
+
+        final Bucket bucket = buckets[(int) (minute % buckets.length)];
+
+        synchronized (bucket) {
+            bucket.roll(minute);
+
+            for (Collection<String> texts : tweets) {
+                final List<String> tags = new ArrayList<>(normalize(texts));
+
+                for (int i = 0; i < tags.size(); i++) {
+                    for (int j = i + 1; j < tags.size(); j++) {
+                        bucket.add(tags.get(i), tags.get(j));
+                    }
+                }
+            }
+        }
+    }
+
+    /*
+        the weights of the tags seen with tag over the last windowMillis, the limit heaviest
+     */
+    public Map<String, Long> related(String tag, long windowMillis, int limit, long now) {
+
+        final String key = tag.toLowerCase(Locale.ROOT);
+
+        final long from = (now - windowMillis) / MINUTE;
+        final long to = now / MINUTE;
+
+        final Map<String, Long> related = new HashMap<>();
+
+        for (Bucket bucket : buckets) {
+            synchronized (bucket) {
+                if (bucket.minute < from || bucket.minute > to) {
+                    continue;
+                }
+
+                final Map<String, long[]> neighbours = bucket.adjacency.get(key);
+
+                if (neighbours != null) {
+                    for (Map.Entry<String, long[]> neighbour : neighbours.entrySet()) {
+                        final Long weight = related.get(neighbour.getKey());
+
+                        related.put(neighbour.getKey(), (weight != null ? weight : 0) + neighbour.getValue()[0]);
+                    }
+                }
+            }
+        }
+
+        if (related.size() <= limit) {
+            return related;
+        }
+
+        final List<Map.Entry<String, Long>> entries = new ArrayList<>(related.entrySet());
+
+        Collections.sort(entries, new Comparator<Map.Entry<String, Long>>() {
+
+            @Override
+            public int compare(Map.Entry<String, Long> o1, Map.Entry<String, Long> o2) {
+                return o2.getValue().compareTo(o1.getValue());
+            }
+        });
+
+        final Map<String, Long> top = new HashMap<>();
+
+        for (Map.Entry<String, Long> entry : entries.subList(0, limit)) {
+            top.put(entry.getKey(), entry.getValue());
+        }
+
+        return top;
+    }
+
+    public void reset() {
+        for (Bucket bucket : buckets) {
+            synchronized (bucket) {
+                bucket.roll(Long.MAX_VALUE);
+            }
+        }
+    }
+
+    private static SortedSet<String> normalize(Collection<String> texts) {
+
+        final SortedSet<String> tags = new TreeSet<>();
+
+        for (String text : texts) {
+            if (text != null && tags.size() < MAX_TAGS_PER_TWEET) {
+                tags.add(text.toLowerCase(Locale.ROOT));
+            }
+        }
+
+        return tags;
+    }
+
+    private class Bucket {
+
+        private final Map<String, Map<String, long[]>> adjacency = new HashMap<>();
+
+        private final CountMinSketch sketch = new CountMinSketch(SKETCH_DEPTH, SKETCH_WIDTH);
+
+        private long minute = -1;
+
+        private int edges;
+
+        private long threshold;
+
+        void roll(long minute) {
+            if (this.minute != minute) {
+                this.minute = minute;
+
+                adjacency.clear();
+                sketch.clear();
+                edges = 0;
+                threshold = 0;
+            }
+        }
+
+        // a < b
+        void add(String a, String b) {
+
+            final long pair = ((long) a.hashCode() << 32) ^ (b.hashCode() & 0xffffffffL);
+
+            sketch.add(pair);
+
+            final Map<String, long[]> neighbours = adjacency.get(a);
+
+            final long[] weight = neighbours != null ? neighbours.get(b) : null;
+
+            if (weight != null) {
+                weight[0]++;
+                return;
+            }
+
+            final long estimate = sketch.estimate(pair);
+
+            if (estimate <= threshold) {
+                return;
+            }
+
+            final long[] admitted = {estimate};
+
+            neighbours(a).put(b, admitted);
+            neighbours(b).put(a, admitted);
+
+            if (++edges > maxEdges) {
+                prune();
+            }
+        }
+
+        private Map<String, long[]> neighbours(String tag) {
+
+            Map<String, long[]> neighbours = adjacency.get(tag);
+
+            if (neighbours == null) {
+                neighbours = new HashMap<>();
+                adjacency.put(tag, neighbours);
+            }
+
+            return neighbours;
+        }
+
+        private void prune() {
+
+            while (edges > maxEdges * 3 / 4) {
+                threshold++;
+
+                int removed = 0;
+
+                for (Iterator<Map<String, long[]>> tags = adjacency.values().iterator(); tags.hasNext(); ) {
+                    final Map<String, long[]> neighbours = tags.next();
+
+                    for (Iterator<long[]> weights = neighbours.values().iterator(); weights.hasNext(); ) {
+                        if (weights.next()[0] <= threshold) {
+                            weights.remove();
+                            removed++;
+                        }
+                    }
+
+                    if (neighbours.isEmpty()) {
+                        tags.remove();
+                    }
+                }
+
+                // each edge was removed from both of its ends
+                edges -= removed / 2;
+            }
+        }
+    }
+}
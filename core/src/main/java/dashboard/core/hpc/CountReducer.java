@@ -0,0 +1,57 @@
+package dashboard.core.hpc;
+
+import dashboard.core.utils.GridConstants;
+import org.gridgain.grid.lang.GridReducer;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+    sums the per node counts by key, since a key can have counts on more than one node after the streamer
+    topology changes, then keeps the MAX_NUM_RETURNED highest, highest first
+ */
+public class CountReducer implements GridReducer<Map<String, Long>, Map<String, Long>> {
+
+    private final Map<String, Long> merged = new HashMap<>();
+
+    @Override
+    public boolean collect(@Nullable Map<String, Long> counts) {
+        if (counts != null) {
+            for (Map.Entry<String, Long> entry : counts.entrySet()) {
+                final Long count = merged.get(entry.getKey());
+
+                merged.put(entry.getKey(), count != null ? count + entry.getValue() : entry.getValue());
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public Map<String, Long> reduce() {
+
+        final List<Map.Entry<String, Long>> sorted = new ArrayList<>(merged.entrySet());
+
+        Collections.sort(sorted, new Comparator<Map.Entry<String, Long>>() {
+
+            @Override
+            public int compare(Map.Entry<String, Long> o1, Map.Entry<String, Long> o2) {
+                return o2.getValue().compareTo(o1.getValue());
+            }
+        });
+
+        final Map<String, Long> top = new LinkedHashMap<>();
+
+        for (Map.Entry<String, Long> entry : sorted.subList(0, Math.min(sorted.size(), GridConstants.MAX_NUM_RETURNED))) {
+            top.put(entry.getKey(), entry.getValue());
+        }
+
+        return top;
+    }
+}
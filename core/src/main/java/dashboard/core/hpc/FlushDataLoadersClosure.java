@@ -0,0 +1,48 @@
+package dashboard.core.hpc;
+
+import dashboard.core.streaming.stage.AddToDatabaseStage;
+import org.gridgain.grid.GridException;
+import org.gridgain.grid.GridRuntimeException;
+import org.gridgain.grid.dataload.GridDataLoader;
+import org.gridgain.grid.lang.GridInClosure;
+import org.gridgain.grid.streamer.GridStreamerContext;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+/*
+    flushes the data loaders the database stages keep on each streamer node.  the loaders stay open, since batches
+    still queued in the streamer when an ingest session stops can reach the stages after this and add to them.
+    every loader is flushed even if one fails, the first failure is thrown with the others suppressed
+ */
+public class FlushDataLoadersClosure implements GridInClosure<GridStreamerContext> {
+
+    @Override
+    public void apply(GridStreamerContext gridStreamerContext) {
+
+        final ConcurrentMap<String, Object> localSpace = gridStreamerContext.localSpace();
+
+        GridRuntimeException failure = null;
+
+        for (Map.Entry<String, Object> entry : localSpace.entrySet()) {
+
+            if (!entry.getKey().startsWith(AddToDatabaseStage.DATA_LOADER_PREFIX)) {
+                continue;
+            }
+
+            try {
+                ((GridDataLoader<?, ?>) entry.getValue()).flush();
+            } catch (GridException | RuntimeException e) {
+                if (failure == null) {
+                    failure = new GridRuntimeException("error flushing " + entry.getKey(), e);
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
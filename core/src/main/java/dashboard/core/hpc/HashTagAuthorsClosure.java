@@ -0,0 +1,44 @@
+package dashboard.core.hpc;
+
+import dashboard.core.authors.HashTagAuthors;
+import dashboard.core.utils.HyperLogLog;
+import org.gridgain.grid.lang.GridClosure;
+import org.gridgain.grid.streamer.GridStreamerContext;
+import org.gridgain.grid.streamer.GridStreamerWindow;
+import org.gridgain.grid.streamer.window.GridStreamerBoundedTimeWindow;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+/*
+    this node's sketches of the authors of each of tags over the time span of windowName
+ */
+public class HashTagAuthorsClosure implements GridClosure<GridStreamerContext, Map<String, HyperLogLog>> {
+
+    private final String windowName;
+
+    private final Collection<String> tags;
+
+    public HashTagAuthorsClosure(String windowName, Collection<String> tags) {
+        this.windowName = windowName;
+        this.tags = new ArrayList<>(tags);
+    }
+
+    @Override
+    public Map<String, HyperLogLog> apply(GridStreamerContext gridStreamerContext) {
+
+        final HashTagAuthors authors = gridStreamerContext.<String, HashTagAuthors>localSpace().get(HashTagAuthors.LOCAL_SPACE_KEY);
+
+        final GridStreamerWindow<?> window = gridStreamerContext.window(windowName);
+
+        if (authors == null || !(window instanceof GridStreamerBoundedTimeWindow)) {
+            return Collections.emptyMap();
+        }
+
+        final long interval = ((GridStreamerBoundedTimeWindow) window).getTimeInterval();
+
+        return authors.authors(tags, interval, System.currentTimeMillis());
+    }
+}
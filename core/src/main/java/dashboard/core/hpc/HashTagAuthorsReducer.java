@@ -0,0 +1,46 @@
+package dashboard.core.hpc;
+
+import dashboard.core.utils.HyperLogLog;
+import org.gridgain.grid.lang.GridReducer;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+    merges the per node sketches of each tag, so an author tweeting a tag on two nodes counts once, and
+    estimates the distinct authors of the merged sketch
+ */
+public class HashTagAuthorsReducer implements GridReducer<Map<String, HyperLogLog>, Map<String, Long>> {
+
+    private final Map<String, HyperLogLog> merged = new HashMap<>();
+
+    @Override
+    public boolean collect(@Nullable Map<String, HyperLogLog> sketches) {
+        if (sketches != null) {
+            for (Map.Entry<String, HyperLogLog> entry : sketches.entrySet()) {
+                final HyperLogLog sketch = merged.get(entry.getKey());
+
+                if (sketch == null) {
+                    merged.put(entry.getKey(), entry.getValue());
+                } else {
+                    sketch.merge(entry.getValue());
+                }
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public Map<String, Long> reduce() {
+
+        final Map<String, Long> estimates = new HashMap<>();
+
+        for (Map.Entry<String, HyperLogLog> entry : merged.entrySet()) {
+            estimates.put(entry.getKey(), entry.getValue().estimate());
+        }
+
+        return estimates;
+    }
+}
@@ -1,16 +1,19 @@
 package dashboard.core.hpc;
 
 import dashboard.core.model.HashTag;
+import dashboard.core.streaming.index.CountingIndex;
+import dashboard.core.streaming.window.EventTimeWindows;
 import org.gridgain.grid.lang.GridClosure;
 import org.gridgain.grid.streamer.GridStreamerContext;
 import org.gridgain.grid.streamer.GridStreamerWindow;
-import org.gridgain.grid.streamer.index.GridStreamerIndex;
-import org.gridgain.grid.streamer.index.GridStreamerIndexEntry;
+import org.gridgain.grid.streamer.window.GridStreamerBoundedTimeWindow;
 
-import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Map;
 
-public class HashTagClosure implements GridClosure<GridStreamerContext, Collection<GridStreamerIndexEntry<HashTag, String, Long>>> {
+/*
+    the highest hash tag counts in windowName on this node, from the event time windows when the streamer keeps them
+ */
+public class HashTagClosure implements GridClosure<GridStreamerContext, Map<String, Long>> {
 
     private String windowName;
 
@@ -19,12 +22,16 @@ public class HashTagClosure implements GridClosure<GridStreamerContext, Collecti
     }
 
     @Override
-    public Collection<GridStreamerIndexEntry<HashTag, String, Long>> apply(GridStreamerContext gridStreamerContext) {
+    public Map<String, Long> apply(GridStreamerContext gridStreamerContext) {
 
         final GridStreamerWindow<HashTag> gridStreamerWindow = gridStreamerContext.window(windowName);
 
-        final GridStreamerIndex<HashTag, String, Long> index = gridStreamerWindow.index();
+        final EventTimeWindows eventTimeWindows = gridStreamerContext.<String, EventTimeWindows>localSpace().get(EventTimeWindows.LOCAL_SPACE_KEY);
 
-        return new ArrayList<>(index.entries(0));
+        if (eventTimeWindows != null && gridStreamerWindow instanceof GridStreamerBoundedTimeWindow) {
+            return eventTimeWindows.counts(((GridStreamerBoundedTimeWindow) gridStreamerWindow).getTimeInterval(), CountingIndex.TOP_K);
+        }
+
+        return CountingIndex.get(gridStreamerContext, windowName).top(CountingIndex.TOP_K);
     }
 }
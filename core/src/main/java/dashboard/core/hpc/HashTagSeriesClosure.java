@@ -0,0 +1,30 @@
+package dashboard.core.hpc;
+
+import dashboard.core.model.HashTagTimeSeries;
+import dashboard.core.series.HashTagSeries;
+import dashboard.core.series.SeriesResolution;
+import org.gridgain.grid.lang.GridClosure;
+import org.gridgain.grid.streamer.GridStreamerContext;
+
+public class HashTagSeriesClosure implements GridClosure<GridStreamerContext, HashTagTimeSeries> {
+
+    private SeriesResolution resolution;
+
+    private long from;
+
+    private long to;
+
+    public HashTagSeriesClosure(SeriesResolution resolution, long from, long to) {
+        this.resolution = resolution;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public HashTagTimeSeries apply(GridStreamerContext gridStreamerContext) {
+
+        final HashTagSeries series = HashTagSeries.get(gridStreamerContext.projection().grid());
+
+        return series != null ? series.query(resolution, from, to) : HashTagSeries.empty(resolution, from, to);
+    }
+}
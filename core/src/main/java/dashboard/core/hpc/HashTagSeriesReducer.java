@@ -0,0 +1,41 @@
+package dashboard.core.hpc;
+
+import dashboard.core.model.HashTagTimeSeries;
+import org.gridgain.grid.lang.GridReducer;
+import org.jetbrains.annotations.Nullable;
+
+/*
+    sums the series of every streamer node, then keeps the limit busiest hash tags
+ */
+public class HashTagSeriesReducer implements GridReducer<HashTagTimeSeries, HashTagTimeSeries> {
+
+    private final int limit;
+
+    private HashTagTimeSeries merged;
+
+    public HashTagSeriesReducer(int limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public boolean collect(@Nullable HashTagTimeSeries series) {
+        if (series != null) {
+            if (merged == null) {
+                merged = series;
+            } else {
+                merged.merge(series);
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public HashTagTimeSeries reduce() {
+        if (merged != null) {
+            merged.retainTop(limit);
+        }
+
+        return merged;
+    }
+}
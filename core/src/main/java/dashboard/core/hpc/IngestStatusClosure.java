@@ -0,0 +1,14 @@
+package dashboard.core.hpc;
+
+import dashboard.core.ingest.IngestSessions;
+import dashboard.core.ingest.IngestStatus;
+import org.gridgain.grid.lang.GridClosure;
+import org.gridgain.grid.streamer.GridStreamerContext;
+
+public class IngestStatusClosure implements GridClosure<GridStreamerContext, IngestStatus> {
+
+    @Override
+    public IngestStatus apply(GridStreamerContext gridStreamerContext) {
+        return IngestSessions.get(gridStreamerContext.projection().grid()).status();
+    }
+}
@@ -0,0 +1,37 @@
+package dashboard.core.hpc;
+
+import dashboard.core.ingest.IngestStatus;
+import org.gridgain.grid.lang.GridReducer;
+import org.jetbrains.annotations.Nullable;
+
+/*
+    merges the node statuses of sessionId, ignoring nodes that last ran another session
+ */
+public class IngestStatusReducer implements GridReducer<IngestStatus, IngestStatus> {
+
+    private final String sessionId;
+
+    private IngestStatus merged;
+
+    public IngestStatusReducer(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    @Override
+    public boolean collect(@Nullable IngestStatus status) {
+        if (status != null && status.getSessionId().equals(sessionId)) {
+            if (merged == null) {
+                merged = status;
+            } else {
+                merged.merge(status);
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public IngestStatus reduce() {
+        return merged;
+    }
+}
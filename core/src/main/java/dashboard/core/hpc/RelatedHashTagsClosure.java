@@ -0,0 +1,45 @@
+package dashboard.core.hpc;
+
+import dashboard.core.graph.HashTagGraph;
+import dashboard.core.utils.GridConstants;
+import org.gridgain.grid.lang.GridClosure;
+import org.gridgain.grid.streamer.GridStreamerContext;
+import org.gridgain.grid.streamer.GridStreamerWindow;
+import org.gridgain.grid.streamer.window.GridStreamerBoundedTimeWindow;
+
+import java.util.Collections;
+import java.util.Map;
+
+/*
+    the tags seen in the same tweets as tag on this node over the time span of windowName
+ */
+public class RelatedHashTagsClosure implements GridClosure<GridStreamerContext, Map<String, Long>> {
+
+    // each node sends more than the reducer keeps, so a tag heavy across nodes is not cut off on any one
+    private static final int NODE_LIMIT = GridConstants.MAX_NUM_RETURNED * 10;
+
+    private final String tag;
+
+    private final String windowName;
+
+    public RelatedHashTagsClosure(String tag, String windowName) {
+        this.tag = tag;
+        this.windowName = windowName;
+    }
+
+    @Override
+    public Map<String, Long> apply(GridStreamerContext gridStreamerContext) {
+
+        final HashTagGraph graph = HashTagGraph.get(gridStreamerContext.projection().grid());
+
+        final GridStreamerWindow<?> window = gridStreamerContext.window(windowName);
+
+        if (graph == null || !(window instanceof GridStreamerBoundedTimeWindow)) {
+            return Collections.emptyMap();
+        }
+
+        final long interval = ((GridStreamerBoundedTimeWindow) window).getTimeInterval();
+
+        return graph.related(tag, interval, NODE_LIMIT, System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,74 @@
+package dashboard.core.hpc;
+
+import dashboard.core.graph.HashTagGraph;
+import dashboard.core.streaming.checkpoint.WindowCheckpoint;
+import dashboard.core.streaming.stage.AddToDatabaseStage;
+import dashboard.core.utils.GridConstants;
+import org.gridgain.grid.GridException;
+import org.gridgain.grid.GridRuntimeException;
+import org.gridgain.grid.dataload.GridDataLoader;
+import org.gridgain.grid.lang.GridInClosure;
+import org.gridgain.grid.streamer.GridStreamer;
+import org.gridgain.grid.streamer.GridStreamerContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+/*
+    resets the windows, local space, hash tag graph and metrics of the streamer on each node, and clears the window
+    checkpoint so a restart does not bring the discarded windows back.  the data loaders of the local space are
+    closed, the database stages create new ones on their next event.  a loader that fails to close is logged, the
+    entries it held are lost with the rest of the reset streamer
+ */
+public class ResetStreamerClosure implements GridInClosure<GridStreamerContext> {
+
+    // static, the closure is sent to every streamer node
+    private static final Logger log = LoggerFactory.getLogger(ResetStreamerClosure.class);
+
+    @Override
+    public void apply(GridStreamerContext gridStreamerContext) {
+
+        final GridStreamer streamer = gridStreamerContext.projection().grid().streamer(GridConstants.STREAMER_NAME);
+
+        closeDataLoaders(gridStreamerContext);
+
+        streamer.reset();
+        streamer.resetMetrics();
+
+        final HashTagGraph graph = HashTagGraph.get(gridStreamerContext.projection().grid());
+
+        if (graph != null) {
+            graph.reset();
+        }
+
+        final WindowCheckpoint checkpoint = WindowCheckpoint.get(gridStreamerContext.projection().grid());
+
+        if (checkpoint != null) {
+            try {
+                checkpoint.reset();
+            } catch (IOException e) {
+                throw new GridRuntimeException("error resetting window checkpoint", e);
+            }
+        }
+    }
+
+    // the reset drops the local space, the loaders in it are closed first so none is left running unreferenced
+    private static void closeDataLoaders(GridStreamerContext gridStreamerContext) {
+
+        final ConcurrentMap<String, Object> localSpace = gridStreamerContext.localSpace();
+
+        for (Map.Entry<String, Object> entry : localSpace.entrySet()) {
+
+            if (entry.getKey().startsWith(AddToDatabaseStage.DATA_LOADER_PREFIX) && localSpace.remove(entry.getKey(), entry.getValue())) {
+                try {
+                    ((GridDataLoader<?, ?>) entry.getValue()).close(false);
+                } catch (GridException | RuntimeException e) {
+                    log.error("error closing " + entry.getKey() + " on reset, its buffered entries are lost", e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package dashboard.core.hpc;
+
+import dashboard.core.ingest.IngestSessions;
+import dashboard.core.ingest.IngestSource;
+import org.gridgain.grid.GridException;
+import org.gridgain.grid.GridRuntimeException;
+import org.gridgain.grid.lang.GridInClosure;
+import org.gridgain.grid.streamer.GridStreamerContext;
+
+/*
+    starts the ingest shards of a session on each streamer node
+ */
+public class StartIngestClosure implements GridInClosure<GridStreamerContext> {
+
+    private String sessionId;
+
+    private IngestSource source;
+
+    private int shards;
+
+    private int multiplier;
+
+    private int tweetsPerSecond;
+
+    private long durationMillis;
+
+    public StartIngestClosure(String sessionId, IngestSource source, int shards, int multiplier, int tweetsPerSecond, long durationMillis) {
+        this.sessionId = sessionId;
+        this.source = source;
+        this.shards = shards;
+        this.multiplier = multiplier;
+        this.tweetsPerSecond = tweetsPerSecond;
+        this.durationMillis = durationMillis;
+    }
+
+    @Override
+    public void apply(GridStreamerContext gridStreamerContext) {
+        try {
+            IngestSessions.get(gridStreamerContext.projection().grid()).start(sessionId, source, shards, multiplier, tweetsPerSecond, durationMillis);
+        } catch (GridException e) {
+            throw new GridRuntimeException("error starting ingest session " + sessionId, e);
+        }
+    }
+}
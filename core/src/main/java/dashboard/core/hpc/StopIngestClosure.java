@@ -0,0 +1,19 @@
+package dashboard.core.hpc;
+
+import dashboard.core.ingest.IngestSessions;
+import org.gridgain.grid.lang.GridInClosure;
+import org.gridgain.grid.streamer.GridStreamerContext;
+
+public class StopIngestClosure implements GridInClosure<GridStreamerContext> {
+
+    private String sessionId;
+
+    public StopIngestClosure(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    @Override
+    public void apply(GridStreamerContext gridStreamerContext) {
+        IngestSessions.get(gridStreamerContext.projection().grid()).stop(sessionId);
+    }
+}
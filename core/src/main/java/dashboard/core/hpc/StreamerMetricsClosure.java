@@ -0,0 +1,17 @@
+package dashboard.core.hpc;
+
+import dashboard.core.streaming.metrics.StreamerMetrics;
+import dashboard.core.streaming.metrics.StreamerMetricsSnapshot;
+import org.gridgain.grid.lang.GridClosure;
+import org.gridgain.grid.streamer.GridStreamerContext;
+
+public class StreamerMetricsClosure implements GridClosure<GridStreamerContext, StreamerMetricsSnapshot> {
+
+    @Override
+    public StreamerMetricsSnapshot apply(GridStreamerContext gridStreamerContext) {
+
+        final StreamerMetrics metrics = StreamerMetrics.get(gridStreamerContext.projection().grid());
+
+        return metrics != null ? metrics.snapshot() : null;
+    }
+}
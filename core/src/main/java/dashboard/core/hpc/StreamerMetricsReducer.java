@@ -0,0 +1,40 @@
+package dashboard.core.hpc;
+
+import dashboard.core.streaming.metrics.StreamerMetricsSnapshot;
+import org.gridgain.grid.lang.GridReducer;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/*
+    keeps the nodes apart, an imbalance between them is one of the things the metrics are there to show
+ */
+public class StreamerMetricsReducer implements GridReducer<StreamerMetricsSnapshot, List<StreamerMetricsSnapshot>> {
+
+    private final List<StreamerMetricsSnapshot> snapshots = new ArrayList<>();
+
+    @Override
+    public boolean collect(@Nullable StreamerMetricsSnapshot snapshot) {
+        if (snapshot != null) {
+            snapshots.add(snapshot);
+        }
+
+        return true;
+    }
+
+    @Override
+    public List<StreamerMetricsSnapshot> reduce() {
+        Collections.sort(snapshots, new Comparator<StreamerMetricsSnapshot>() {
+
+            @Override
+            public int compare(StreamerMetricsSnapshot o1, StreamerMetricsSnapshot o2) {
+                return o1.getNodeId().compareTo(o2.getNodeId());
+            }
+        });
+
+        return snapshots;
+    }
+}
@@ -0,0 +1,20 @@
+package dashboard.core.hpc;
+
+import dashboard.core.subscribe.Subscription;
+import dashboard.core.subscribe.SubscriptionRegistry;
+import org.gridgain.grid.lang.GridInClosure;
+import org.gridgain.grid.streamer.GridStreamerContext;
+
+public class SubscribeClosure implements GridInClosure<GridStreamerContext> {
+
+    private Subscription subscription;
+
+    public SubscribeClosure(Subscription subscription) {
+        this.subscription = subscription;
+    }
+
+    @Override
+    public void apply(GridStreamerContext gridStreamerContext) {
+        SubscriptionRegistry.get(gridStreamerContext.projection().grid()).subscribe(subscription);
+    }
+}
@@ -1,24 +1,16 @@
 package dashboard.core.hpc;
 
-import dashboard.core.model.Tweet;
+import dashboard.core.streaming.index.CountingIndex;
 import dashboard.core.utils.GridConstants;
 import org.gridgain.grid.lang.GridClosure;
 import org.gridgain.grid.streamer.GridStreamerContext;
-import org.gridgain.grid.streamer.GridStreamerWindow;
-import org.gridgain.grid.streamer.index.GridStreamerIndex;
-import org.gridgain.grid.streamer.index.GridStreamerIndexEntry;
 
-import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Map;
 
-public class TweetClosure implements GridClosure<GridStreamerContext, Collection<GridStreamerIndexEntry<Tweet, String, Long>>> {
+public class TweetClosure implements GridClosure<GridStreamerContext, Map<String, Long>> {
 
     @Override
-    public Collection<GridStreamerIndexEntry<Tweet, String, Long>> apply(GridStreamerContext gridStreamerContext) {
-        final GridStreamerWindow<Tweet> gridStreamerWindow = gridStreamerContext.window(GridConstants.TOP_TWEETERS_WINDOW);
-
-        final GridStreamerIndex<Tweet, String, Long> index = gridStreamerWindow.index();
-
-        return new ArrayList<>(index.entries(0));
+    public Map<String, Long> apply(GridStreamerContext gridStreamerContext) {
+        return CountingIndex.get(gridStreamerContext, GridConstants.TOP_TWEETERS_WINDOW).top(CountingIndex.TOP_K);
     }
 }
@@ -0,0 +1,38 @@
+package dashboard.core.hpc;
+
+import dashboard.core.column.TweetColumnGroup;
+import dashboard.core.column.TweetColumns;
+import org.gridgain.grid.lang.GridClosure;
+import org.gridgain.grid.streamer.GridStreamerContext;
+
+import java.util.Collections;
+import java.util.Map;
+
+public class TweetColumnsClosure implements GridClosure<GridStreamerContext, Map<String, Long>> {
+
+    private TweetColumnGroup group;
+
+    private long from;
+
+    private long to;
+
+    private boolean includeFake;
+
+    private int limit;
+
+    public TweetColumnsClosure(TweetColumnGroup group, long from, long to, boolean includeFake, int limit) {
+        this.group = group;
+        this.from = from;
+        this.to = to;
+        this.includeFake = includeFake;
+        this.limit = limit;
+    }
+
+    @Override
+    public Map<String, Long> apply(GridStreamerContext gridStreamerContext) {
+
+        final TweetColumns columns = TweetColumns.get(gridStreamerContext.projection().grid());
+
+        return columns != null ? columns.count(group, from, to, includeFake, limit) : Collections.<String, Long>emptyMap();
+    }
+}
@@ -0,0 +1,74 @@
+package dashboard.core.hpc;
+
+import dashboard.core.column.TweetColumnGroup;
+import org.gridgain.grid.lang.GridReducer;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+    sums the counts of every streamer node.  time groups come back in time order, the others busiest first and
+    cut to limit
+ */
+public class TweetColumnsReducer implements GridReducer<Map<String, Long>, Map<String, Long>> {
+
+    private final TweetColumnGroup group;
+
+    private final int limit;
+
+    private final Map<String, Long> merged = new HashMap<>();
+
+    public TweetColumnsReducer(TweetColumnGroup group, int limit) {
+        this.group = group;
+        this.limit = limit;
+    }
+
+    @Override
+    public boolean collect(@Nullable Map<String, Long> counts) {
+        if (counts != null) {
+            for (Map.Entry<String, Long> entry : counts.entrySet()) {
+                final Long count = merged.get(entry.getKey());
+
+                merged.put(entry.getKey(), count != null ? count + entry.getValue() : entry.getValue());
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public Map<String, Long> reduce() {
+
+        final List<Map.Entry<String, Long>> entries = new ArrayList<>(merged.entrySet());
+
+        Collections.sort(entries, new Comparator<Map.Entry<String, Long>>() {
+
+            @Override
+            public int compare(Map.Entry<String, Long> o1, Map.Entry<String, Long> o2) {
+                if (group.isTime()) {
+                    return Long.compare(Long.parseLong(o1.getKey()), Long.parseLong(o2.getKey()));
+                }
+
+                return o2.getValue().compareTo(o1.getValue());
+            }
+        });
+
+        final Map<String, Long> result = new LinkedHashMap<>();
+
+        for (Map.Entry<String, Long> entry : entries) {
+            if (!group.isTime() && result.size() == limit) {
+                break;
+            }
+
+            result.put(entry.getKey(), entry.getValue());
+        }
+
+        return result;
+    }
+}
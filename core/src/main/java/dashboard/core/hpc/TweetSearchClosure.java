@@ -0,0 +1,72 @@
+package dashboard.core.hpc;
+
+import dashboard.core.model.Tweet;
+import dashboard.core.model.TweetSummary;
+import dashboard.core.search.TweetTextIndex;
+import org.apache.commons.lang3.StringUtils;
+import org.gridgain.grid.Grid;
+import org.gridgain.grid.cache.GridCache;
+import org.gridgain.grid.lang.GridCallable;
+import org.gridgain.grid.resources.GridInstanceResource;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+public class TweetSearchClosure implements GridCallable<Collection<TweetSummary>> {
+
+    @GridInstanceResource
+    private transient Grid grid;
+
+    private List<String> tokens;
+
+    private String screenName;
+
+    private long beforeTweetId;
+
+    private int limit;
+
+    public TweetSearchClosure(Collection<String> tokens, String screenName, long beforeTweetId, int limit) {
+        this.tokens = new ArrayList<>(tokens);
+        this.screenName = screenName;
+        this.beforeTweetId = beforeTweetId;
+        this.limit = limit;
+    }
+
+    @Override
+    public Collection<TweetSummary> call() throws Exception {
+
+        final GridCache<String, Tweet> cache = grid.cache(Tweet.class.getName());
+
+        final TweetTextIndex index = TweetTextIndex.get(grid);
+
+        final List<TweetSummary> tweets = new ArrayList<>(limit);
+
+        final Iterator<TweetTextIndex.Document> matches = index.search(tokens, beforeTweetId);
+
+        while (tweets.size() < limit && matches.hasNext()) {
+
+            final TweetTextIndex.Document document = matches.next();
+
+            Tweet tweet = cache.peek(document.getGuid());
+
+            if (tweet == null) {
+                // not on heap, but may still be held in the off-heap tier
+                tweet = cache.get(document.getGuid());
+            }
+
+            if (tweet == null) {
+                // entry left the cache without us hearing about it
+                index.remove(document.getGuid());
+                continue;
+            }
+
+            if (StringUtils.isBlank(screenName) || screenName.equals(tweet.getScreenName())) {
+                tweets.add(TweetSummary.create(tweet));
+            }
+        }
+
+        return tweets;
+    }
+}
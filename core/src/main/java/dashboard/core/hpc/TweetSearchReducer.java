@@ -0,0 +1,41 @@
+package dashboard.core.hpc;
+
+import dashboard.core.model.TweetSummary;
+import org.gridgain.grid.lang.GridReducer;
+import org.gridgain.grid.util.lang.GridFunc;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+public class TweetSearchReducer implements GridReducer<Collection<TweetSummary>, Collection<TweetSummary>> {
+
+    private List<TweetSummary> sorted = new ArrayList<>();
+
+    private int limit;
+
+    public TweetSearchReducer(int limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public boolean collect(@Nullable Collection<TweetSummary> tweets) {
+        if (tweets != null && !tweets.isEmpty()) {
+            sorted.addAll(tweets);
+        }
+
+        return true;
+    }
+
+    @Override
+    public Collection<TweetSummary> reduce() {
+        Collections.sort(sorted, new Comparator<TweetSummary>() {
+
+            @Override
+            public int compare(TweetSummary o1, TweetSummary o2) {
+                return Long.compare(o2.getTweetId(), o1.getTweetId());
+            }
+        });
+
+        return GridFunc.retain(sorted, true, limit);
+    }
+}
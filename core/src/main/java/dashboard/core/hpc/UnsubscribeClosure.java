@@ -0,0 +1,19 @@
+package dashboard.core.hpc;
+
+import dashboard.core.subscribe.SubscriptionRegistry;
+import org.gridgain.grid.lang.GridInClosure;
+import org.gridgain.grid.streamer.GridStreamerContext;
+
+public class UnsubscribeClosure implements GridInClosure<GridStreamerContext> {
+
+    private String subscriptionId;
+
+    public UnsubscribeClosure(String subscriptionId) {
+        this.subscriptionId = subscriptionId;
+    }
+
+    @Override
+    public void apply(GridStreamerContext gridStreamerContext) {
+        SubscriptionRegistry.get(gridStreamerContext.projection().grid()).unsubscribe(subscriptionId);
+    }
+}
@@ -0,0 +1,19 @@
+package dashboard.core.hpc;
+
+import dashboard.core.streaming.window.WindowMemoryGovernor;
+import org.gridgain.grid.lang.GridClosure;
+import org.gridgain.grid.streamer.GridStreamerContext;
+
+/*
+    the sampling shift of this node's windows, null when no governor runs on it
+ */
+public class WindowSamplingClosure implements GridClosure<GridStreamerContext, Integer> {
+
+    @Override
+    public Integer apply(GridStreamerContext gridStreamerContext) {
+
+        final WindowMemoryGovernor governor = WindowMemoryGovernor.get(gridStreamerContext.projection().grid());
+
+        return governor != null ? governor.getShift() : null;
+    }
+}
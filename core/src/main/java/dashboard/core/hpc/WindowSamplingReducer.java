@@ -0,0 +1,26 @@
+package dashboard.core.hpc;
+
+import org.gridgain.grid.lang.GridReducer;
+import org.jetbrains.annotations.Nullable;
+
+/*
+    the highest sampling shift of any node, the windows are only as exact as the most sampled of them
+ */
+public class WindowSamplingReducer implements GridReducer<Integer, Integer> {
+
+    private int shift;
+
+    @Override
+    public boolean collect(@Nullable Integer nodeShift) {
+        if (nodeShift != null) {
+            shift = Math.max(shift, nodeShift);
+        }
+
+        return true;
+    }
+
+    @Override
+    public Integer reduce() {
+        return shift;
+    }
+}
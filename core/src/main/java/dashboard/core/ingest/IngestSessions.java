@@ -0,0 +1,176 @@
+package dashboard.core.ingest;
+
+import dashboard.core.model.Tweet;
+import dashboard.core.store.TweetCacheStore;
+import dashboard.core.utils.GridConstants;
+import org.gridgain.grid.Grid;
+import org.gridgain.grid.GridException;
+import org.gridgain.grid.streamer.GridStreamer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+    the ingest shards running on this node.  a node runs one session at a time, starting another stops it; the
+    last session's status is kept until the next one starts
+ */
+public class IngestSessions {
+
+    private static final String NODE_LOCAL_KEY = IngestSessions.class.getName();
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final Grid grid;
+
+    private final List<IngestShard> shards = new ArrayList<>();
+
+    private String sessionId;
+
+    private IngestSource source;
+
+    private long startTime;
+
+    private long stopTime;
+
+    private ExecutorService executor;
+
+    IngestSessions(Grid grid) {
+        this.grid = grid;
+    }
+
+    public static IngestSessions get(Grid grid) {
+        final ConcurrentMap<String, IngestSessions> nodeLocal = grid.nodeLocalMap();
+
+        IngestSessions sessions = nodeLocal.get(NODE_LOCAL_KEY);
+
+        if (sessions == null) {
+            final IngestSessions created = new IngestSessions(grid);
+
+            sessions = nodeLocal.putIfAbsent(NODE_LOCAL_KEY, created);
+
+            if (sessions == null) {
+                sessions = created;
+            }
+        }
+
+        return sessions;
+    }
+
+    /*
+        starts shardCount shards of source, each stopping on its own after durationMillis
+     */
+    public synchronized void start(String sessionId, IngestSource source, int shardCount, int multiplier, int tweetsPerSecond, long durationMillis) throws GridException {
+
+        stop(this.sessionId);
+
+        final GridStreamer streamer = grid.streamer(GridConstants.STREAMER_NAME);
+
+        final long deadline = System.currentTimeMillis() + durationMillis;
+
+        final List<IngestShard> started = new ArrayList<>();
+
+        for (int i = 0; i < Math.max(1, shardCount); i++) {
+            switch (source) {
+                case SYNTHETIC:
+                    started.add(new SyntheticIngestShard(streamer, multiplier, tweetsPerSecond, deadline));
+                    break;
+                case REPLAY:
+                    final Object store = grid.cache(Tweet.class.getName()).configuration().getStore();
+
+                    if (!(store instanceof TweetCacheStore)) {
+                        throw new GridException("replay needs the tweet log store on the Tweet cache");
+                    }
+
+                    // every shard would replay the same log, so one per node
+                    if (i == 0) {
+                        started.add(new ReplayIngestShard(streamer, (TweetCacheStore) store, multiplier, tweetsPerSecond, deadline));
+                    }
+                    break;
+                default:
+                    throw new GridException(source + " is not a shard source");
+            }
+        }
+
+        final AtomicInteger threads = new AtomicInteger();
+
+        executor = Executors.newFixedThreadPool(started.size(), new ThreadFactory() {
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                final Thread thread = new Thread(runnable, "ingest-shard-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+
+                return thread;
+            }
+        });
+
+        this.sessionId = sessionId;
+        this.source = source;
+        this.startTime = System.currentTimeMillis();
+        this.stopTime = 0;
+
+        shards.clear();
+        shards.addAll(started);
+
+        for (IngestShard shard : started) {
+            executor.execute(shard);
+        }
+
+        log.info("started " + started.size() + " " + source + " ingest shards for session " + sessionId);
+    }
+
+    /*
+        stops the shards of the session, or of any session when sessionId is null
+     */
+    public synchronized void stop(String sessionId) {
+
+        if (executor == null || sessionId != null && !sessionId.equals(this.sessionId)) {
+            return;
+        }
+
+        for (IngestShard shard : shards) {
+            shard.stop();
+        }
+
+        executor.shutdownNow();
+        executor = null;
+
+        if (stopTime == 0) {
+            stopTime = System.currentTimeMillis();
+        }
+    }
+
+    public synchronized IngestStatus status() {
+
+        if (sessionId == null) {
+            return null;
+        }
+
+        int running = 0;
+        long tweets = 0;
+        long hashTags = 0;
+
+        for (IngestShard shard : shards) {
+            if (!shard.isDone()) {
+                running++;
+            }
+
+            tweets += shard.getTweets();
+            hashTags += shard.getHashTags();
+        }
+
+        // shards that reached their deadline stop on their own
+        if (stopTime == 0 && running == 0) {
+            stopTime = System.currentTimeMillis();
+        }
+
+        return new IngestStatus(sessionId, source, 1, running, tweets, hashTags, startTime, stopTime);
+    }
+}
@@ -0,0 +1,143 @@
+package dashboard.core.ingest;
+
+import dashboard.core.model.Tweet;
+import dashboard.core.model.TweetEvent;
+import dashboard.core.streaming.stage.DeduplicateTweetStage;
+import org.gridgain.grid.GridException;
+import org.gridgain.grid.streamer.GridStreamer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    one ingest thread on a streamer node.  tweets and their hash tags are handed to the streamer in batches, each
+    standing for multiplier fake copies the way TweetStreamListener multiplies the sample stream, and paced to
+    tweetsPerSecond when it is above 0.  the shard stops at its deadline, when its source runs dry or when it
+    is stopped
+ */
+abstract class IngestShard implements Runnable {
+
+    private static final int BATCH_SIZE = 256;
+
+    protected final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final GridStreamer streamer;
+
+    private final int multiplier;
+
+    private final int tweetsPerSecond;
+
+    private final long deadline;
+
+    private final AtomicLong tweetCount = new AtomicLong();
+
+    private final AtomicLong hashTagCount = new AtomicLong();
+
+    private final List<TweetEvent> events = new ArrayList<>(BATCH_SIZE);
+
+    private int batchTweets;
+
+    private int batchHashTags;
+
+    private volatile boolean stopped;
+
+    private volatile boolean done;
+
+    private long paceStart;
+
+    private long paced;
+
+    IngestShard(GridStreamer streamer, int multiplier, int tweetsPerSecond, long deadline) {
+        this.streamer = streamer;
+        this.multiplier = multiplier;
+        this.tweetsPerSecond = tweetsPerSecond;
+        this.deadline = deadline;
+    }
+
+    /*
+        emits tweets until running() turns false or the source is exhausted
+     */
+    protected abstract void produce() throws Exception;
+
+    @Override
+    public void run() {
+
+        paceStart = System.currentTimeMillis();
+
+        try {
+            produce();
+            flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("ingest shard failed", e);
+        } finally {
+            done = true;
+        }
+    }
+
+    void stop() {
+        stopped = true;
+    }
+
+    boolean isDone() {
+        return done;
+    }
+
+    long getTweets() {
+        return tweetCount.get();
+    }
+
+    long getHashTags() {
+        return hashTagCount.get();
+    }
+
+    protected boolean running() {
+        return !stopped && !Thread.currentThread().isInterrupted() && System.currentTimeMillis() < deadline;
+    }
+
+    protected void emit(Tweet tweet, Collection<String> hashTagTexts) throws GridException, InterruptedException {
+
+        // the fake copies are made by DeduplicateTweetStage once it has kept the tweet, but count and pace here
+        events.add(TweetEvent.create(tweet, hashTagTexts, multiplier));
+
+        batchTweets += 1 + multiplier;
+        batchHashTags += hashTagTexts.size() * (1 + multiplier);
+
+        if (batchTweets >= BATCH_SIZE) {
+            flush();
+        }
+    }
+
+    private void flush() throws GridException, InterruptedException {
+
+        if (events.isEmpty()) {
+            return;
+        }
+
+        streamer.addEventsToStage(DeduplicateTweetStage.class.getSimpleName(), new ArrayList<>(events));
+
+        tweetCount.addAndGet(batchTweets);
+        hashTagCount.addAndGet(batchHashTags);
+
+        paced += batchTweets;
+
+        events.clear();
+        batchTweets = 0;
+        batchHashTags = 0;
+
+        if (tweetsPerSecond > 0) {
+            final long due = paceStart + TimeUnit.SECONDS.toMillis(paced) / tweetsPerSecond;
+            final long wait = due - System.currentTimeMillis();
+
+            if (wait > 0) {
+                Thread.sleep(wait);
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package dashboard.core.ingest;
+
+/*
+    where an ingest session gets its tweets.  TWITTER is the sample stream, opened on the web node only; SYNTHETIC
+    and REPLAY run shards on every streamer node, generating tweets or replaying the node's tweet log
+ */
+public enum IngestSource {
+
+    TWITTER,
+    SYNTHETIC,
+    REPLAY
+}
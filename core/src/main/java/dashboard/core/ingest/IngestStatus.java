@@ -0,0 +1,121 @@
+package dashboard.core.ingest;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/*
+    progress of an ingest session, per node or merged across nodes.  stopTime is 0 while any shard is running
+ */
+public class IngestStatus implements Externalizable {
+
+    private String sessionId;
+
+    private IngestSource source;
+
+    private int nodes;
+
+    private int runningShards;
+
+    private long tweets;
+
+    private long hashTags;
+
+    private long startTime;
+
+    private long stopTime;
+
+    // required for Externalizable
+    public IngestStatus() {
+    }
+
+    public IngestStatus(String sessionId, IngestSource source, int nodes, int runningShards, long tweets, long hashTags, long startTime, long stopTime) {
+        this.sessionId = sessionId;
+        this.source = source;
+        this.nodes = nodes;
+        this.runningShards = runningShards;
+        this.tweets = tweets;
+        this.hashTags = hashTags;
+        this.startTime = startTime;
+        this.stopTime = stopTime;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public IngestSource getSource() {
+        return source;
+    }
+
+    public int getNodes() {
+        return nodes;
+    }
+
+    public int getRunningShards() {
+        return runningShards;
+    }
+
+    public long getTweets() {
+        return tweets;
+    }
+
+    public long getHashTags() {
+        return hashTags;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public long getStopTime() {
+        return stopTime;
+    }
+
+    public boolean isRunning() {
+        return sessionId != null && stopTime == 0;
+    }
+
+    public long getTweetsPerSecond() {
+        final long elapsed = (stopTime != 0 ? stopTime : System.currentTimeMillis()) - startTime;
+
+        return elapsed > 0 ? tweets * 1000 / elapsed : 0;
+    }
+
+    /*
+        adds the counts of another node's status for the same session
+     */
+    public void merge(IngestStatus status) {
+        nodes += status.nodes;
+        runningShards += status.runningShards;
+        tweets += status.tweets;
+        hashTags += status.hashTags;
+        startTime = Math.min(startTime, status.startTime);
+        stopTime = isRunning() || status.stopTime == 0 ? 0 : Math.max(stopTime, status.stopTime);
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeObject(sessionId);
+        out.writeObject(source);
+        out.writeInt(nodes);
+        out.writeInt(runningShards);
+        out.writeLong(tweets);
+        out.writeLong(hashTags);
+        out.writeLong(startTime);
+        out.writeLong(stopTime);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        sessionId = (String) in.readObject();
+        source = (IngestSource) in.readObject();
+        nodes = in.readInt();
+        runningShards = in.readInt();
+        tweets = in.readLong();
+        hashTags = in.readLong();
+        startTime = in.readLong();
+        stopTime = in.readLong();
+    }
+}
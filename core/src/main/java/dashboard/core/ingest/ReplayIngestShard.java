@@ -0,0 +1,93 @@
+package dashboard.core.ingest;
+
+import dashboard.core.model.Tweet;
+import dashboard.core.model.TweetFactory;
+import dashboard.core.store.TweetCacheStore;
+import org.gridgain.grid.lang.GridBiInClosure;
+import org.gridgain.grid.streamer.GridStreamer;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+    replays the original tweets of this node's tweet log once, oldest first.  replayed tweets are new fake copies
+    that keep the time they were created, so the event time windows count a replay at any pace the way they
+    counted the live stream, and they stay out of search.  the log does not keep hash tags, they are parsed back
+    out of the text
+ */
+class ReplayIngestShard extends IngestShard {
+
+    private static final Pattern HASH_TAG = Pattern.compile("(?:^|[^\\w&])#(\\w+)");
+
+    private final TweetCacheStore store;
+
+    ReplayIngestShard(GridStreamer streamer, TweetCacheStore store, int multiplier, int tweetsPerSecond, long deadline) {
+        super(streamer, multiplier, tweetsPerSecond, deadline);
+        this.store = store;
+    }
+
+    @Override
+    protected void produce() throws Exception {
+
+        try {
+            store.loadCache(new GridBiInClosure<String, Tweet>() {
+
+                @Override
+                public void apply(String guid, Tweet tweet) {
+                    if (!running()) {
+                        throw new Stop(null);
+                    }
+
+                    // fake copies are stored like the originals, replaying them would replay every earlier replay
+                    if (tweet.isFake()) {
+                        return;
+                    }
+
+                    try {
+                        emit(TweetFactory.create(tweet.getTweetId(), tweet.getUserId(), tweet.getScreenName(), tweet.getText(),
+                                tweet.getCreatedAt() != null ? tweet.getCreatedAt() : new Date(),
+                                tweet.getLanguageCode(), tweet.getSource(), true), hashTags(tweet.getText()));
+                    } catch (Exception e) {
+                        throw new Stop(e);
+                    }
+                }
+            }, 0L, Long.MAX_VALUE);
+        } catch (Stop stop) {
+            if (stop.getCause() instanceof InterruptedException) {
+                throw (InterruptedException) stop.getCause();
+            }
+
+            if (stop.getCause() != null) {
+                throw (Exception) stop.getCause();
+            }
+        }
+    }
+
+    private static List<String> hashTags(String text) {
+
+        final List<String> hashTags = new ArrayList<>();
+
+        if (text != null) {
+            final Matcher matcher = HASH_TAG.matcher(text);
+
+            while (matcher.find()) {
+                hashTags.add(matcher.group(1));
+            }
+        }
+
+        return hashTags;
+    }
+
+    /*
+        unwinds the log scan when the shard stops or the streamer fails
+     */
+    private static class Stop extends RuntimeException {
+
+        Stop(Throwable cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package dashboard.core.ingest;
+
+import dashboard.core.model.TweetFactory;
+import org.gridgain.grid.streamer.GridStreamer;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+/*
+    generates fake tweets until stopped.  screen names and hash tags are drawn with a heavy skew toward the low
+    numbers, so the top lists settle the way they do on the sample stream
+ */
+class SyntheticIngestShard extends IngestShard {
+
+    private static final int USERS = 100000;
+
+    private static final int HASH_TAGS = 5000;
+
+    private static final int MAX_HASH_TAGS_PER_TWEET = 3;
+
+    private static final String[] LANGUAGES = {"en", "es", "pt", "ja", "ar", "fr", "tr", "id"};
+
+    private final Random random = new Random();
+
+    SyntheticIngestShard(GridStreamer streamer, int multiplier, int tweetsPerSecond, long deadline) {
+        super(streamer, multiplier, tweetsPerSecond, deadline);
+    }
+
+    @Override
+    protected void produce() throws Exception {
+
+        while (running()) {
+            final int user = skewed(USERS);
+
+            final List<String> hashTags = new ArrayList<>(MAX_HASH_TAGS_PER_TWEET);
+
+            final StringBuilder text = new StringBuilder("synthetic tweet");
+
+            for (int i = random.nextInt(MAX_HASH_TAGS_PER_TWEET + 1); i > 0; i--) {
+                final String hashTag = "tag" + skewed(HASH_TAGS);
+
+                hashTags.add(hashTag);
+                text.append(" #").append(hashTag);
+            }
+
+            emit(TweetFactory.create(random.nextLong() & Long.MAX_VALUE, user, "user" + user, text.toString(), new Date(),
+                    LANGUAGES[skewed(LANGUAGES.length)], "synthetic", true), hashTags);
+        }
+    }
+
+    private int skewed(int bound) {
+        final double r = random.nextDouble();
+
+        return (int) (bound * r * r * r);
+    }
+}
@@ -14,12 +14,22 @@ public class HashTag implements Externalizable {
     @GridCacheQuerySqlField(unique = true)
     private String GUID;
 
-    @GridCacheQuerySqlField
+    @GridCacheQuerySqlField(index = true)
     private String text;
 
-    @GridCacheQuerySqlField
+    // HashTagKey maps affinity on the tweet's GUID, so the join back to Tweet never leaves the node
+    @GridCacheQuerySqlField(index = true)
     private String tweetGUID;
 
+    // author of the tweet, for the distinct author counts of the windows
+    private long userId;
+
+    // createdAt of the tweet in millis, 0 when unknown, for the event time windows
+    private long createdAt;
+
+    // occurrences of the text this event stands for in the windows, see AddHashTagToWindowsStage.  not stored
+    private int weight = 1;
+
     HashTag() {
     }
 
@@ -47,11 +57,37 @@ public class HashTag implements Externalizable {
         this.tweetGUID = tweetGUID;
     }
 
+    public long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(long userId) {
+        this.userId = userId;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public void setWeight(int weight) {
+        this.weight = weight;
+    }
+
     @Override
     public void writeExternal(ObjectOutput out) throws IOException {
         out.writeObject(tweetGUID);
         out.writeObject(text);
         out.writeObject(GUID);
+        out.writeLong(userId);
+        out.writeLong(createdAt);
     }
 
     @Override
@@ -59,6 +95,8 @@ public class HashTag implements Externalizable {
         tweetGUID = (String)in.readObject();
         text = (String)in.readObject();
         GUID = (String)in.readObject();
+        userId = in.readLong();
+        createdAt = in.readLong();
     }
 
     @Override
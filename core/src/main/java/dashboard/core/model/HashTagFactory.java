@@ -11,9 +11,28 @@ public class HashTagFactory {
         HashTag hashTag = new HashTag();
         hashTag.setGUID(UUID.randomUUID().toString());
         hashTag.setTweetGUID(tweet.getGUID());
+        hashTag.setUserId(tweet.getUserId());
+        hashTag.setCreatedAt(tweet.getCreatedAt() != null ? tweet.getCreatedAt().getTime() : 0);
         hashTag.setText(hashHasTagEntity.getText());
 
         return hashTag;
     }
 
+    public static HashTag create(Tweet tweet, String text) {
+        HashTag hashTag = create(tweet.getGUID(), text);
+        hashTag.setUserId(tweet.getUserId());
+        hashTag.setCreatedAt(tweet.getCreatedAt() != null ? tweet.getCreatedAt().getTime() : 0);
+
+        return hashTag;
+    }
+
+    public static HashTag create(String tweetGUID, String text) {
+        HashTag hashTag = new HashTag();
+        hashTag.setGUID(UUID.randomUUID().toString());
+        hashTag.setTweetGUID(tweetGUID);
+        hashTag.setText(text);
+
+        return hashTag;
+    }
+
 }
@@ -0,0 +1,154 @@
+package dashboard.core.model;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+    hash tag counts over consecutive time slots of step millis starting at start.  counts that did not make a
+    top list are summed into other
+ */
+public class HashTagTimeSeries implements Externalizable {
+
+    private long start;
+
+    private long step;
+
+    private Map<String, long[]> counts = new LinkedHashMap<>();
+
+    private long[] other;
+
+    // required for Externalizable
+    public HashTagTimeSeries() {
+    }
+
+    public HashTagTimeSeries(long start, long step, int slots) {
+        this.start = start;
+        this.step = step;
+        this.other = new long[slots];
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public long getStep() {
+        return step;
+    }
+
+    public Map<String, long[]> getCounts() {
+        return counts;
+    }
+
+    public long[] getOther() {
+        return other;
+    }
+
+    public void add(String hashTag, int slot, long count) {
+        long[] column = counts.get(hashTag);
+
+        if (column == null) {
+            column = new long[other.length];
+            counts.put(hashTag, column);
+        }
+
+        column[slot] += count;
+    }
+
+    public void addOther(int slot, long count) {
+        other[slot] += count;
+    }
+
+    public void merge(HashTagTimeSeries series) {
+        for (Map.Entry<String, long[]> entry : series.counts.entrySet()) {
+            for (int slot = 0; slot < other.length; slot++) {
+                if (entry.getValue()[slot] != 0) {
+                    add(entry.getKey(), slot, entry.getValue()[slot]);
+                }
+            }
+        }
+
+        for (int slot = 0; slot < other.length; slot++) {
+            other[slot] += series.other[slot];
+        }
+    }
+
+    /*
+        keeps the limit hash tags with the highest totals, in that order, and folds the rest into other
+     */
+    public void retainTop(int limit) {
+
+        final List<Map.Entry<String, long[]>> entries = new ArrayList<>(counts.entrySet());
+
+        final Map<String, Long> totals = new LinkedHashMap<>();
+
+        for (Map.Entry<String, long[]> entry : entries) {
+            long total = 0;
+
+            for (long count : entry.getValue()) {
+                total += count;
+            }
+
+            totals.put(entry.getKey(), total);
+        }
+
+        Collections.sort(entries, new Comparator<Map.Entry<String, long[]>>() {
+
+            @Override
+            public int compare(Map.Entry<String, long[]> o1, Map.Entry<String, long[]> o2) {
+                return totals.get(o2.getKey()).compareTo(totals.get(o1.getKey()));
+            }
+        });
+
+        final Map<String, long[]> top = new LinkedHashMap<>();
+
+        for (int i = 0; i < entries.size(); i++) {
+            final Map.Entry<String, long[]> entry = entries.get(i);
+
+            if (i < limit) {
+                top.put(entry.getKey(), entry.getValue());
+            } else {
+                for (int slot = 0; slot < other.length; slot++) {
+                    other[slot] += entry.getValue()[slot];
+                }
+            }
+        }
+
+        counts = top;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeLong(start);
+        out.writeLong(step);
+        out.writeObject(other);
+        out.writeInt(counts.size());
+
+        for (Map.Entry<String, long[]> entry : counts.entrySet()) {
+            out.writeObject(entry.getKey());
+            out.writeObject(entry.getValue());
+        }
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        start = in.readLong();
+        step = in.readLong();
+        other = (long[]) in.readObject();
+
+        final int size = in.readInt();
+
+        counts = new LinkedHashMap<>(size * 2);
+
+        for (int i = 0; i < size; i++) {
+            counts.put((String) in.readObject(), (long[]) in.readObject());
+        }
+    }
+}
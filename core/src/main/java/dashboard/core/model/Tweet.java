@@ -46,6 +46,20 @@ public class Tweet implements Externalizable {
     @GridCacheQuerySqlField
     private String source;
 
+    // filled in by the enrichers of EnrichTweetStage, null when an enricher did not run on the tweet
+    @GridCacheQuerySqlField(index = true)
+    private Integer sentiment;
+
+    @GridCacheQuerySqlField
+    private Integer tokenCount;
+
+    @GridCacheQuerySqlField
+    private Integer urlCount;
+
+    // tweets this one stands for in the top tweeters window when the window is sampled, see WindowMemoryGovernor.
+    // not stored
+    private int weight = 1;
+
     // required for Externalizable
     Tweet() {
     }
@@ -138,6 +152,38 @@ public class Tweet implements Externalizable {
         this.source = source;
     }
 
+    public Integer getSentiment() {
+        return sentiment;
+    }
+
+    public void setSentiment(Integer sentiment) {
+        this.sentiment = sentiment;
+    }
+
+    public Integer getTokenCount() {
+        return tokenCount;
+    }
+
+    public void setTokenCount(Integer tokenCount) {
+        this.tokenCount = tokenCount;
+    }
+
+    public Integer getUrlCount() {
+        return urlCount;
+    }
+
+    public void setUrlCount(Integer urlCount) {
+        this.urlCount = urlCount;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public void setWeight(int weight) {
+        this.weight = weight;
+    }
+
     @Override
     public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
         GUID = (String) in.readObject();
@@ -151,6 +197,9 @@ public class Tweet implements Externalizable {
         geoEnabled = in.readBoolean();
         location = (String) in.readObject();
         source = (String) in.readObject();
+        sentiment = (Integer) in.readObject();
+        tokenCount = (Integer) in.readObject();
+        urlCount = (Integer) in.readObject();
 
     }
 
@@ -167,11 +216,14 @@ public class Tweet implements Externalizable {
         out.writeBoolean(geoEnabled);
         out.writeObject(location);
         out.writeObject(source);
+        out.writeObject(sentiment);
+        out.writeObject(tokenCount);
+        out.writeObject(urlCount);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(GUID, tweetId, text, createdAt, userId, screenName, languageCode, fake, geoEnabled, location, source);
+        return Objects.hash(GUID, tweetId, text, createdAt, userId, screenName, languageCode, fake, geoEnabled, location, source, sentiment, tokenCount, urlCount);
     }
 
     @Override
@@ -183,6 +235,6 @@ public class Tweet implements Externalizable {
             return false;
         }
         final Tweet other = (Tweet) obj;
-        return Objects.equals(this.GUID, other.GUID) && Objects.equals(this.tweetId, other.tweetId) && Objects.equals(this.text, other.text) && Objects.equals(this.createdAt, other.createdAt) && Objects.equals(this.userId, other.userId) && Objects.equals(this.screenName, other.screenName) && Objects.equals(this.languageCode, other.languageCode) && Objects.equals(this.fake, other.fake) && Objects.equals(this.geoEnabled, other.geoEnabled) && Objects.equals(this.location, other.location) && Objects.equals(this.source, other.source);
+        return Objects.equals(this.GUID, other.GUID) && Objects.equals(this.tweetId, other.tweetId) && Objects.equals(this.text, other.text) && Objects.equals(this.createdAt, other.createdAt) && Objects.equals(this.userId, other.userId) && Objects.equals(this.screenName, other.screenName) && Objects.equals(this.languageCode, other.languageCode) && Objects.equals(this.fake, other.fake) && Objects.equals(this.geoEnabled, other.geoEnabled) && Objects.equals(this.location, other.location) && Objects.equals(this.source, other.source) && Objects.equals(this.sentiment, other.sentiment) && Objects.equals(this.tokenCount, other.tokenCount) && Objects.equals(this.urlCount, other.urlCount);
     }
 }
@@ -0,0 +1,109 @@
+package dashboard.core.model;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/*
+    a tweet with its hash tags as it enters the streamer, so a tweet dropped by DeduplicateTweetStage takes its
+    hash tags with it.  the multiplier fake copies of a tweet travel as a count on its event and are only made
+    once DeduplicateTweetStage has let the tweet through, so a duplicate takes its copies with it too
+ */
+public class TweetEvent implements Externalizable {
+
+    private Tweet tweet;
+
+    private List<HashTag> hashTags;
+
+    private int copies;
+
+    // required for Externalizable
+    public TweetEvent() {
+    }
+
+    public TweetEvent(Tweet tweet, List<HashTag> hashTags) {
+        this(tweet, hashTags, 0);
+    }
+
+    public TweetEvent(Tweet tweet, List<HashTag> hashTags, int copies) {
+        this.tweet = tweet;
+        this.hashTags = hashTags;
+        this.copies = copies;
+    }
+
+    public static TweetEvent create(Tweet tweet, Collection<String> hashTagTexts, int copies) {
+
+        final List<HashTag> hashTags = new ArrayList<>(hashTagTexts.size());
+
+        for (String text : hashTagTexts) {
+            hashTags.add(HashTagFactory.create(tweet, text));
+        }
+
+        return new TweetEvent(tweet, hashTags, copies);
+    }
+
+    public Tweet getTweet() {
+        return tweet;
+    }
+
+    public List<HashTag> getHashTags() {
+        return hashTags;
+    }
+
+    public int getCopies() {
+        return copies;
+    }
+
+    /*
+        the fake copies, each a new tweet with new hash tags
+     */
+    public List<TweetEvent> fakeCopies() {
+
+        final List<TweetEvent> events = new ArrayList<>(copies);
+
+        for (int i = 0; i < copies; i++) {
+            final Tweet copy = TweetFactory.copy(tweet, true);
+
+            final List<HashTag> copyHashTags = new ArrayList<>(hashTags.size());
+
+            for (HashTag hashTag : hashTags) {
+                copyHashTags.add(HashTagFactory.create(copy, hashTag.getText()));
+            }
+
+            events.add(new TweetEvent(copy, copyHashTags));
+        }
+
+        return events;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeObject(tweet);
+        out.writeInt(hashTags.size());
+
+        for (HashTag hashTag : hashTags) {
+            out.writeObject(hashTag);
+        }
+
+        out.writeInt(copies);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        tweet = (Tweet) in.readObject();
+
+        final int size = in.readInt();
+
+        hashTags = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            hashTags.add((HashTag) in.readObject());
+        }
+
+        copies = in.readInt();
+    }
+}
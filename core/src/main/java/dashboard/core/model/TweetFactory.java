@@ -1,5 +1,6 @@
 package dashboard.core.model;
 
+import java.util.Date;
 import java.util.UUID;
 
 public class TweetFactory {
@@ -22,4 +23,33 @@ public class TweetFactory {
         return ggTweet;
 
     }
+
+    public static Tweet create(long tweetId, long userId, String screenName, String text, Date createdAt, String languageCode, String source, boolean fake) {
+
+        Tweet ggTweet = new Tweet();
+        ggTweet.setGUID(UUID.randomUUID().toString());
+        ggTweet.setTweetId(tweetId);
+        ggTweet.setText(text);
+        ggTweet.setCreatedAt(createdAt);
+        ggTweet.setScreenName(screenName);
+        ggTweet.setUserId(userId);
+        ggTweet.setLanguageCode(languageCode);
+        ggTweet.setSource(source);
+        ggTweet.setFake(fake);
+
+        return ggTweet;
+    }
+
+    /*
+        a new tweet, with its own GUID, of the same tweet as tweet
+     */
+    public static Tweet copy(Tweet tweet, boolean fake) {
+
+        Tweet ggTweet = create(tweet.getTweetId(), tweet.getUserId(), tweet.getScreenName(), tweet.getText(), tweet.getCreatedAt(),
+                tweet.getLanguageCode(), tweet.getSource(), fake);
+        ggTweet.setGeoEnabled(tweet.isGeoEnabled());
+        ggTweet.setLocation(tweet.getLocation());
+
+        return ggTweet;
+    }
 }
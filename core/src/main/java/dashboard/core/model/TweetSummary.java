@@ -0,0 +1,86 @@
+package dashboard.core.model;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Date;
+import java.util.Objects;
+
+/*
+    projection of the Tweet columns the search view renders
+ */
+public class TweetSummary implements Externalizable {
+
+    private long tweetId;
+
+    private String screenName;
+
+    private String text;
+
+    private Date createdAt;
+
+    // required for Externalizable
+    public TweetSummary() {
+    }
+
+    public TweetSummary(long tweetId, String screenName, String text, Date createdAt) {
+        this.tweetId = tweetId;
+        this.screenName = screenName;
+        this.text = text;
+        this.createdAt = createdAt;
+    }
+
+    public static TweetSummary create(Tweet tweet) {
+        return new TweetSummary(tweet.getTweetId(), tweet.getScreenName(), tweet.getText(), tweet.getCreatedAt());
+    }
+
+    public long getTweetId() {
+        return tweetId;
+    }
+
+    public String getScreenName() {
+        return screenName;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        tweetId = in.readLong();
+        screenName = (String) in.readObject();
+        text = (String) in.readObject();
+        createdAt = (Date) in.readObject();
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeLong(tweetId);
+        out.writeObject(screenName);
+        out.writeObject(text);
+        out.writeObject(createdAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(tweetId, screenName, text, createdAt);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        final TweetSummary other = (TweetSummary) obj;
+        return Objects.equals(this.tweetId, other.tweetId) && Objects.equals(this.screenName, other.screenName) && Objects.equals(this.text, other.text) && Objects.equals(this.createdAt, other.createdAt);
+    }
+}
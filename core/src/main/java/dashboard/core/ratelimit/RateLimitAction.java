@@ -0,0 +1,13 @@
+package dashboard.core.ratelimit;
+
+/*
+    what RateLimitTweetStage does with a tweet over its user's rate
+ */
+public enum RateLimitAction {
+
+    // the tweet and its hash tags are discarded
+    DROP,
+
+    // the tweet and its hash tags are stored in the caches but kept out of the windows, so they are not counted
+    STORE_ONLY
+}
@@ -0,0 +1,99 @@
+package dashboard.core.ratelimit;
+
+import dashboard.core.utils.HashUtils;
+
+/*
+    a token bucket per long key in a fixed size open addressing table of primitive arrays, so memory stays at
+    ~20 bytes a slot however many keys pass through.  a bucket idle long enough to refill is as good as absent,
+    which lets its slot be reused; when the PROBES slots of a key are all live, the least recently used one is
+    evicted and its key starts over with a full bucket
+ */
+public class TokenBuckets {
+
+    private static final int PROBES = 8;
+
+    private final long[] keys;
+
+    private final long[] updated;
+
+    private final float[] tokens;
+
+    private final int mask;
+
+    private final double tokensPerMilli;
+
+    private final float burst;
+
+    private final long refillMillis;
+
+    private long evictions;
+
+    public TokenBuckets(int maxKeys, double tokensPerSecond, int burst) {
+
+        final int capacity = Integer.highestOneBit(Math.max(PROBES, maxKeys - 1)) << 1;
+
+        this.keys = new long[capacity];
+        this.updated = new long[capacity];
+        this.tokens = new float[capacity];
+        this.mask = capacity - 1;
+        this.tokensPerMilli = tokensPerSecond / 1000;
+        this.burst = Math.max(1, burst);
+        this.refillMillis = (long) Math.ceil(this.burst / tokensPerMilli);
+    }
+
+    /*
+        takes a token from the key's bucket at now (millis), false when it is empty
+     */
+    public synchronized boolean tryAcquire(long key, long now) {
+
+        final int start = (int) HashUtils.mix(key) & mask;
+
+        int free = -1;
+        int oldest = -1;
+
+        for (int i = 0; i < PROBES; i++) {
+            final int slot = (start + i) & mask;
+
+            if (updated[slot] != 0 && keys[slot] == key) {
+                final float available = (float) Math.min(burst, tokens[slot] + (now - updated[slot]) * tokensPerMilli);
+
+                updated[slot] = Math.max(1, now);
+
+                if (available >= 1) {
+                    tokens[slot] = available - 1;
+                    return true;
+                }
+
+                tokens[slot] = available;
+                return false;
+            }
+
+            if (free < 0 && (updated[slot] == 0 || now - updated[slot] >= refillMillis)) {
+                free = slot;
+            }
+
+            if (oldest < 0 || updated[slot] < updated[oldest]) {
+                oldest = slot;
+            }
+        }
+
+        if (free < 0) {
+            free = oldest;
+            evictions++;
+        }
+
+        keys[free] = key;
+        updated[free] = Math.max(1, now);
+        tokens[free] = burst - 1;
+
+        return true;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public long getMemoryBytes() {
+        return keys.length * 20L;
+    }
+}
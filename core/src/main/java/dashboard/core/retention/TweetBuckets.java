@@ -0,0 +1,97 @@
+package dashboard.core.retention;
+
+import dashboard.core.model.Tweet;
+import org.gridgain.grid.Grid;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/*
+    node local grouping of the keys of the tweets this node is primary for into fixed time buckets by createdAt,
+    so expiring a bucket is one bulk remove instead of entry by entry eviction
+ */
+public class TweetBuckets {
+
+    private static final String NODE_LOCAL_KEY = TweetBuckets.class.getName();
+
+    private final long bucketSize;
+
+    private final ConcurrentNavigableMap<Long, Queue<String>> buckets = new ConcurrentSkipListMap<>();
+
+    TweetBuckets(long bucketSize) {
+        this.bucketSize = bucketSize;
+    }
+
+    /*
+        null unless TweetRetention is running on this node
+     */
+    public static TweetBuckets get(Grid grid) {
+        final ConcurrentMap<String, TweetBuckets> nodeLocal = grid.nodeLocalMap();
+
+        return nodeLocal.get(NODE_LOCAL_KEY);
+    }
+
+    static TweetBuckets create(Grid grid, long bucketSize) {
+        final ConcurrentMap<String, TweetBuckets> nodeLocal = grid.nodeLocalMap();
+
+        final TweetBuckets created = new TweetBuckets(bucketSize);
+
+        final TweetBuckets existing = nodeLocal.putIfAbsent(NODE_LOCAL_KEY, created);
+
+        return existing != null ? existing : created;
+    }
+
+    static void remove(Grid grid) {
+        final ConcurrentMap<String, TweetBuckets> nodeLocal = grid.nodeLocalMap();
+
+        nodeLocal.remove(NODE_LOCAL_KEY);
+    }
+
+    public void add(Tweet tweet) {
+
+        final long time = tweet.getCreatedAt() != null ? tweet.getCreatedAt().getTime() : System.currentTimeMillis();
+
+        final Long bucket = time - time % bucketSize;
+
+        Queue<String> keys = buckets.get(bucket);
+
+        if (keys == null) {
+            final Queue<String> created = new ConcurrentLinkedQueue<>();
+
+            keys = buckets.putIfAbsent(bucket, created);
+
+            if (keys == null) {
+                keys = created;
+            }
+        }
+
+        keys.add(tweet.getGUID());
+    }
+
+    /*
+        detaches and returns the keys of every bucket that ends at or before the given time
+     */
+    Collection<Collection<String>> expire(long before) {
+
+        final List<Collection<String>> expired = new ArrayList<>();
+
+        for (Map.Entry<Long, Queue<String>> bucket : buckets.headMap(before - bucketSize, true).entrySet()) {
+            if (buckets.remove(bucket.getKey(), bucket.getValue())) {
+                expired.add(bucket.getValue());
+            }
+        }
+
+        return expired;
+    }
+
+    public int bucketCount() {
+        return buckets.size();
+    }
+}
@@ -0,0 +1,131 @@
+package dashboard.core.retention;
+
+import dashboard.core.model.Tweet;
+import org.gridgain.grid.Grid;
+import org.gridgain.grid.GridException;
+import org.gridgain.grid.GridLifecycleBean;
+import org.gridgain.grid.GridLifecycleEventType;
+import org.gridgain.grid.cache.GridCacheFlag;
+import org.gridgain.grid.cache.GridCacheProjection;
+import org.gridgain.grid.logger.GridLogger;
+import org.gridgain.grid.resources.GridInstanceResource;
+import org.gridgain.grid.resources.GridLoggerResource;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/*
+    keeps horizonMinutes of tweets in the Tweet cache.  once a bucket falls behind the horizon all of
+    its keys are removed together, which drops the entries from every memory tier along with their sql and text
+    index entries.  the store is skipped so the tweet log keeps its own, longer, history.  the FIFO eviction
+    policy stays in place only as a memory ceiling
+ */
+public class TweetRetention implements GridLifecycleBean {
+
+    private static final int REMOVE_BATCH_SIZE = 10000;
+
+    @GridInstanceResource
+    private Grid grid;
+
+    @GridLoggerResource
+    private GridLogger logger;
+
+    private int horizonMinutes = 60;
+
+    private int bucketMinutes = 1;
+
+    private ScheduledExecutorService executor;
+
+    public void setHorizonMinutes(int horizonMinutes) {
+        this.horizonMinutes = horizonMinutes;
+    }
+
+    public void setBucketMinutes(int bucketMinutes) {
+        this.bucketMinutes = bucketMinutes;
+    }
+
+    @Override
+    public void onLifecycleEvent(GridLifecycleEventType evt) throws GridException {
+
+        if (evt == GridLifecycleEventType.AFTER_GRID_START && horizonMinutes > 0) {
+
+            final long bucketSize = TimeUnit.MINUTES.toMillis(bucketMinutes);
+
+            TweetBuckets.create(grid, bucketSize);
+
+            executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "tweet-retention");
+                    thread.setDaemon(true);
+
+                    return thread;
+                }
+            });
+
+            executor.scheduleWithFixedDelay(new Runnable() {
+
+                @Override
+                public void run() {
+                    try {
+                        expire();
+                    } catch (Exception e) {
+                        logger.error("error expiring tweet buckets", e);
+                    }
+                }
+            }, bucketSize, bucketSize, TimeUnit.MILLISECONDS);
+
+        } else if (evt == GridLifecycleEventType.BEFORE_GRID_STOP && executor != null) {
+
+            executor.shutdownNow();
+
+            TweetBuckets.remove(grid);
+        }
+    }
+
+    private void expire() throws GridException {
+
+        final TweetBuckets buckets = TweetBuckets.get(grid);
+
+        if (buckets == null) {
+            return;
+        }
+
+        final Collection<Collection<String>> expired = buckets.expire(System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(horizonMinutes));
+
+        if (expired.isEmpty()) {
+            return;
+        }
+
+        final GridCacheProjection<String, Tweet> cache = grid.<String, Tweet>cache(Tweet.class.getName()).flagsOn(GridCacheFlag.SKIP_STORE);
+
+        final long start = System.currentTimeMillis();
+
+        int removed = 0;
+
+        for (Collection<String> bucket : expired) {
+            final List<String> batch = new ArrayList<>();
+
+            for (String key : bucket) {
+                batch.add(key);
+
+                if (batch.size() == REMOVE_BATCH_SIZE) {
+                    cache.removeAll(batch);
+                    removed += batch.size();
+                    batch.clear();
+                }
+            }
+
+            cache.removeAll(batch);
+            removed += batch.size();
+        }
+
+        logger.info("expired " + expired.size() + " tweet buckets, " + removed + " keys, in " + (System.currentTimeMillis() - start) + "ms");
+    }
+}
@@ -0,0 +1,261 @@
+package dashboard.core.search;
+
+import dashboard.core.model.Tweet;
+import org.gridgain.grid.Grid;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+    node local inverted index over the text of the tweets this node is primary for.  every token maps to a
+    posting list of documents ordered newest first (by tweetId), so intersecting postings and stopping at the
+    requested limit touches a bounded number of entries no matter how full the cache is
+ */
+public class TweetTextIndex {
+
+    private static final String NODE_LOCAL_KEY = TweetTextIndex.class.getName();
+
+    private static final Comparator<Document> NEWEST_FIRST = new Comparator<Document>() {
+
+        @Override
+        public int compare(Document o1, Document o2) {
+            final int cmp = Long.compare(o2.tweetId, o1.tweetId);
+
+            return cmp != 0 ? cmp : o1.guid.compareTo(o2.guid);
+        }
+    };
+
+    private final ConcurrentMap<String, Posting> postings = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Document> documents = new ConcurrentHashMap<>();
+
+    public static TweetTextIndex get(Grid grid) {
+        final ConcurrentMap<String, TweetTextIndex> nodeLocal = grid.nodeLocalMap();
+
+        TweetTextIndex index = nodeLocal.get(NODE_LOCAL_KEY);
+
+        if (index == null) {
+            final TweetTextIndex created = new TweetTextIndex();
+
+            index = nodeLocal.putIfAbsent(NODE_LOCAL_KEY, created);
+
+            if (index == null) {
+                index = created;
+            }
+        }
+
+        return index;
+    }
+
+    public void add(int partition, Tweet tweet) {
+
+        final Set<String> tokens = TweetTokenizer.tokenize(tweet.getText());
+
+        if (tokens.isEmpty()) {
+            return;
+        }
+
+        final Document document = new Document(tweet.getGUID(), tweet.getTweetId(), partition, tokens.toArray(new String[tokens.size()]));
+
+        final Document previous = documents.put(document.guid, document);
+
+        if (previous != null) {
+            unlink(previous);
+        }
+
+        for (String token : document.tokens) {
+            link(token, document);
+        }
+    }
+
+    public void remove(String guid) {
+        final Document document = documents.remove(guid);
+
+        if (document != null) {
+            unlink(document);
+        }
+    }
+
+    public void removePartition(int partition) {
+        for (Document document : documents.values()) {
+            if (document.partition == partition) {
+                remove(document.guid);
+            }
+        }
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    public void clear() {
+        documents.clear();
+        postings.clear();
+    }
+
+    /*
+        lazily walks the smallest posting list and yields the documents contained in every other posting,
+        starting with the newest document older than beforeTweetId
+     */
+    public Iterator<Document> search(Collection<String> tokens, long beforeTweetId) {
+
+        final List<Posting> lists = new ArrayList<>(tokens.size());
+
+        for (String token : tokens) {
+            final Posting posting = postings.get(token);
+
+            if (posting == null) {
+                return Collections.emptyIterator();
+            }
+
+            lists.add(posting);
+        }
+
+        if (lists.isEmpty()) {
+            return Collections.emptyIterator();
+        }
+
+        Collections.sort(lists, new Comparator<Posting>() {
+
+            @Override
+            public int compare(Posting o1, Posting o2) {
+                return Integer.compare(o1.size.get(), o2.size.get());
+            }
+        });
+
+        return new IntersectionIterator(lists, new Document(Character.toString(Character.MAX_VALUE), beforeTweetId, -1, null));
+    }
+
+    private void link(String token, Document document) {
+        while (true) {
+            Posting posting = postings.get(token);
+
+            if (posting == null) {
+                final Posting created = new Posting();
+
+                posting = postings.putIfAbsent(token, created);
+
+                if (posting == null) {
+                    posting = created;
+                }
+            }
+
+            if (posting.docs.add(document)) {
+                posting.size.incrementAndGet();
+            }
+
+            // the posting may have been dropped as empty while we were adding to it
+            if (postings.get(token) == posting) {
+                return;
+            }
+        }
+    }
+
+    private void unlink(Document document) {
+        for (String token : document.tokens) {
+            final Posting posting = postings.get(token);
+
+            if (posting != null && posting.docs.remove(document)) {
+                if (posting.size.decrementAndGet() == 0) {
+                    postings.remove(token, posting);
+                }
+            }
+        }
+    }
+
+    public static class Document {
+
+        private final String guid;
+
+        private final long tweetId;
+
+        private final int partition;
+
+        private final String[] tokens;
+
+        Document(String guid, long tweetId, int partition, String[] tokens) {
+            this.guid = guid;
+            this.tweetId = tweetId;
+            this.partition = partition;
+            this.tokens = tokens;
+        }
+
+        public String getGuid() {
+            return guid;
+        }
+
+        public long getTweetId() {
+            return tweetId;
+        }
+    }
+
+    private static class Posting {
+
+        private final ConcurrentSkipListSet<Document> docs = new ConcurrentSkipListSet<>(NEWEST_FIRST);
+
+        private final AtomicInteger size = new AtomicInteger();
+    }
+
+    private static class IntersectionIterator implements Iterator<Document> {
+
+        private final Iterator<Document> driver;
+
+        private final List<Posting> others;
+
+        private Document next;
+
+        IntersectionIterator(List<Posting> lists, Document start) {
+            this.driver = lists.get(0).docs.tailSet(start, false).iterator();
+            this.others = lists.subList(1, lists.size());
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && driver.hasNext()) {
+                final Document candidate = driver.next();
+
+                boolean matches = true;
+
+                for (Posting other : others) {
+                    if (!other.docs.contains(candidate)) {
+                        matches = false;
+                        break;
+                    }
+                }
+
+                if (matches) {
+                    next = candidate;
+                }
+            }
+
+            return next != null;
+        }
+
+        @Override
+        public Document next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            final Document document = next;
+            next = null;
+
+            return document;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
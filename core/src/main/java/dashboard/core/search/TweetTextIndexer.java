@@ -0,0 +1,104 @@
+package dashboard.core.search;
+
+import dashboard.core.model.Tweet;
+import org.gridgain.grid.Grid;
+import org.gridgain.grid.GridException;
+import org.gridgain.grid.GridLifecycleBean;
+import org.gridgain.grid.GridLifecycleEventType;
+import org.gridgain.grid.cache.GridCacheConfiguration;
+import org.gridgain.grid.cache.GridCacheMemoryMode;
+import org.gridgain.grid.events.GridCacheEvent;
+import org.gridgain.grid.events.GridCachePreloadingEvent;
+import org.gridgain.grid.events.GridEvent;
+import org.gridgain.grid.events.GridEventType;
+import org.gridgain.grid.lang.GridPredicate;
+import org.gridgain.grid.logger.GridLogger;
+import org.gridgain.grid.resources.GridInstanceResource;
+import org.gridgain.grid.resources.GridLoggerResource;
+
+/*
+    removes tweets from the node local TweetTextIndex when they leave the cache.  tweets are added by
+    TweetCacheUpdater as they are loaded.  entries dropped from an off-heap tier raise no event, those are
+    purged lazily by TweetSearchClosure.  the cache events used here must be listed in the includeEventTypes
+    of the grid configuration
+ */
+public class TweetTextIndexer implements GridLifecycleBean {
+
+    private static final String TWEET_CACHE = Tweet.class.getName();
+
+    @GridInstanceResource
+    private Grid grid;
+
+    @GridLoggerResource
+    private GridLogger logger;
+
+    private GridPredicate<GridEvent> listener;
+
+    // with an off-heap tier an evicted entry has only left the heap, and is still searchable
+    private boolean evictionRemovesEntry;
+
+    @Override
+    public void onLifecycleEvent(GridLifecycleEventType evt) throws GridException {
+
+        if (evt == GridLifecycleEventType.AFTER_GRID_START) {
+
+            final GridCacheConfiguration configuration = grid.cache(TWEET_CACHE).configuration();
+
+            evictionRemovesEntry = configuration.getMemoryMode() == GridCacheMemoryMode.ONHEAP_TIERED
+                    && configuration.getOffHeapMaxMemory() < 0
+                    && !configuration.isSwapEnabled();
+
+            listener = new GridPredicate<GridEvent>() {
+
+                @Override
+                public boolean apply(GridEvent event) {
+                    try {
+                        onEvent(event);
+                    } catch (Exception e) {
+                        logger.error("error updating tweet text index", e);
+                    }
+
+                    return true;
+                }
+            };
+
+            grid.events().localListen(listener,
+                    GridEventType.EVT_CACHE_OBJECT_REMOVED,
+                    GridEventType.EVT_CACHE_ENTRY_EVICTED,
+                    GridEventType.EVT_CACHE_PRELOAD_PART_UNLOADED);
+
+        } else if (evt == GridLifecycleEventType.BEFORE_GRID_STOP && listener != null) {
+
+            grid.events().stopLocalListen(listener);
+
+            TweetTextIndex.get(grid).clear();
+        }
+    }
+
+    private void onEvent(GridEvent event) {
+
+        final TweetTextIndex index = TweetTextIndex.get(grid);
+
+        if (event instanceof GridCachePreloadingEvent) {
+            final GridCachePreloadingEvent preloadingEvent = (GridCachePreloadingEvent) event;
+
+            if (TWEET_CACHE.equals(preloadingEvent.cacheName())) {
+                index.removePartition(preloadingEvent.partition());
+            }
+
+            return;
+        }
+
+        final GridCacheEvent cacheEvent = (GridCacheEvent) event;
+
+        if (!TWEET_CACHE.equals(cacheEvent.cacheName())) {
+            return;
+        }
+
+        if (cacheEvent.type() == GridEventType.EVT_CACHE_ENTRY_EVICTED && !evictionRemovesEntry) {
+            return;
+        }
+
+        index.remove(cacheEvent.<String>key());
+    }
+}
@@ -0,0 +1,55 @@
+package dashboard.core.search;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+public class TweetTokenizer {
+
+    private static final int MIN_TOKEN_LENGTH = 2;
+
+    private static final int MAX_TOKEN_LENGTH = 40;
+
+    /*
+        splits text into lower case runs of letters and digits.  urls are skipped entirely since they are
+        unique per tweet and would only bloat the index.  the same rules are used for indexing and querying
+     */
+    public static Set<String> tokenize(String text) {
+
+        final Set<String> tokens = new LinkedHashSet<>();
+
+        if (StringUtils.isBlank(text)) {
+            return tokens;
+        }
+
+        for (String word : StringUtils.split(text.toLowerCase(Locale.ENGLISH))) {
+
+            if (word.startsWith("http://") || word.startsWith("https://")) {
+                continue;
+            }
+
+            int start = -1;
+
+            for (int i = 0; i <= word.length(); i++) {
+                final boolean tokenChar = i < word.length() && Character.isLetterOrDigit(word.charAt(i));
+
+                if (tokenChar && start < 0) {
+                    start = i;
+                } else if (!tokenChar && start >= 0) {
+                    add(tokens, word.substring(start, i));
+                    start = -1;
+                }
+            }
+        }
+
+        return tokens;
+    }
+
+    private static void add(Set<String> tokens, String token) {
+        if (token.length() >= MIN_TOKEN_LENGTH && token.length() <= MAX_TOKEN_LENGTH) {
+            tokens.add(token);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package dashboard.core.series;
+
+import dashboard.core.model.HashTag;
+import dashboard.core.model.HashTagTimeSeries;
+import org.gridgain.grid.Grid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+    node local hash tag counts over time.  the stage counts each hash tag into the current minute; at the end of
+    the minute the topN tags are kept, the rest summed into other, and the result added to the open block of
+    every resolution, which is how the hour and day blocks are downsampled.  open blocks are rewritten each
+    minute, so a closed block is already on disk and queries only read precomputed blocks
+ */
+public class HashTagSeries {
+
+    private static final String NODE_LOCAL_KEY = HashTagSeries.class.getName();
+
+    private static final String SUFFIX = ".col";
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final File directory;
+
+    private final int topN;
+
+    private final Map<SeriesResolution, SeriesBlock> open = new EnumMap<>(SeriesResolution.class);
+
+    // recording takes the read lock, rolling the minute the write lock
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private ConcurrentMap<String, AtomicLong> minute = new ConcurrentHashMap<>();
+
+    HashTagSeries(File directory, int topN) {
+        this.directory = directory;
+        this.topN = topN;
+
+        for (SeriesResolution resolution : SeriesResolution.values()) {
+            new File(directory, resolution.name().toLowerCase()).mkdirs();
+        }
+    }
+
+    /*
+        null unless HashTagSeriesRecorder is running on this node
+     */
+    public static HashTagSeries get(Grid grid) {
+        final ConcurrentMap<String, HashTagSeries> nodeLocal = grid.nodeLocalMap();
+
+        return nodeLocal.get(NODE_LOCAL_KEY);
+    }
+
+    static void register(Grid grid, HashTagSeries series) {
+        final ConcurrentMap<String, HashTagSeries> nodeLocal = grid.nodeLocalMap();
+
+        nodeLocal.put(NODE_LOCAL_KEY, series);
+    }
+
+    static void unregister(Grid grid) {
+        final ConcurrentMap<String, HashTagSeries> nodeLocal = grid.nodeLocalMap();
+
+        nodeLocal.remove(NODE_LOCAL_KEY);
+    }
+
+    public void record(Collection<HashTag> hashTags) {
+
+        lock.readLock().lock();
+
+        try {
+            for (HashTag hashTag : hashTags) {
+                if (hashTag.getText() == null) {
+                    continue;
+                }
+
+                AtomicLong count = minute.get(hashTag.getText());
+
+                if (count == null) {
+                    final AtomicLong created = new AtomicLong();
+
+                    count = minute.putIfAbsent(hashTag.getText(), created);
+
+                    if (count == null) {
+                        count = created;
+                    }
+                }
+
+                count.incrementAndGet();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /*
+        closes the minute starting at minuteStart and writes the open blocks
+     */
+    synchronized void roll(long minuteStart) throws IOException {
+
+        final ConcurrentMap<String, AtomicLong> counts;
+
+        lock.writeLock().lock();
+
+        try {
+            counts = minute;
+            minute = new ConcurrentHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (counts.isEmpty()) {
+            return;
+        }
+
+        final List<Map.Entry<String, AtomicLong>> entries = new ArrayList<>(counts.entrySet());
+
+        Collections.sort(entries, new Comparator<Map.Entry<String, AtomicLong>>() {
+
+            @Override
+            public int compare(Map.Entry<String, AtomicLong> o1, Map.Entry<String, AtomicLong> o2) {
+                return Long.compare(o2.getValue().get(), o1.getValue().get());
+            }
+        });
+
+        final Map<String, Long> top = new HashMap<>();
+
+        long other = 0;
+
+        for (int i = 0; i < entries.size(); i++) {
+            if (i < topN) {
+                top.put(entries.get(i).getKey(), entries.get(i).getValue().get());
+            } else {
+                other += entries.get(i).getValue().get();
+            }
+        }
+
+        for (SeriesResolution resolution : SeriesResolution.values()) {
+            final SeriesBlock block = openBlock(resolution, minuteStart);
+
+            block.add(minuteStart, top, other);
+            block.write(blockFile(resolution, block.getStart()));
+        }
+    }
+
+    /*
+        the counts of [from, to) at the given resolution, from the open blocks and the block files
+     */
+    public synchronized HashTagTimeSeries query(SeriesResolution resolution, long from, long to) {
+
+        final HashTagTimeSeries series = empty(resolution, from, to);
+
+        final long start = resolution.align(from);
+
+        for (long blockStart = resolution.blockStart(start); blockStart < to; blockStart += resolution.blockSize()) {
+
+            SeriesBlock block = open.get(resolution);
+
+            if (block == null || block.getStart() != blockStart) {
+                block = null;
+
+                final File file = blockFile(resolution, blockStart);
+
+                if (file.isFile()) {
+                    try {
+                        block = SeriesBlock.read(file, resolution);
+                    } catch (IOException e) {
+                        log.warn("skipping unreadable series block " + file, e);
+                    }
+                }
+            }
+
+            if (block != null) {
+                block.copyTo(series, start, to);
+            }
+        }
+
+        return series;
+    }
+
+    public static HashTagTimeSeries empty(SeriesResolution resolution, long from, long to) {
+        final long start = resolution.align(from);
+
+        return new HashTagTimeSeries(start, resolution.getStep(), (int) Math.max(0, (to - start + resolution.getStep() - 1) / resolution.getStep()));
+    }
+
+    private SeriesBlock openBlock(SeriesResolution resolution, long time) {
+
+        final long blockStart = resolution.blockStart(time);
+
+        SeriesBlock block = open.get(resolution);
+
+        if (block == null || block.getStart() != blockStart) {
+            final File file = blockFile(resolution, blockStart);
+
+            block = new SeriesBlock(resolution, blockStart);
+
+            // pick up a block written before a restart
+            if (file.isFile()) {
+                try {
+                    block = SeriesBlock.read(file, resolution);
+                } catch (IOException e) {
+                    log.warn("replacing unreadable series block " + file, e);
+                }
+            }
+
+            open.put(resolution, block);
+        }
+
+        return block;
+    }
+
+    private File blockFile(SeriesResolution resolution, long blockStart) {
+        return new File(new File(directory, resolution.name().toLowerCase()), blockStart + SUFFIX);
+    }
+}
@@ -0,0 +1,101 @@
+package dashboard.core.series;
+
+import dashboard.core.utils.NodeDirectory;
+import org.gridgain.grid.Grid;
+import org.gridgain.grid.GridException;
+import org.gridgain.grid.GridLifecycleBean;
+import org.gridgain.grid.GridLifecycleEventType;
+import org.gridgain.grid.logger.GridLogger;
+import org.gridgain.grid.resources.GridInstanceResource;
+import org.gridgain.grid.resources.GridLoggerResource;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/*
+    starts this node's HashTagSeries under a node-N directory of directory and closes each minute on the minute
+ */
+public class HashTagSeriesRecorder implements GridLifecycleBean {
+
+    @GridInstanceResource
+    private Grid grid;
+
+    @GridLoggerResource
+    private GridLogger logger;
+
+    private String directory;
+
+    private int topN = 10;
+
+    private NodeDirectory nodeDirectory;
+
+    private ScheduledExecutorService executor;
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public void setTopN(int topN) {
+        this.topN = topN;
+    }
+
+    @Override
+    public void onLifecycleEvent(GridLifecycleEventType evt) throws GridException {
+
+        if (evt == GridLifecycleEventType.AFTER_GRID_START && topN > 0) {
+
+            try {
+                nodeDirectory = NodeDirectory.lock(new File(directory));
+            } catch (IOException e) {
+                throw new GridException("error opening hash tag series directory " + directory, e);
+            }
+
+            final HashTagSeries series = new HashTagSeries(nodeDirectory.getDirectory(), topN);
+
+            HashTagSeries.register(grid, series);
+
+            executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "hash-tag-series");
+                    thread.setDaemon(true);
+
+                    return thread;
+                }
+            });
+
+            final long step = SeriesResolution.MINUTE.getStep();
+            final long now = System.currentTimeMillis();
+
+            executor.scheduleAtFixedRate(new Runnable() {
+
+                @Override
+                public void run() {
+                    try {
+                        // the minute that has just ended
+                        series.roll(SeriesResolution.MINUTE.align(System.currentTimeMillis()) - step);
+                    } catch (Exception e) {
+                        logger.error("error writing hash tag series", e);
+                    }
+                }
+            }, SeriesResolution.MINUTE.align(now) + step - now, step, TimeUnit.MILLISECONDS);
+
+        } else if (evt == GridLifecycleEventType.BEFORE_GRID_STOP && executor != null) {
+
+            executor.shutdownNow();
+
+            HashTagSeries.unregister(grid);
+
+            try {
+                nodeDirectory.close();
+            } catch (IOException e) {
+                throw new GridException("error closing hash tag series directory", e);
+            }
+        }
+    }
+}
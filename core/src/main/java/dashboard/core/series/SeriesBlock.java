@@ -0,0 +1,205 @@
+package dashboard.core.series;
+
+import dashboard.core.model.HashTagTimeSeries;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/*
+    one block of a resolution held as columns: a row of slot counts per hash tag plus the other column.  on disk
+    the columns follow a small header, each count as a varint since most are zero or small, and a crc of the
+    whole block at the end
+ */
+class SeriesBlock {
+
+    private static final int MAGIC = 0x48545331;
+
+    private final SeriesResolution resolution;
+
+    private final long start;
+
+    private final Map<String, long[]> columns = new HashMap<>();
+
+    private final long[] other;
+
+    SeriesBlock(SeriesResolution resolution, long start) {
+        this.resolution = resolution;
+        this.start = start;
+        this.other = new long[resolution.getSlots()];
+    }
+
+    long getStart() {
+        return start;
+    }
+
+    void add(long time, Map<String, Long> counts, long otherCount) {
+
+        final int slot = slot(time);
+
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            long[] column = columns.get(entry.getKey());
+
+            if (column == null) {
+                column = new long[other.length];
+                columns.put(entry.getKey(), column);
+            }
+
+            column[slot] += entry.getValue();
+        }
+
+        other[slot] += otherCount;
+    }
+
+    /*
+        adds the slots of this block that fall in [from, to) to a series aligned to the same resolution
+     */
+    void copyTo(HashTagTimeSeries series, long from, long to) {
+
+        final long step = resolution.getStep();
+
+        for (int slot = 0; slot < other.length; slot++) {
+            final long time = start + slot * step;
+
+            if (time < from || time >= to) {
+                continue;
+            }
+
+            final int target = (int) ((time - series.getStart()) / step);
+
+            for (Map.Entry<String, long[]> column : columns.entrySet()) {
+                if (column.getValue()[slot] != 0) {
+                    series.add(column.getKey(), target, column.getValue()[slot]);
+                }
+            }
+
+            series.addOther(target, other[slot]);
+        }
+    }
+
+    void write(File file) throws IOException {
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeInt(MAGIC);
+        out.writeByte(resolution.ordinal());
+        out.writeLong(start);
+        out.writeInt(other.length);
+        out.writeInt(columns.size());
+
+        writeColumn(out, other);
+
+        for (Map.Entry<String, long[]> column : columns.entrySet()) {
+            out.writeUTF(column.getKey());
+            writeColumn(out, column.getValue());
+        }
+
+        out.writeInt(crc(bytes.toByteArray()));
+
+        final File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+
+        try (FileOutputStream fileOut = new FileOutputStream(tmp)) {
+            bytes.writeTo(fileOut);
+        }
+
+        if (file.exists() && !file.delete() || !tmp.renameTo(file)) {
+            throw new IOException("unable to replace " + file);
+        }
+    }
+
+    static SeriesBlock read(File file, SeriesResolution resolution) throws IOException {
+
+        final byte[] bytes = Files.readAllBytes(file.toPath());
+
+        if (bytes.length < 4) {
+            throw new IOException("truncated series block " + file);
+        }
+
+        final DataInputStream crcIn = new DataInputStream(new ByteArrayInputStream(bytes, bytes.length - 4, 4));
+
+        final CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - 4);
+
+        if ((int) crc.getValue() != crcIn.readInt()) {
+            throw new IOException("corrupt series block " + file);
+        }
+
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 0, bytes.length - 4));
+
+        if (in.readInt() != MAGIC || in.readByte() != resolution.ordinal()) {
+            throw new IOException("not a " + resolution + " series block " + file);
+        }
+
+        final SeriesBlock block = new SeriesBlock(resolution, in.readLong());
+
+        final int slots = in.readInt();
+        final int size = in.readInt();
+
+        if (slots != block.other.length) {
+            throw new IOException("unexpected slot count " + slots + " in " + file);
+        }
+
+        readColumn(in, block.other);
+
+        for (int i = 0; i < size; i++) {
+            final String hashTag = in.readUTF();
+            final long[] column = new long[slots];
+
+            readColumn(in, column);
+
+            block.columns.put(hashTag, column);
+        }
+
+        return block;
+    }
+
+    private int slot(long time) {
+        return (int) ((time - start) / resolution.getStep());
+    }
+
+    private static void writeColumn(DataOutputStream out, long[] column) throws IOException {
+        for (long count : column) {
+            long value = count;
+
+            while ((value & ~0x7FL) != 0) {
+                out.writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+
+            out.writeByte((int) value);
+        }
+    }
+
+    private static void readColumn(DataInputStream in, long[] column) throws IOException {
+        for (int slot = 0; slot < column.length; slot++) {
+            long value = 0;
+            int shift = 0;
+
+            byte b;
+
+            do {
+                b = in.readByte();
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+
+            column[slot] = value;
+        }
+    }
+
+    private static int crc(byte[] bytes) {
+        final CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length);
+
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,45 @@
+package dashboard.core.series;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+    the resolutions hash tag counts are kept at.  each is stored in blocks of a fixed number of slots, one file
+    per block: an hour of minutes, a day of hours and thirty days of days
+ */
+public enum SeriesResolution {
+
+    MINUTE(TimeUnit.MINUTES.toMillis(1), 60),
+    HOUR(TimeUnit.HOURS.toMillis(1), 24),
+    DAY(TimeUnit.DAYS.toMillis(1), 30);
+
+    private final long step;
+
+    private final int slots;
+
+    SeriesResolution(long step, int slots) {
+        this.step = step;
+        this.slots = slots;
+    }
+
+    public long getStep() {
+        return step;
+    }
+
+    int getSlots() {
+        return slots;
+    }
+
+    public long align(long time) {
+        return time - time % step;
+    }
+
+    long blockStart(long time) {
+        final long blockSize = step * slots;
+
+        return time - time % blockSize;
+    }
+
+    long blockSize() {
+        return step * slots;
+    }
+}
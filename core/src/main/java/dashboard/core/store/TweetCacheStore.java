@@ -0,0 +1,148 @@
+package dashboard.core.store;
+
+import dashboard.core.model.Tweet;
+import org.gridgain.grid.GridException;
+import org.gridgain.grid.cache.GridCacheTx;
+import org.gridgain.grid.cache.store.GridCacheStoreAdapter;
+import org.gridgain.grid.lang.GridBiInClosure;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+/*
+    cache store for the Tweet cache backed by a node local TweetLog.  configured with write-behind, so puts
+    reach the log in batches from the flusher threads and never on the ingest path.  reads through to the log
+    for tweets the cache has evicted.  loadCache takes either a recent record count or a createdAt range:
+
+    cache.loadCache(null, 0, 1000000)
+    cache.loadCache(null, 0, fromMillis, toMillis)
+ */
+public class TweetCacheStore extends GridCacheStoreAdapter<String, Tweet> {
+
+    private String directory;
+
+    private long segmentSize = 256L * 1024 * 1024;
+
+    private long retentionSize = 16L * 1024 * 1024 * 1024;
+
+    private boolean syncOnWrite;
+
+    private volatile TweetLog tweetLog;
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public void setSegmentSize(long segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
+    public void setRetentionSize(long retentionSize) {
+        this.retentionSize = retentionSize;
+    }
+
+    public void setSyncOnWrite(boolean syncOnWrite) {
+        this.syncOnWrite = syncOnWrite;
+    }
+
+    @Override
+    public Tweet load(GridCacheTx tx, String key) throws GridException {
+        try {
+            return tweetLog().read(key);
+        } catch (IOException e) {
+            throw new GridException("error reading tweet " + key + " from the tweet log", e);
+        }
+    }
+
+    @Override
+    public void put(GridCacheTx tx, String key, Tweet value) throws GridException {
+        putAll(tx, Collections.singletonMap(key, value));
+    }
+
+    @Override
+    public void putAll(GridCacheTx tx, Map<? extends String, ? extends Tweet> map) throws GridException {
+        try {
+            tweetLog().append(map.values());
+        } catch (IOException e) {
+            throw new GridException("error appending " + map.size() + " tweets to the tweet log", e);
+        }
+    }
+
+    @Override
+    public void remove(GridCacheTx tx, String key) throws GridException {
+        removeAll(tx, Collections.singleton(key));
+    }
+
+    @Override
+    public void removeAll(GridCacheTx tx, Collection<? extends String> keys) throws GridException {
+        try {
+            tweetLog().remove(keys);
+        } catch (IOException e) {
+            throw new GridException("error removing " + keys.size() + " tweets from the tweet log", e);
+        }
+    }
+
+    @Override
+    public void loadCache(final GridBiInClosure<String, Tweet> clo, Object... args) throws GridException {
+
+        final TweetLog.Visitor visitor = new TweetLog.Visitor() {
+
+            @Override
+            public void visit(Tweet tweet) {
+                clo.apply(tweet.getGUID(), tweet);
+            }
+        };
+
+        try {
+            if (args != null && args.length == 2) {
+                tweetLog().scan(((Number) args[0]).longValue(), ((Number) args[1]).longValue(), visitor);
+            } else if (args != null && args.length == 1) {
+                tweetLog().recent(((Number) args[0]).intValue(), visitor);
+            } else {
+                throw new GridException("loadCache expects a record count or a createdAt range");
+            }
+        } catch (IOException e) {
+            throw new GridException("error loading tweets from the tweet log", e);
+        }
+    }
+
+    public void close() throws GridException {
+        synchronized (this) {
+            if (tweetLog != null) {
+                try {
+                    tweetLog.close();
+                } catch (IOException e) {
+                    throw new GridException("error closing the tweet log", e);
+                } finally {
+                    tweetLog = null;
+                }
+            }
+        }
+    }
+
+    private TweetLog tweetLog() throws GridException {
+
+        TweetLog current = tweetLog;
+
+        if (current == null) {
+            synchronized (this) {
+                current = tweetLog;
+
+                if (current == null) {
+                    try {
+                        current = TweetLog.open(new File(directory), segmentSize, retentionSize, syncOnWrite);
+                    } catch (IOException e) {
+                        throw new GridException("error opening the tweet log in " + directory, e);
+                    }
+
+                    tweetLog = current;
+                }
+            }
+        }
+
+        return current;
+    }
+}
@@ -0,0 +1,734 @@
+package dashboard.core.store;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hashing;
+import dashboard.core.model.Tweet;
+import dashboard.core.model.TweetFactory;
+import dashboard.core.utils.LongLongHashMap;
+import dashboard.core.utils.NodeDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.zip.CRC32;
+
+/*
+    append-only log of tweets split into numbered segment files.  every record is [length][crc32][payload] so a
+    torn write at the tail is detected and cut off on recovery.  two indexes are rebuilt by one sequential scan
+    when the log is opened:
+
+    - a key index from the 64 bit hash of the GUID to the record position, for point reads
+    - a sparse time index of blocks per segment with the createdAt range of the records in it, for range reads
+
+    the oldest segments are deleted once the log grows past retentionSize
+ */
+public class TweetLog implements Closeable {
+
+    public interface Visitor {
+
+        void visit(Tweet tweet);
+    }
+
+    private static final String SUFFIX = ".log";
+
+    private static final int HEADER_SIZE = 8;
+
+    private static final int MAX_RECORD_SIZE = 1 << 20;
+
+    private static final int BLOCK_RECORDS = 256;
+
+    private static final byte PUT = 1;
+
+    private static final byte REMOVE = 2;
+
+    // position = segment id << OFFSET_BITS | offset within the segment
+    private static final int OFFSET_BITS = 40;
+
+    private static final long OFFSET_MASK = (1L << OFFSET_BITS) - 1;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final File directory;
+
+    private final long segmentSize;
+
+    private final long retentionSize;
+
+    private final boolean sync;
+
+    private final NodeDirectory nodeDirectory;
+
+    private final ConcurrentNavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+
+    // guarded by itself
+    private final LongLongHashMap keys = new LongLongHashMap(1 << 16);
+
+    private final Object writeLock = new Object();
+
+    // guarded by writeLock
+    private Segment active;
+
+    private TweetLog(NodeDirectory nodeDirectory, long segmentSize, long retentionSize, boolean sync) {
+        this.nodeDirectory = nodeDirectory;
+        this.directory = nodeDirectory.getDirectory();
+        this.segmentSize = segmentSize;
+        this.retentionSize = retentionSize;
+        this.sync = sync;
+    }
+
+    /*
+        opens this node's log under root, see NodeDirectory
+     */
+    public static TweetLog open(File root, long segmentSize, long retentionSize, boolean sync) throws IOException {
+
+        final TweetLog tweetLog = new TweetLog(NodeDirectory.lock(root), segmentSize, retentionSize, sync);
+
+        try {
+            tweetLog.recover();
+        } catch (IOException e) {
+            tweetLog.close();
+            throw e;
+        }
+
+        return tweetLog;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    public void append(Collection<? extends Tweet> tweets) throws IOException {
+
+        synchronized (writeLock) {
+            final ByteArrayOutputStream batch = new ByteArrayOutputStream(tweets.size() * 512);
+
+            final List<Tweet> pending = new ArrayList<>(tweets.size());
+
+            for (Tweet tweet : tweets) {
+                final byte[] record = record(encode(tweet));
+
+                if (active.size + batch.size() + record.length > segmentSize && active.size + batch.size() > 0) {
+                    write(batch, pending);
+                    roll();
+                }
+
+                batch.write(record);
+                pending.add(tweet);
+            }
+
+            write(batch, pending);
+
+            enforceRetention();
+        }
+    }
+
+    public void remove(Collection<? extends String> guids) throws IOException {
+
+        synchronized (writeLock) {
+            final ByteArrayOutputStream batch = new ByteArrayOutputStream(guids.size() * 64);
+
+            for (String guid : guids) {
+                final ByteArrayOutputStream payload = new ByteArrayOutputStream(64);
+                final DataOutputStream out = new DataOutputStream(payload);
+
+                out.writeByte(REMOVE);
+                out.writeUTF(guid);
+
+                batch.write(record(payload.toByteArray()));
+            }
+
+            active.write(batch.toByteArray(), sync);
+
+            synchronized (keys) {
+                for (String guid : guids) {
+                    keys.remove(hash(guid));
+                }
+            }
+        }
+    }
+
+    public Tweet read(String guid) throws IOException {
+
+        final long position;
+
+        synchronized (keys) {
+            position = keys.get(hash(guid));
+        }
+
+        if (position == LongLongHashMap.MISSING) {
+            return null;
+        }
+
+        final Segment segment = segments.get(position >>> OFFSET_BITS);
+
+        if (segment == null) {
+            return null;
+        }
+
+        try {
+            final ByteBuffer header = segment.read(position & OFFSET_MASK, HEADER_SIZE);
+            final int length = header.getInt();
+            final int crc = header.getInt();
+
+            if (length <= 0 || length > MAX_RECORD_SIZE) {
+                log.warn("corrupt record for tweet " + guid + " in " + segment.file);
+                return null;
+            }
+
+            final byte[] payload = segment.read((position & OFFSET_MASK) + HEADER_SIZE, length).array();
+
+            if (crc(payload, 0, length) != crc) {
+                log.warn("corrupt record for tweet " + guid + " in " + segment.file);
+                return null;
+            }
+
+            final Tweet tweet = decode(payload, 0, length);
+
+            // a 64 bit hash collision leaves the key index pointing at another tweet
+            return tweet != null && guid.equals(tweet.getGUID()) ? tweet : null;
+
+        } catch (ClosedChannelException e) {
+            // the segment was dropped by retention while we were reading it
+            return null;
+        }
+    }
+
+    /*
+        visits the live tweets created in [from, to), skipping every block whose createdAt range misses it
+     */
+    public void scan(long from, long to, Visitor visitor) throws IOException {
+
+        for (Segment segment : segments.values()) {
+            for (Block block : segment.blocks()) {
+                if (block.maxTime >= from && block.minTime < to) {
+                    scan(segment, block, from, to, visitor);
+                }
+            }
+        }
+    }
+
+    /*
+        visits the live tweets in the newest segments holding at least count records, oldest first
+     */
+    public void recent(int count, Visitor visitor) throws IOException {
+
+        long records = 0;
+
+        Long first = null;
+
+        for (Segment segment : segments.descendingMap().values()) {
+            first = segment.id;
+            records += segment.records;
+
+            if (records >= count) {
+                break;
+            }
+        }
+
+        if (first == null) {
+            return;
+        }
+
+        for (Segment segment : segments.tailMap(first, true).values()) {
+            for (Block block : segment.blocks()) {
+                scan(segment, block, Long.MIN_VALUE, Long.MAX_VALUE, visitor);
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (keys) {
+            return keys.size();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (writeLock) {
+            for (Segment segment : segments.values()) {
+                segment.close();
+            }
+
+            segments.clear();
+
+            synchronized (keys) {
+                keys.clear();
+            }
+
+            nodeDirectory.close();
+        }
+    }
+
+    private void recover() throws IOException {
+
+        final File[] files = directory.listFiles(new FileFilter() {
+
+            @Override
+            public boolean accept(File file) {
+                return file.isFile() && file.getName().endsWith(SUFFIX);
+            }
+        });
+
+        final long[] ids = new long[files.length];
+
+        for (int i = 0; i < files.length; i++) {
+            ids[i] = Long.parseLong(files[i].getName().substring(0, files[i].getName().length() - SUFFIX.length()));
+        }
+
+        Arrays.sort(ids);
+
+        final long start = System.currentTimeMillis();
+
+        for (int i = 0; i < ids.length; i++) {
+            final Segment segment = new Segment(ids[i], segmentFile(ids[i]));
+
+            segments.put(segment.id, segment);
+
+            recover(segment, i == ids.length - 1);
+        }
+
+        active = segments.isEmpty() ? createSegment(0) : segments.lastEntry().getValue();
+
+        log.info("recovered " + keys.size() + " tweets from " + segments.size() + " segments in " + directory + " in " + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    private void recover(Segment segment, boolean last) throws IOException {
+
+        final long length = segment.channel.size();
+
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(segment.file), 1 << 16));
+
+        long offset = 0;
+
+        try {
+            while (offset < length) {
+                final int size;
+                final int crc;
+                final byte[] payload;
+
+                try {
+                    size = in.readInt();
+                    crc = in.readInt();
+
+                    if (size <= 0 || size > MAX_RECORD_SIZE) {
+                        break;
+                    }
+
+                    payload = new byte[size];
+                    in.readFully(payload);
+                } catch (EOFException e) {
+                    break;
+                }
+
+                if (crc(payload, 0, size) != crc) {
+                    break;
+                }
+
+                apply(segment, offset, payload, 0, size);
+
+                offset += HEADER_SIZE + size;
+            }
+        } finally {
+            in.close();
+        }
+
+        if (offset < length) {
+            if (last) {
+                log.warn("truncating torn tail of " + segment.file + " at " + offset + " of " + length + " bytes");
+                segment.channel.truncate(offset);
+            } else {
+                log.warn("ignoring corrupt records in " + segment.file + " after " + offset + " of " + length + " bytes");
+            }
+        }
+
+        segment.size = offset;
+    }
+
+    private void write(ByteArrayOutputStream batch, List<Tweet> pending) throws IOException {
+
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        final byte[] bytes = batch.toByteArray();
+
+        final long base = active.size;
+
+        active.write(bytes, sync);
+
+        // publish positions only once the bytes are in the file
+        long offset = base;
+
+        synchronized (keys) {
+            for (Tweet tweet : pending) {
+                final int length = ByteBuffer.wrap(bytes, (int) (offset - base), 4).getInt();
+
+                keys.put(hash(tweet.getGUID()), active.id << OFFSET_BITS | offset);
+
+                active.index(offset, time(tweet.getCreatedAt()));
+
+                offset += HEADER_SIZE + length;
+            }
+        }
+
+        batch.reset();
+        pending.clear();
+    }
+
+    private void roll() throws IOException {
+        active = createSegment(active.id + 1);
+    }
+
+    private Segment createSegment(long id) throws IOException {
+        final Segment segment = new Segment(id, segmentFile(id));
+
+        segments.put(id, segment);
+
+        return segment;
+    }
+
+    private void enforceRetention() throws IOException {
+
+        long total = 0;
+
+        for (Segment segment : segments.values()) {
+            total += segment.size;
+        }
+
+        while (total > retentionSize && segments.size() > 1) {
+            final Map.Entry<Long, Segment> oldest = segments.pollFirstEntry();
+            final Segment segment = oldest.getValue();
+
+            final long id = segment.id;
+
+            synchronized (keys) {
+                keys.retainValues(new LongLongHashMap.ValueFilter() {
+
+                    @Override
+                    public boolean retain(long position) {
+                        return position >>> OFFSET_BITS != id;
+                    }
+                });
+            }
+
+            segment.close();
+
+            if (!segment.file.delete()) {
+                log.warn("unable to delete expired segment " + segment.file);
+            }
+
+            total -= segment.size;
+        }
+    }
+
+    private void scan(Segment segment, Block block, long from, long to, Visitor visitor) throws IOException {
+
+        final ByteBuffer buffer;
+
+        try {
+            buffer = segment.read(block.offset, (int) (block.end - block.offset));
+        } catch (ClosedChannelException e) {
+            return;
+        }
+
+        final byte[] bytes = buffer.array();
+
+        int offset = 0;
+
+        while (offset + HEADER_SIZE <= bytes.length) {
+            final int length = buffer.getInt(offset);
+            final int crc = buffer.getInt(offset + 4);
+
+            if (offset + HEADER_SIZE + length > bytes.length || crc(bytes, offset + HEADER_SIZE, length) != crc) {
+                log.warn("corrupt record in " + segment.file + " at " + (block.offset + offset));
+                return;
+            }
+
+            final Tweet tweet = decode(bytes, offset + HEADER_SIZE, length);
+
+            if (tweet != null) {
+                final long time = time(tweet.getCreatedAt());
+
+                if (time >= from && time < to && isLive(tweet.getGUID(), segment.id << OFFSET_BITS | (block.offset + offset))) {
+                    visitor.visit(tweet);
+                }
+            }
+
+            offset += HEADER_SIZE + length;
+        }
+    }
+
+    private boolean isLive(String guid, long position) {
+        synchronized (keys) {
+            return keys.get(hash(guid)) == position;
+        }
+    }
+
+    private void apply(Segment segment, long offset, byte[] payload, int from, int length) throws IOException {
+
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload, from, length));
+
+        final byte type = in.readByte();
+        final String guid = in.readUTF();
+
+        synchronized (keys) {
+            if (type == PUT) {
+                keys.put(hash(guid), segment.id << OFFSET_BITS | offset);
+                segment.index(offset, in.readLong());
+            } else {
+                keys.remove(hash(guid));
+                segment.index(offset, Long.MIN_VALUE);
+            }
+        }
+    }
+
+    private File segmentFile(long id) {
+        return new File(directory, String.format("%020d%s", id, SUFFIX));
+    }
+
+    private static byte[] record(byte[] payload) {
+        final ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+
+        record.putInt(payload.length);
+        record.putInt(crc(payload, 0, payload.length));
+        record.put(payload);
+
+        return record.array();
+    }
+
+    /*
+        GUID and createdAt lead the payload so recovery can index a record without decoding the rest
+     */
+    private static byte[] encode(Tweet tweet) throws IOException {
+
+        final ByteArrayOutputStream payload = new ByteArrayOutputStream(256);
+        final DataOutputStream out = new DataOutputStream(payload);
+
+        out.writeByte(PUT);
+        out.writeUTF(tweet.getGUID());
+        out.writeLong(time(tweet.getCreatedAt()));
+        out.writeLong(tweet.getTweetId());
+        out.writeLong(tweet.getUserId());
+        writeString(out, tweet.getText());
+        writeString(out, tweet.getScreenName());
+        writeString(out, tweet.getLanguageCode());
+        writeString(out, tweet.getLocation());
+        writeString(out, tweet.getSource());
+        out.writeBoolean(tweet.isFake());
+        out.writeBoolean(tweet.isGeoEnabled());
+        writeInteger(out, tweet.getSentiment());
+        writeInteger(out, tweet.getTokenCount());
+        writeInteger(out, tweet.getUrlCount());
+
+        return payload.toByteArray();
+    }
+
+    private static Tweet decode(byte[] payload, int from, int length) throws IOException {
+
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload, from, length));
+
+        if (in.readByte() != PUT) {
+            return null;
+        }
+
+        final String guid = in.readUTF();
+        final long createdAt = in.readLong();
+        final long tweetId = in.readLong();
+        final long userId = in.readLong();
+        final String text = readString(in);
+        final String screenName = readString(in);
+        final String languageCode = readString(in);
+        final String location = readString(in);
+        final String source = readString(in);
+        final boolean fake = in.readBoolean();
+        final boolean geoEnabled = in.readBoolean();
+
+        final Tweet tweet = TweetFactory.create(tweetId, userId, screenName, text, createdAt == Long.MIN_VALUE ? null : new Date(createdAt), languageCode, source, fake);
+        tweet.setGUID(guid);
+        tweet.setLocation(location);
+        tweet.setGeoEnabled(geoEnabled);
+
+        // records written before enrichment end here
+        if (in.available() > 0) {
+            tweet.setSentiment(readInteger(in));
+            tweet.setTokenCount(readInteger(in));
+            tweet.setUrlCount(readInteger(in));
+        }
+
+        return tweet;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeInteger(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    private static Integer readInteger(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+    private static long time(Date date) {
+        return date == null ? Long.MIN_VALUE : date.getTime();
+    }
+
+    private static long hash(String guid) {
+        return Hashing.murmur3_128().hashString(guid, Charsets.UTF_8).asLong();
+    }
+
+    private static int crc(byte[] bytes, int from, int length) {
+        final CRC32 crc = new CRC32();
+        crc.update(bytes, from, length);
+
+        return (int) crc.getValue();
+    }
+
+    private static class Segment {
+
+        private final long id;
+
+        private final File file;
+
+        private final FileChannel channel;
+
+        // guarded by the log's write lock while appending, read without it
+        private volatile long size;
+
+        private volatile long records;
+
+        private final List<Block> blocks = new ArrayList<>();
+
+        private Block current;
+
+        Segment(long id, File file) throws IOException {
+            this.id = id;
+            this.file = file;
+            this.channel = new RandomAccessFile(file, "rw").getChannel();
+            this.size = channel.size();
+        }
+
+        void write(byte[] bytes, boolean sync) throws IOException {
+            final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+            long position = size;
+
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+
+            if (sync) {
+                channel.force(false);
+            }
+
+            size = position;
+        }
+
+        ByteBuffer read(long position, int length) throws IOException {
+            final ByteBuffer buffer = ByteBuffer.allocate(length);
+
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new EOFException("unexpected end of " + file);
+                }
+            }
+
+            buffer.flip();
+
+            return buffer;
+        }
+
+        synchronized void index(long offset, long time) {
+            if (current == null || current.records == BLOCK_RECORDS) {
+                current = new Block(offset);
+                blocks.add(current);
+            }
+
+            current.records++;
+
+            if (time != Long.MIN_VALUE) {
+                current.minTime = Math.min(current.minTime, time);
+                current.maxTime = Math.max(current.maxTime, time);
+            }
+
+            records++;
+        }
+
+        /*
+            snapshot of the blocks with their end offsets filled in from the block that follows
+         */
+        synchronized List<Block> blocks() {
+            final List<Block> snapshot = new ArrayList<>(blocks.size());
+
+            for (int i = 0; i < blocks.size(); i++) {
+                final Block block = blocks.get(i);
+
+                final Block copy = new Block(block.offset);
+                copy.records = block.records;
+                copy.minTime = block.minTime;
+                copy.maxTime = block.maxTime;
+                copy.end = i + 1 < blocks.size() ? blocks.get(i + 1).offset : size;
+
+                snapshot.add(copy);
+            }
+
+            return snapshot;
+        }
+
+        void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    private static class Block {
+
+        private final long offset;
+
+        private long end;
+
+        private int records;
+
+        private long minTime = Long.MAX_VALUE;
+
+        private long maxTime = Long.MIN_VALUE;
+
+        Block(long offset) {
+            this.offset = offset;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package dashboard.core.store;
+
+import dashboard.core.model.Tweet;
+import dashboard.core.retention.TweetBuckets;
+import dashboard.core.search.TweetTextIndex;
+import org.gridgain.grid.Grid;
+import org.gridgain.grid.GridException;
+import org.gridgain.grid.GridLifecycleBean;
+import org.gridgain.grid.GridLifecycleEventType;
+import org.gridgain.grid.cache.GridCache;
+import org.gridgain.grid.cache.GridCacheEntry;
+import org.gridgain.grid.cache.affinity.GridCacheAffinity;
+import org.gridgain.grid.logger.GridLogger;
+import org.gridgain.grid.resources.GridInstanceResource;
+import org.gridgain.grid.resources.GridLoggerResource;
+
+/*
+    warms the Tweet cache from the node's tweet log on start and re-indexes the recovered text, then closes the
+    log once the grid has stopped and write-behind has flushed
+ */
+public class TweetStoreLoader implements GridLifecycleBean {
+
+    @GridInstanceResource
+    private Grid grid;
+
+    @GridLoggerResource
+    private GridLogger logger;
+
+    private int recoverEntries;
+
+    private TweetCacheStore store;
+
+    public void setRecoverEntries(int recoverEntries) {
+        this.recoverEntries = recoverEntries;
+    }
+
+    @Override
+    public void onLifecycleEvent(GridLifecycleEventType evt) throws GridException {
+
+        if (evt == GridLifecycleEventType.AFTER_GRID_START) {
+
+            final GridCache<String, Tweet> cache = grid.cache(Tweet.class.getName());
+
+            if (!(cache.configuration().getStore() instanceof TweetCacheStore)) {
+                return;
+            }
+
+            store = (TweetCacheStore) cache.configuration().getStore();
+
+            if (recoverEntries <= 0) {
+                return;
+            }
+
+            final long start = System.currentTimeMillis();
+
+            cache.loadCache(null, 0, recoverEntries);
+
+            final GridCacheAffinity<String> affinity = cache.affinity();
+            final TweetTextIndex index = TweetTextIndex.get(grid);
+            final TweetBuckets buckets = TweetBuckets.get(grid);
+
+            for (GridCacheEntry<String, Tweet> entry : cache.primaryEntrySet()) {
+                final Tweet tweet = entry.peek();
+
+                if (tweet == null) {
+                    continue;
+                }
+
+                if (buckets != null) {
+                    buckets.add(tweet);
+                }
+
+                if (!tweet.isFake()) {
+                    index.add(affinity.partition(entry.getKey()), tweet);
+                }
+            }
+
+            logger.info("loaded " + cache.size() + " tweets from the tweet log in " + (System.currentTimeMillis() - start) + "ms");
+
+        } else if (evt == GridLifecycleEventType.AFTER_GRID_STOP && store != null) {
+
+            store.close();
+        }
+    }
+}
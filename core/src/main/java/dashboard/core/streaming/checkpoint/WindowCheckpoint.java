@@ -0,0 +1,409 @@
+package dashboard.core.streaming.checkpoint;
+
+import dashboard.core.model.HashTag;
+import dashboard.core.model.Tweet;
+import org.apache.commons.lang3.StringUtils;
+import org.gridgain.grid.Grid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/*
+    node local record of what the window stages have enqueued, kept in the form needed to rebuild the windows:
+    the text, arrival time and created time of every hash tag still inside the longest hash tag window, and a count
+    per screen name for the top tweeters window.
+
+    each checkpoint appends only what arrived since the last one to a journal of crc checked frames.  once the
+    journal has grown past twice its last compacted size it is rewritten as one frame holding the live state
+ */
+public class WindowCheckpoint {
+
+    private static final String NODE_LOCAL_KEY = WindowCheckpoint.class.getName();
+
+    private static final String JOURNAL = "windows.journal";
+
+    private static final long MIN_COMPACTION_SIZE = 1024 * 1024;
+
+    private static final byte HASH_TAG = 1;
+
+    private static final byte TWEETER = 2;
+
+    // a hash tag with the created time of its tweet, journals written before it have HASH_TAG records only
+    private static final byte TIMED_HASH_TAG = 3;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final File journal;
+
+    private final long horizon;
+
+    private final ConcurrentLinkedDeque<HashTagEvent> hashTags = new ConcurrentLinkedDeque<>();
+
+    private final ConcurrentMap<String, AtomicLong> tweeters = new ConcurrentHashMap<>();
+
+    private final Queue<HashTagEvent> pendingHashTags = new ConcurrentLinkedQueue<>();
+
+    private final Queue<String> pendingTweeters = new ConcurrentLinkedQueue<>();
+
+    // recording takes the read lock, compaction the write lock so a snapshot never overlaps a pending frame
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // guarded by this
+    private long compactedSize;
+
+    WindowCheckpoint(File directory, long horizon) {
+        this.journal = new File(directory, JOURNAL);
+        this.horizon = horizon;
+    }
+
+    /*
+        null unless WindowCheckpointer is running on this node
+     */
+    public static WindowCheckpoint get(Grid grid) {
+        final ConcurrentMap<String, WindowCheckpoint> nodeLocal = grid.nodeLocalMap();
+
+        return nodeLocal.get(NODE_LOCAL_KEY);
+    }
+
+    static void register(Grid grid, WindowCheckpoint checkpoint) {
+        final ConcurrentMap<String, WindowCheckpoint> nodeLocal = grid.nodeLocalMap();
+
+        nodeLocal.put(NODE_LOCAL_KEY, checkpoint);
+    }
+
+    static void unregister(Grid grid) {
+        final ConcurrentMap<String, WindowCheckpoint> nodeLocal = grid.nodeLocalMap();
+
+        nodeLocal.remove(NODE_LOCAL_KEY);
+    }
+
+    public void recordHashTags(Collection<HashTag> events) {
+
+        final long now = System.currentTimeMillis();
+
+        lock.readLock().lock();
+
+        try {
+            for (HashTag hashTag : events) {
+                if (hashTag.getText() == null) {
+                    continue;
+                }
+
+                final HashTagEvent event = new HashTagEvent(now, hashTag.getCreatedAt(), hashTag.getText());
+
+                hashTags.add(event);
+                pendingHashTags.add(event);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void recordTweets(Collection<Tweet> events) {
+
+        lock.readLock().lock();
+
+        try {
+            for (Tweet tweet : events) {
+                // the top tweeters index does not count tweets without a screen name either
+                if (StringUtils.isNotBlank(tweet.getScreenName())) {
+                    increment(tweet.getScreenName(), 1);
+                    pendingTweeters.add(tweet.getScreenName());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /*
+        hash tags still inside the horizon, oldest first
+     */
+    List<HashTagEvent> hashTags() {
+        trim(System.currentTimeMillis());
+
+        return new ArrayList<>(hashTags);
+    }
+
+    Map<String, Long> tweeters() {
+        final Map<String, Long> counts = new HashMap<>(tweeters.size() * 2);
+
+        for (Map.Entry<String, AtomicLong> entry : tweeters.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().get());
+        }
+
+        return counts;
+    }
+
+    synchronized void checkpoint() throws IOException {
+
+        trim(System.currentTimeMillis());
+
+        if (journal.length() > Math.max(MIN_COMPACTION_SIZE, compactedSize * 2)) {
+            compact();
+            return;
+        }
+
+        final ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(frame);
+
+        for (HashTagEvent event = pendingHashTags.poll(); event != null; event = pendingHashTags.poll()) {
+            writeHashTag(out, event);
+        }
+
+        final Map<String, Long> deltas = new HashMap<>();
+
+        for (String screenName = pendingTweeters.poll(); screenName != null; screenName = pendingTweeters.poll()) {
+            final Long delta = deltas.get(screenName);
+            deltas.put(screenName, delta == null ? 1L : delta + 1);
+        }
+
+        for (Map.Entry<String, Long> entry : deltas.entrySet()) {
+            writeTweeter(out, entry.getKey(), entry.getValue());
+        }
+
+        if (frame.size() > 0) {
+            append(frame.toByteArray());
+        }
+    }
+
+    /*
+        drops the recorded state and the journal, used when the streamer is reset
+     */
+    public synchronized void reset() throws IOException {
+
+        lock.writeLock().lock();
+
+        try {
+            hashTags.clear();
+            tweeters.clear();
+            pendingHashTags.clear();
+            pendingTweeters.clear();
+
+            writeJournal(new byte[0]);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /*
+        loads the journal into the recorded state, dropping hash tags that have aged out of the horizon.  a torn
+        or corrupt frame ends the journal
+     */
+    synchronized void restore() throws IOException {
+
+        if (!journal.isFile()) {
+            return;
+        }
+
+        final long cutoff = System.currentTimeMillis() - horizon;
+
+        final List<HashTagEvent> restored = new ArrayList<>();
+
+        int frames = 0;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(journal), 1 << 16))) {
+            while (true) {
+                final byte[] frame;
+                final int crc;
+
+                try {
+                    final int length = in.readInt();
+                    crc = in.readInt();
+
+                    if (length < 0 || length > journal.length()) {
+                        log.warn("ignoring corrupt frame in " + journal);
+                        break;
+                    }
+
+                    frame = new byte[length];
+                    in.readFully(frame);
+                } catch (EOFException e) {
+                    break;
+                }
+
+                if (crc(frame) != crc) {
+                    log.warn("ignoring corrupt frame in " + journal);
+                    break;
+                }
+
+                final DataInputStream records = new DataInputStream(new ByteArrayInputStream(frame));
+
+                while (records.available() > 0) {
+                    final byte type = records.readByte();
+
+                    if (type == HASH_TAG || type == TIMED_HASH_TAG) {
+                        final long timestamp = records.readLong();
+                        final long createdAt = type == TIMED_HASH_TAG ? records.readLong() : 0;
+
+                        final HashTagEvent event = new HashTagEvent(timestamp, createdAt, records.readUTF());
+
+                        if (event.timestamp >= cutoff) {
+                            restored.add(event);
+                        }
+                    } else if (type == TWEETER) {
+                        increment(records.readUTF(), records.readLong());
+                    } else {
+                        throw new IOException("unknown record type " + type + " in " + journal);
+                    }
+                }
+
+                frames++;
+            }
+        }
+
+        hashTags.addAll(restored);
+
+        log.info("restored " + restored.size() + " hash tags and " + tweeters.size() + " tweeters from " + frames + " frames of " + journal);
+
+        // start the next session from a compact journal
+        compact();
+    }
+
+    private void compact() throws IOException {
+
+        lock.writeLock().lock();
+
+        try {
+            pendingHashTags.clear();
+            pendingTweeters.clear();
+
+            final ByteArrayOutputStream frame = new ByteArrayOutputStream();
+            final DataOutputStream out = new DataOutputStream(frame);
+
+            for (HashTagEvent event : hashTags) {
+                writeHashTag(out, event);
+            }
+
+            for (Map.Entry<String, AtomicLong> entry : tweeters.entrySet()) {
+                writeTweeter(out, entry.getKey(), entry.getValue().get());
+            }
+
+            writeJournal(frame.size() > 0 ? frame(frame.toByteArray()) : new byte[0]);
+
+            compactedSize = journal.length();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void writeJournal(byte[] contents) throws IOException {
+
+        final File tmp = new File(journal.getParentFile(), JOURNAL + ".tmp");
+
+        try (FileOutputStream out = new FileOutputStream(tmp)) {
+            out.write(contents);
+            out.getFD().sync();
+        }
+
+        if (journal.exists() && !journal.delete() || !tmp.renameTo(journal)) {
+            throw new IOException("unable to replace " + journal);
+        }
+    }
+
+    private void append(byte[] records) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(journal, true)) {
+            out.write(frame(records));
+        }
+    }
+
+    private void trim(long now) {
+        final long cutoff = now - horizon;
+
+        for (Iterator<HashTagEvent> it = hashTags.iterator(); it.hasNext(); ) {
+            if (it.next().timestamp >= cutoff) {
+                break;
+            }
+
+            it.remove();
+        }
+    }
+
+    private void increment(String screenName, long delta) {
+        AtomicLong count = tweeters.get(screenName);
+
+        if (count == null) {
+            final AtomicLong created = new AtomicLong();
+
+            count = tweeters.putIfAbsent(screenName, created);
+
+            if (count == null) {
+                count = created;
+            }
+        }
+
+        count.addAndGet(delta);
+    }
+
+    private static void writeHashTag(DataOutputStream out, HashTagEvent event) throws IOException {
+        out.writeByte(TIMED_HASH_TAG);
+        out.writeLong(event.timestamp);
+        out.writeLong(event.createdAt);
+        out.writeUTF(event.text);
+    }
+
+    private static void writeTweeter(DataOutputStream out, String screenName, long count) throws IOException {
+        out.writeByte(TWEETER);
+        out.writeUTF(screenName);
+        out.writeLong(count);
+    }
+
+    private static byte[] frame(byte[] records) throws IOException {
+        final ByteArrayOutputStream frame = new ByteArrayOutputStream(records.length + 8);
+        final DataOutputStream out = new DataOutputStream(frame);
+
+        out.writeInt(records.length);
+        out.writeInt(crc(records));
+        out.write(records);
+
+        return frame.toByteArray();
+    }
+
+    private static int crc(byte[] bytes) {
+        final CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length);
+
+        return (int) crc.getValue();
+    }
+
+    static class HashTagEvent {
+
+        final long timestamp;
+
+        // 0 when unknown
+        final long createdAt;
+
+        final String text;
+
+        HashTagEvent(long timestamp, long createdAt, String text) {
+            this.timestamp = timestamp;
+            this.createdAt = createdAt;
+            this.text = text;
+        }
+    }
+}
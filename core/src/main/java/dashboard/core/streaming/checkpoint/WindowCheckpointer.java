@@ -0,0 +1,249 @@
+package dashboard.core.streaming.checkpoint;
+
+import dashboard.core.model.HashTag;
+import dashboard.core.model.HashTagFactory;
+import dashboard.core.model.Tweet;
+import dashboard.core.model.TweetFactory;
+import dashboard.core.streaming.index.CountingIndex;
+import dashboard.core.streaming.stage.AddHashTagToWindowsStage;
+import dashboard.core.utils.GridConstants;
+import dashboard.core.utils.NodeDirectory;
+import org.gridgain.grid.Grid;
+import org.gridgain.grid.GridException;
+import org.gridgain.grid.GridLifecycleBean;
+import org.gridgain.grid.GridLifecycleEventType;
+import org.gridgain.grid.logger.GridLogger;
+import org.gridgain.grid.resources.GridInstanceResource;
+import org.gridgain.grid.resources.GridLoggerResource;
+import org.gridgain.grid.streamer.GridStreamerConfiguration;
+import org.gridgain.grid.streamer.GridStreamerContext;
+import org.gridgain.grid.streamer.GridStreamerStage;
+import org.gridgain.grid.streamer.GridStreamerWindow;
+import org.gridgain.grid.streamer.window.GridStreamerBoundedTimeWindow;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/*
+    restores the streamer windows of this node from its WindowCheckpoint journal as soon as the grid has started,
+    before any ingest can reach the stages, then checkpoints every intervalSeconds.
+
+    the bounded time windows stamp events when they are enqueued, so a restored hash tag stays in its window
+    for up to its age at restore longer than it otherwise would.  with AddHashTagToWindowsStage in event time the
+    hash tags go back into its EventTimeWindows by the created time of their tweets instead
+ */
+public class WindowCheckpointer implements GridLifecycleBean {
+
+    private static final String[] HASH_TAG_WINDOWS = {
+            GridConstants.ONE_MINUTE_WINDOW, GridConstants.FIVE_MINUTE_WINDOW, GridConstants.TEN_MINUTE_WINDOW};
+
+    private static final int ENQUEUE_BATCH_SIZE = 10000;
+
+    @GridInstanceResource
+    private Grid grid;
+
+    @GridLoggerResource
+    private GridLogger logger;
+
+    private String directory;
+
+    private int intervalSeconds = 10;
+
+    private NodeDirectory nodeDirectory;
+
+    private WindowCheckpoint checkpoint;
+
+    private ScheduledExecutorService executor;
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public void setIntervalSeconds(int intervalSeconds) {
+        this.intervalSeconds = intervalSeconds;
+    }
+
+    @Override
+    public void onLifecycleEvent(GridLifecycleEventType evt) throws GridException {
+
+        if (evt == GridLifecycleEventType.AFTER_GRID_START && intervalSeconds > 0) {
+
+            final GridStreamerContext context = grid.streamer(GridConstants.STREAMER_NAME).context();
+
+            long horizon = 0;
+
+            for (String name : HASH_TAG_WINDOWS) {
+                horizon = Math.max(horizon, interval(context.<HashTag>window(name)));
+            }
+
+            final long start = System.currentTimeMillis();
+
+            try {
+                nodeDirectory = NodeDirectory.lock(new File(directory));
+
+                checkpoint = new WindowCheckpoint(nodeDirectory.getDirectory(), horizon);
+                checkpoint.restore();
+            } catch (IOException e) {
+                throw new GridException("error restoring streamer windows from " + directory, e);
+            }
+
+            restore(context);
+
+            WindowCheckpoint.register(grid, checkpoint);
+
+            logger.info("restored streamer windows in " + (System.currentTimeMillis() - start) + "ms");
+
+            executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "window-checkpoint");
+                    thread.setDaemon(true);
+
+                    return thread;
+                }
+            });
+
+            executor.scheduleWithFixedDelay(new Runnable() {
+
+                @Override
+                public void run() {
+                    try {
+                        checkpoint.checkpoint();
+                    } catch (Exception e) {
+                        logger.error("error checkpointing streamer windows", e);
+                    }
+                }
+            }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+
+        } else if (evt == GridLifecycleEventType.BEFORE_GRID_STOP && executor != null) {
+
+            executor.shutdownNow();
+
+            WindowCheckpoint.unregister(grid);
+
+            try {
+                executor.awaitTermination(intervalSeconds, TimeUnit.SECONDS);
+
+                checkpoint.checkpoint();
+                nodeDirectory.close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                throw new GridException("error writing final streamer window checkpoint", e);
+            }
+        }
+    }
+
+    private void restore(GridStreamerContext context) throws GridException {
+
+        final long now = System.currentTimeMillis();
+
+        final List<WindowCheckpoint.HashTagEvent> hashTags = checkpoint.hashTags();
+
+        final AddHashTagToWindowsStage stage = hashTagStage();
+
+        if (stage != null && stage.isEventTime()) {
+            restoreEventTime(context, stage, hashTags, now);
+        } else {
+            restoreWindows(context, hashTags, now);
+        }
+
+        final GridStreamerWindow<Tweet> topTweeters = context.window(GridConstants.TOP_TWEETERS_WINDOW);
+
+        // only the screen name is counted, so a bare tweet per counted tweet rebuilds the window
+        final List<Tweet> tweets = new ArrayList<>(ENQUEUE_BATCH_SIZE);
+
+        final CountingIndex index = CountingIndex.get(context, GridConstants.TOP_TWEETERS_WINDOW);
+
+        for (Map.Entry<String, Long> entry : checkpoint.tweeters().entrySet()) {
+            index.add(entry.getKey(), entry.getValue());
+
+            for (long i = 0; i < entry.getValue(); i++) {
+                tweets.add(TweetFactory.create(0, 0, entry.getKey(), null, null, null, null, true));
+
+                if (tweets.size() == ENQUEUE_BATCH_SIZE) {
+                    topTweeters.enqueueAll(tweets);
+                    tweets.clear();
+                }
+            }
+        }
+
+        topTweeters.enqueueAll(tweets);
+    }
+
+    /*
+        the hash tags go back into the time windows and their counts, each window taking those it would still hold
+     */
+    private static void restoreWindows(GridStreamerContext context, List<WindowCheckpoint.HashTagEvent> hashTags, long now) throws GridException {
+
+        for (String name : HASH_TAG_WINDOWS) {
+            final GridStreamerWindow<HashTag> window = context.window(name);
+            final long interval = interval(window);
+
+            final CountingIndex index = CountingIndex.get(context, name);
+
+            final List<HashTag> events = new ArrayList<>();
+
+            for (WindowCheckpoint.HashTagEvent event : hashTags) {
+                if (now - event.timestamp < interval) {
+                    final HashTag hashTag = HashTagFactory.create((String) null, event.text);
+
+                    index.add(hashTag.getText(), hashTag.getWeight());
+                    events.add(hashTag);
+                }
+            }
+
+            window.enqueueAll(events);
+        }
+    }
+
+    /*
+        the hash tags go back into the event time windows by the created time of their tweets, as the stage would
+        have counted them
+     */
+    private static void restoreEventTime(GridStreamerContext context, AddHashTagToWindowsStage stage, List<WindowCheckpoint.HashTagEvent> hashTags,
+                                         long now) {
+
+        final List<HashTag> events = new ArrayList<>(hashTags.size());
+
+        for (WindowCheckpoint.HashTagEvent event : hashTags) {
+            final HashTag hashTag = HashTagFactory.create((String) null, event.text);
+            hashTag.setCreatedAt(event.createdAt);
+
+            events.add(hashTag);
+        }
+
+        stage.eventTimeWindows(context).record(events, now);
+    }
+
+    private AddHashTagToWindowsStage hashTagStage() {
+
+        final GridStreamerConfiguration[] configurations = grid.configuration().getStreamerConfiguration();
+
+        if (configurations != null) {
+            for (GridStreamerConfiguration configuration : configurations) {
+                if (GridConstants.STREAMER_NAME.equals(configuration.getName())) {
+                    for (GridStreamerStage<?> stage : configuration.getStages()) {
+                        if (stage instanceof AddHashTagToWindowsStage) {
+                            return (AddHashTagToWindowsStage) stage;
+                        }
+                    }
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private static long interval(GridStreamerWindow<?> window) {
+        return window instanceof GridStreamerBoundedTimeWindow ? ((GridStreamerBoundedTimeWindow) window).getTimeInterval() : Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,382 @@
+package dashboard.core.streaming.index;
+
+import org.gridgain.grid.streamer.GridStreamerContext;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+/*
+    the count of each key of a streamer window and its topK highest, in place of a tree index and its count
+    updater.  a key takes a stable id from an open addressing table of ints, and its count is a long in an array by
+    that id, so adding or removing an event of a key that has been seen before allocates nothing: no boxed count, no
+    index entry, no tree node.  the arrays grow to the most keys seen at once and stay there, the ids of keys that
+    have counted down to 0 are reused.
+
+    the topK are kept sorted as the counts change, an increment moves its key up or into them.  the keys outside
+    are only known to be at most outsideMax, so once a key in the topK drops below that, or out of them, the topK
+    are rebuilt with a scan of the counts on the next read.  the windows lose counts with every eviction, so that
+    is most reads, but a read is every few seconds and the scan allocates nothing either.
+
+    kept in the streamer's local space per window, so a reset of the streamer starts it over
+ */
+public class CountingIndex {
+
+    private static final String LOCAL_SPACE_KEY = "countingIndex.";
+
+    // well over the MAX_NUM_RETURNED shown, so the per node tops still sum to the cluster's after a topology change
+    public static final int TOP_K = 64;
+
+    private static final int NONE = -1;
+
+    private final int topK;
+
+    // id + 1 of the key in each slot, 0 for an empty slot
+    private int[] slots;
+
+    private String[] keys;
+
+    private int[] hashes;
+
+    private long[] counts;
+
+    // the position of each id in top, NONE when outside
+    private int[] positions;
+
+    private int[] freeIds;
+
+    private int freeCount;
+
+    private int nextId;
+
+    private int size;
+
+    private final int[] top;
+
+    private int topSize;
+
+    private long outsideMax;
+
+    private boolean dirty;
+
+    public CountingIndex() {
+        this(1024, TOP_K);
+    }
+
+    public CountingIndex(int expectedKeys, int topK) {
+        this.topK = topK;
+        this.top = new int[topK];
+
+        final int capacity = Math.max(16, Integer.highestOneBit(Math.max(1, expectedKeys) - 1) << 2);
+
+        slots = new int[capacity];
+        keys = new String[capacity / 2];
+        hashes = new int[capacity / 2];
+        counts = new long[capacity / 2];
+        positions = new int[capacity / 2];
+        freeIds = new int[capacity / 2];
+    }
+
+    /*
+        the index of window, created on first use
+     */
+    public static CountingIndex get(GridStreamerContext gridStreamerContext, String window) {
+
+        final ConcurrentMap<String, CountingIndex> localSpace = gridStreamerContext.localSpace();
+
+        final String key = LOCAL_SPACE_KEY + window;
+
+        CountingIndex index = localSpace.get(key);
+
+        if (index == null) {
+            final CountingIndex created = new CountingIndex();
+
+            index = localSpace.putIfAbsent(key, created);
+
+            if (index == null) {
+                index = created;
+            }
+        }
+
+        return index;
+    }
+
+    public synchronized void add(String key, long count) {
+
+        if (key == null || count <= 0) {
+            return;
+        }
+
+        final int id = idOf(key, true);
+
+        counts[id] += count;
+
+        final int position = positions[id];
+
+        if (position != NONE) {
+            up(position);
+        } else if (topSize < topK) {
+            top[topSize] = id;
+            positions[id] = topSize;
+
+            up(topSize++);
+        } else {
+            final int last = top[topSize - 1];
+
+            if (counts[id] > counts[last]) {
+                positions[last] = NONE;
+                outsideMax = Math.max(outsideMax, counts[last]);
+
+                top[topSize - 1] = id;
+                positions[id] = topSize - 1;
+
+                up(topSize - 1);
+            } else {
+                outsideMax = Math.max(outsideMax, counts[id]);
+            }
+        }
+    }
+
+    /*
+        keys never added, or added before a reset, are ignored, and a count does not go below 0
+     */
+    public synchronized void remove(String key, long count) {
+
+        if (key == null || count <= 0) {
+            return;
+        }
+
+        final int id = idOf(key, false);
+
+        if (id == NONE) {
+            return;
+        }
+
+        counts[id] = Math.max(0, counts[id] - count);
+
+        final int position = positions[id];
+
+        if (position != NONE) {
+            down(position);
+
+            if (size > topSize && counts[id] < outsideMax) {
+                dirty = true;
+            }
+        }
+
+        if (counts[id] == 0) {
+            delete(id);
+        }
+    }
+
+    public synchronized long count(String key) {
+
+        final int id = idOf(key, false);
+
+        return id != NONE ? counts[id] : 0;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /*
+        the limit highest counts, at most topK, highest first
+     */
+    public synchronized Map<String, Long> top(int limit) {
+
+        if (dirty) {
+            rebuild();
+        }
+
+        final Map<String, Long> top = new LinkedHashMap<>();
+
+        for (int i = 0; i < Math.min(limit, topSize); i++) {
+            top.put(keys[this.top[i]], counts[this.top[i]]);
+        }
+
+        return top;
+    }
+
+    private int idOf(String key, boolean create) {
+
+        final int hash = mix(key.hashCode());
+
+        int slot = hash & (slots.length - 1);
+
+        while (slots[slot] != 0) {
+            final int id = slots[slot] - 1;
+
+            if (hashes[id] == hash && keys[id].equals(key)) {
+                return id;
+            }
+
+            slot = (slot + 1) & (slots.length - 1);
+        }
+
+        if (!create) {
+            return NONE;
+        }
+
+        if ((size + 1) * 2 > slots.length) {
+            grow();
+
+            return idOf(key, true);
+        }
+
+        final int id = freeCount > 0 ? freeIds[--freeCount] : nextId++;
+
+        keys[id] = key;
+        hashes[id] = hash;
+        counts[id] = 0;
+        positions[id] = NONE;
+
+        slots[slot] = id + 1;
+        size++;
+
+        return id;
+    }
+
+    private void delete(int id) {
+
+        final int position = positions[id];
+
+        if (position != NONE) {
+            for (int i = position; i < topSize - 1; i++) {
+                top[i] = top[i + 1];
+                positions[top[i]] = i;
+            }
+
+            topSize--;
+
+            if (size > topSize + 1) {
+                dirty = true;
+            }
+        }
+
+        int slot = hashes[id] & (slots.length - 1);
+
+        while (slots[slot] != id + 1) {
+            slot = (slot + 1) & (slots.length - 1);
+        }
+
+        // backward shift, so a lookup never stops at a hole left in the middle of a probe sequence
+        int next = (slot + 1) & (slots.length - 1);
+
+        while (slots[next] != 0) {
+            final int home = hashes[slots[next] - 1] & (slots.length - 1);
+
+            if (((next - home) & (slots.length - 1)) >= ((next - slot) & (slots.length - 1))) {
+                slots[slot] = slots[next];
+                slot = next;
+            }
+
+            next = (next + 1) & (slots.length - 1);
+        }
+
+        slots[slot] = 0;
+
+        keys[id] = null;
+        positions[id] = NONE;
+        freeIds[freeCount++] = id;
+        size--;
+    }
+
+    private void grow() {
+
+        final int capacity = slots.length * 2;
+
+        slots = new int[capacity];
+        keys = Arrays.copyOf(keys, capacity / 2);
+        hashes = Arrays.copyOf(hashes, capacity / 2);
+        counts = Arrays.copyOf(counts, capacity / 2);
+        positions = Arrays.copyOf(positions, capacity / 2);
+        freeIds = Arrays.copyOf(freeIds, capacity / 2);
+
+        for (int id = 0; id < nextId; id++) {
+            if (keys[id] == null) {
+                continue;
+            }
+
+            int slot = hashes[id] & (capacity - 1);
+
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+
+            slots[slot] = id + 1;
+        }
+    }
+
+    private void rebuild() {
+
+        for (int i = 0; i < topSize; i++) {
+            positions[top[i]] = NONE;
+        }
+
+        topSize = 0;
+        outsideMax = 0;
+
+        for (int id = 0; id < nextId; id++) {
+            if (keys[id] == null) {
+                continue;
+            }
+
+            if (topSize < topK) {
+                top[topSize] = id;
+                positions[id] = topSize;
+
+                up(topSize++);
+            } else if (counts[id] > counts[top[topSize - 1]]) {
+                final int last = top[topSize - 1];
+
+                positions[last] = NONE;
+                outsideMax = Math.max(outsideMax, counts[last]);
+
+                top[topSize - 1] = id;
+                positions[id] = topSize - 1;
+
+                up(topSize - 1);
+            } else {
+                outsideMax = Math.max(outsideMax, counts[id]);
+            }
+        }
+
+        dirty = false;
+    }
+
+    private void up(int position) {
+
+        final int id = top[position];
+
+        while (position > 0 && counts[top[position - 1]] < counts[id]) {
+            top[position] = top[position - 1];
+            positions[top[position]] = position;
+            position--;
+        }
+
+        top[position] = id;
+        positions[id] = position;
+    }
+
+    private void down(int position) {
+
+        final int id = top[position];
+
+        while (position < topSize - 1 && counts[top[position + 1]] > counts[id]) {
+            top[position] = top[position + 1];
+            positions[top[position]] = position;
+            position++;
+        }
+
+        top[position] = id;
+        positions[id] = position;
+    }
+
+    private static int mix(int hash) {
+        hash *= 0x9e3779b9;
+
+        return hash ^ (hash >>> 16);
+    }
+}
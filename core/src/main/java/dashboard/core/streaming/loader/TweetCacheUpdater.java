@@ -0,0 +1,54 @@
+package dashboard.core.streaming.loader;
+
+import dashboard.core.model.Tweet;
+import dashboard.core.retention.TweetBuckets;
+import dashboard.core.search.TweetTextIndex;
+import dashboard.core.utils.GridUtils;
+import org.gridgain.grid.Grid;
+import org.gridgain.grid.GridException;
+import org.gridgain.grid.cache.GridCache;
+import org.gridgain.grid.cache.affinity.GridCacheAffinity;
+import org.gridgain.grid.dataload.GridDataLoadCacheUpdater;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+    runs on the primary node of each batch: stores the tweets with one putAll, indexes their text locally and
+    files them under their retention bucket
+ */
+public class TweetCacheUpdater implements GridDataLoadCacheUpdater<String, Tweet> {
+
+    @Override
+    public void update(GridCache<String, Tweet> cache, Collection<Map.Entry<String, Tweet>> entries) throws GridException {
+
+        final Map<String, Tweet> tweets = new HashMap<>(entries.size() * 2);
+
+        for (Map.Entry<String, Tweet> entry : entries) {
+            tweets.put(entry.getKey(), entry.getValue());
+        }
+
+        cache.putAll(tweets);
+
+        final Grid grid = GridUtils.getGrid();
+        final GridCacheAffinity<String> affinity = cache.affinity();
+        final TweetTextIndex index = TweetTextIndex.get(grid);
+        final TweetBuckets buckets = TweetBuckets.get(grid);
+
+        for (Tweet tweet : tweets.values()) {
+            if (!affinity.isPrimary(grid.localNode(), tweet.getGUID())) {
+                continue;
+            }
+
+            if (buckets != null) {
+                buckets.add(tweet);
+            }
+
+            // search only ever returns real tweets, so the multiplied copies are not worth indexing
+            if (!tweet.isFake()) {
+                index.add(affinity.partition(tweet.getGUID()), tweet);
+            }
+        }
+    }
+}
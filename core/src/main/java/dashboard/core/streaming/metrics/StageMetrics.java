@@ -0,0 +1,176 @@
+package dashboard.core.streaming.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    records each run of a stage into HdrHistogram recorders, which take a value without locking or allocating.
+    sample() swaps the recorders' interval histograms out and keeps the summary that JMX and /metrics read
+ */
+public class StageMetrics implements StageMetricsMBean {
+
+    private static final long MAX_LATENCY = TimeUnit.MINUTES.toNanos(1);
+
+    private static final long MAX_BATCH_SIZE = 1 << 20;
+
+    private final String name;
+
+    private final Recorder latency = new Recorder(MAX_LATENCY, 3);
+
+    private final Recorder batchSize = new Recorder(MAX_BATCH_SIZE, 2);
+
+    private final AtomicLong events = new AtomicLong();
+
+    private final AtomicLong batches = new AtomicLong();
+
+    private final AtomicLong failures = new AtomicLong();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final ConcurrentMap<String, Long> values = new ConcurrentHashMap<>();
+
+    // guarded by this
+    private Histogram latencyInterval;
+
+    private Histogram batchSizeInterval;
+
+    private long sampledEvents;
+
+    private volatile StageStats last;
+
+    StageMetrics(String name) {
+        this.name = name;
+        this.last = new StageStats(name, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, new TreeMap<String, Long>());
+    }
+
+    public void record(int size, long nanos, boolean failed) {
+        latency.recordValue(Math.min(nanos, MAX_LATENCY));
+        batchSize.recordValue(Math.min(size, MAX_BATCH_SIZE));
+
+        events.addAndGet(size);
+        batches.incrementAndGet();
+
+        if (failed) {
+            failures.incrementAndGet();
+        }
+    }
+
+    /*
+        events the stage filtered out instead of passing them on
+     */
+    public void drop(int count) {
+        dropped.addAndGet(count);
+    }
+
+    /*
+        a value particular to the stage, a counter of its own or a gauge such as a watermark, reported under name
+        alongside the common ones
+     */
+    public void value(String name, long value) {
+        values.put(name, value);
+    }
+
+    synchronized StageStats sample(long intervalMillis) {
+
+        latencyInterval = latency.getIntervalHistogram(latencyInterval);
+        batchSizeInterval = batchSize.getIntervalHistogram(batchSizeInterval);
+
+        final long total = events.get();
+        final long intervalEvents = total - sampledEvents;
+
+        sampledEvents = total;
+
+        last = new StageStats(name, total, batches.get(), failures.get(), dropped.get(),
+                intervalMillis > 0 ? intervalEvents * 1000 / intervalMillis : 0,
+                micros(latencyInterval.getValueAtPercentile(50)),
+                micros(latencyInterval.getValueAtPercentile(99)),
+                micros(latencyInterval.getValueAtPercentile(99.9)),
+                micros(latencyInterval.getMaxValue()),
+                batchSizeInterval.getMean(),
+                batchSizeInterval.getValueAtPercentile(99),
+                batchSizeInterval.getMaxValue(),
+                new TreeMap<>(values));
+
+        return last;
+    }
+
+    StageStats getLast() {
+        return last;
+    }
+
+    @Override
+    public long getEvents() {
+        return events.get();
+    }
+
+    @Override
+    public long getBatches() {
+        return batches.get();
+    }
+
+    @Override
+    public long getFailures() {
+        return failures.get();
+    }
+
+    @Override
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    @Override
+    public long getEventsPerSecond() {
+        return last.getEventsPerSecond();
+    }
+
+    @Override
+    public long getLatency50Micros() {
+        return last.getLatency50();
+    }
+
+    @Override
+    public long getLatency99Micros() {
+        return last.getLatency99();
+    }
+
+    @Override
+    public long getLatency999Micros() {
+        return last.getLatency999();
+    }
+
+    @Override
+    public long getLatencyMaxMicros() {
+        return last.getLatencyMax();
+    }
+
+    @Override
+    public double getBatchSizeMean() {
+        return last.getBatchSizeMean();
+    }
+
+    @Override
+    public long getBatchSize99() {
+        return last.getBatchSize99();
+    }
+
+    @Override
+    public long getBatchSizeMax() {
+        return last.getBatchSizeMax();
+    }
+
+    @Override
+    public Map<String, Long> getValues() {
+        return new TreeMap<>(values);
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
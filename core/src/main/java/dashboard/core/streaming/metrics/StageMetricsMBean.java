@@ -0,0 +1,32 @@
+package dashboard.core.streaming.metrics;
+
+import java.util.Map;
+
+public interface StageMetricsMBean {
+
+    long getEvents();
+
+    long getBatches();
+
+    long getFailures();
+
+    long getDropped();
+
+    long getEventsPerSecond();
+
+    long getLatency50Micros();
+
+    long getLatency99Micros();
+
+    long getLatency999Micros();
+
+    long getLatencyMaxMicros();
+
+    double getBatchSizeMean();
+
+    long getBatchSize99();
+
+    long getBatchSizeMax();
+
+    Map<String, Long> getValues();
+}
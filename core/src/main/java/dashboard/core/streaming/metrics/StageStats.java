@@ -0,0 +1,170 @@
+package dashboard.core.streaming.metrics;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+    one stage on one node: totals since start, rates and distributions over the last sampling interval, and the
+    values particular to the stage.  latencies are in microseconds
+ */
+public class StageStats implements Externalizable {
+
+    private String name;
+
+    private long events;
+
+    private long batches;
+
+    private long failures;
+
+    private long dropped;
+
+    private long eventsPerSecond;
+
+    private long latency50;
+
+    private long latency99;
+
+    private long latency999;
+
+    private long latencyMax;
+
+    private double batchSizeMean;
+
+    private long batchSize99;
+
+    private long batchSizeMax;
+
+    private Map<String, Long> values;
+
+    // required for Externalizable
+    public StageStats() {
+    }
+
+    StageStats(String name, long events, long batches, long failures, long dropped, long eventsPerSecond, long latency50, long latency99, long latency999,
+               long latencyMax, double batchSizeMean, long batchSize99, long batchSizeMax, Map<String, Long> values) {
+        this.name = name;
+        this.events = events;
+        this.batches = batches;
+        this.failures = failures;
+        this.dropped = dropped;
+        this.eventsPerSecond = eventsPerSecond;
+        this.latency50 = latency50;
+        this.latency99 = latency99;
+        this.latency999 = latency999;
+        this.latencyMax = latencyMax;
+        this.batchSizeMean = batchSizeMean;
+        this.batchSize99 = batchSize99;
+        this.batchSizeMax = batchSizeMax;
+        this.values = values;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getEvents() {
+        return events;
+    }
+
+    public long getBatches() {
+        return batches;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public long getEventsPerSecond() {
+        return eventsPerSecond;
+    }
+
+    public long getLatency50() {
+        return latency50;
+    }
+
+    public long getLatency99() {
+        return latency99;
+    }
+
+    public long getLatency999() {
+        return latency999;
+    }
+
+    public long getLatencyMax() {
+        return latencyMax;
+    }
+
+    public double getBatchSizeMean() {
+        return batchSizeMean;
+    }
+
+    public long getBatchSize99() {
+        return batchSize99;
+    }
+
+    public long getBatchSizeMax() {
+        return batchSizeMax;
+    }
+
+    public Map<String, Long> getValues() {
+        return values;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeObject(name);
+        out.writeLong(events);
+        out.writeLong(batches);
+        out.writeLong(failures);
+        out.writeLong(dropped);
+        out.writeLong(eventsPerSecond);
+        out.writeLong(latency50);
+        out.writeLong(latency99);
+        out.writeLong(latency999);
+        out.writeLong(latencyMax);
+        out.writeDouble(batchSizeMean);
+        out.writeLong(batchSize99);
+        out.writeLong(batchSizeMax);
+
+        out.writeInt(values.size());
+
+        for (Map.Entry<String, Long> value : values.entrySet()) {
+            out.writeUTF(value.getKey());
+            out.writeLong(value.getValue());
+        }
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        name = (String) in.readObject();
+        events = in.readLong();
+        batches = in.readLong();
+        failures = in.readLong();
+        dropped = in.readLong();
+        eventsPerSecond = in.readLong();
+        latency50 = in.readLong();
+        latency99 = in.readLong();
+        latency999 = in.readLong();
+        latencyMax = in.readLong();
+        batchSizeMean = in.readDouble();
+        batchSize99 = in.readLong();
+        batchSizeMax = in.readLong();
+
+        final int size = in.readInt();
+
+        values = new TreeMap<>();
+
+        for (int i = 0; i < size; i++) {
+            values.put(in.readUTF(), in.readLong());
+        }
+    }
+}
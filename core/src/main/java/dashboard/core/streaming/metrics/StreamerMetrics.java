@@ -0,0 +1,88 @@
+package dashboard.core.streaming.metrics;
+
+import org.gridgain.grid.Grid;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+/*
+    the stage and window metrics of this node, registered by StreamerMetricsExporter
+ */
+public class StreamerMetrics {
+
+    private static final String NODE_LOCAL_KEY = StreamerMetrics.class.getName();
+
+    private final String nodeId;
+
+    private final Map<String, StageMetrics> stages;
+
+    private final Map<String, WindowMetrics> windows;
+
+    private volatile StreamerMetricsSnapshot snapshot;
+
+    StreamerMetrics(String nodeId, Map<String, StageMetrics> stages, Map<String, WindowMetrics> windows) {
+        this.nodeId = nodeId;
+        this.stages = stages;
+        this.windows = windows;
+        this.snapshot = new StreamerMetricsSnapshot(nodeId, System.currentTimeMillis(), 0, new ArrayList<StageStats>(), new ArrayList<WindowStats>());
+    }
+
+    /*
+        null unless StreamerMetricsExporter is running on this node
+     */
+    public static StreamerMetrics get(Grid grid) {
+        final ConcurrentMap<String, StreamerMetrics> nodeLocal = grid.nodeLocalMap();
+
+        return nodeLocal.get(NODE_LOCAL_KEY);
+    }
+
+    static void register(Grid grid, StreamerMetrics metrics) {
+        final ConcurrentMap<String, StreamerMetrics> nodeLocal = grid.nodeLocalMap();
+
+        nodeLocal.put(NODE_LOCAL_KEY, metrics);
+    }
+
+    static void unregister(Grid grid) {
+        final ConcurrentMap<String, StreamerMetrics> nodeLocal = grid.nodeLocalMap();
+
+        nodeLocal.remove(NODE_LOCAL_KEY);
+    }
+
+    /*
+        null for a stage the streamer was not configured with
+     */
+    public StageMetrics stage(String name) {
+        return stages.get(name);
+    }
+
+    public StreamerMetricsSnapshot snapshot() {
+        return snapshot;
+    }
+
+    Map<String, WindowMetrics> windows() {
+        return windows;
+    }
+
+    Map<String, StageMetrics> stages() {
+        return stages;
+    }
+
+    void sample(long intervalMillis) {
+
+        final List<StageStats> stageStats = new ArrayList<>(stages.size());
+
+        for (StageMetrics stage : stages.values()) {
+            stageStats.add(stage.sample(intervalMillis));
+        }
+
+        final List<WindowStats> windowStats = new ArrayList<>(windows.size());
+
+        for (WindowMetrics window : windows.values()) {
+            windowStats.add(window.stats());
+        }
+
+        snapshot = new StreamerMetricsSnapshot(nodeId, System.currentTimeMillis(), intervalMillis, stageStats, windowStats);
+    }
+}
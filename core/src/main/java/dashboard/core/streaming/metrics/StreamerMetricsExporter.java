@@ -0,0 +1,173 @@
+package dashboard.core.streaming.metrics;
+
+import dashboard.core.utils.GridConstants;
+import org.gridgain.grid.Grid;
+import org.gridgain.grid.GridException;
+import org.gridgain.grid.GridLifecycleBean;
+import org.gridgain.grid.GridLifecycleEventType;
+import org.gridgain.grid.logger.GridLogger;
+import org.gridgain.grid.resources.GridInstanceResource;
+import org.gridgain.grid.resources.GridLoggerResource;
+import org.gridgain.grid.streamer.GridStreamerConfiguration;
+import org.gridgain.grid.streamer.GridStreamerContext;
+import org.gridgain.grid.streamer.GridStreamerStage;
+import org.gridgain.grid.streamer.GridStreamerWindow;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/*
+    sets up metrics for every stage and window of the streamer, registers them as MBeans under
+    dashboard:type=StreamerStage and dashboard:type=StreamerWindow, and samples the stage histograms every
+    intervalSeconds
+ */
+public class StreamerMetricsExporter implements GridLifecycleBean {
+
+    private static final String DOMAIN = "dashboard";
+
+    @GridInstanceResource
+    private Grid grid;
+
+    @GridLoggerResource
+    private GridLogger logger;
+
+    private int intervalSeconds = 10;
+
+    private final List<ObjectName> registered = new ArrayList<>();
+
+    private ScheduledExecutorService executor;
+
+    public void setIntervalSeconds(int intervalSeconds) {
+        this.intervalSeconds = intervalSeconds;
+    }
+
+    @Override
+    public void onLifecycleEvent(GridLifecycleEventType evt) throws GridException {
+
+        if (evt == GridLifecycleEventType.AFTER_GRID_START && intervalSeconds > 0) {
+
+            final GridStreamerConfiguration configuration = streamerConfiguration();
+
+            if (configuration == null) {
+                return;
+            }
+
+            final GridStreamerContext context = grid.streamer(GridConstants.STREAMER_NAME).context();
+
+            final Map<String, StageMetrics> stages = new LinkedHashMap<>();
+
+            for (GridStreamerStage<?> stage : configuration.getStages()) {
+                stages.put(stage.name(), new StageMetrics(stage.name()));
+            }
+
+            final Map<String, WindowMetrics> windows = new LinkedHashMap<>();
+
+            for (GridStreamerWindow<?> window : configuration.getWindows()) {
+                windows.put(window.name(), new WindowMetrics(context.window(window.name())));
+            }
+
+            final StreamerMetrics metrics = new StreamerMetrics(grid.localNode().id().toString(), stages, windows);
+
+            register(stages, windows);
+
+            StreamerMetrics.register(grid, metrics);
+
+            executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "streamer-metrics");
+                    thread.setDaemon(true);
+
+                    return thread;
+                }
+            });
+
+            executor.scheduleAtFixedRate(new Runnable() {
+
+                @Override
+                public void run() {
+                    try {
+                        metrics.sample(TimeUnit.SECONDS.toMillis(intervalSeconds));
+                    } catch (Exception e) {
+                        logger.error("error sampling streamer metrics", e);
+                    }
+                }
+            }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+
+        } else if (evt == GridLifecycleEventType.BEFORE_GRID_STOP && executor != null) {
+
+            executor.shutdownNow();
+            executor = null;
+
+            StreamerMetrics.unregister(grid);
+
+            unregister();
+        }
+    }
+
+    private GridStreamerConfiguration streamerConfiguration() {
+
+        final GridStreamerConfiguration[] configurations = grid.configuration().getStreamerConfiguration();
+
+        if (configurations != null) {
+            for (GridStreamerConfiguration configuration : configurations) {
+                if (GridConstants.STREAMER_NAME.equals(configuration.getName())) {
+                    return configuration;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private void register(Map<String, StageMetrics> stages, Map<String, WindowMetrics> windows) {
+
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        final String node = ObjectName.quote(grid.localNode().id().toString());
+
+        try {
+            for (Map.Entry<String, StageMetrics> stage : stages.entrySet()) {
+                final ObjectName name = new ObjectName(DOMAIN + ":type=StreamerStage,node=" + node + ",name=" + ObjectName.quote(stage.getKey()));
+
+                server.registerMBean(stage.getValue(), name);
+                registered.add(name);
+            }
+
+            for (Map.Entry<String, WindowMetrics> window : windows.entrySet()) {
+                final ObjectName name = new ObjectName(DOMAIN + ":type=StreamerWindow,node=" + node + ",name=" + ObjectName.quote(window.getKey()));
+
+                server.registerMBean(window.getValue(), name);
+                registered.add(name);
+            }
+        } catch (JMException e) {
+            logger.warning("unable to register streamer metrics MBeans, metrics stay available through /metrics", e);
+        }
+    }
+
+    private void unregister() {
+
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        for (ObjectName name : registered) {
+            try {
+                server.unregisterMBean(name);
+            } catch (JMException e) {
+                logger.warning("unable to unregister " + name, e);
+            }
+        }
+
+        registered.clear();
+    }
+}
@@ -0,0 +1,101 @@
+package dashboard.core.streaming.metrics;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+    the stage and window metrics of one streamer node as of its last sample
+ */
+public class StreamerMetricsSnapshot implements Externalizable {
+
+    private String nodeId;
+
+    private long sampledAt;
+
+    private long intervalMillis;
+
+    private List<StageStats> stages = new ArrayList<>();
+
+    private List<WindowStats> windows = new ArrayList<>();
+
+    // required for Externalizable
+    public StreamerMetricsSnapshot() {
+    }
+
+    StreamerMetricsSnapshot(String nodeId, long sampledAt, long intervalMillis, List<StageStats> stages, List<WindowStats> windows) {
+        this.nodeId = nodeId;
+        this.sampledAt = sampledAt;
+        this.intervalMillis = intervalMillis;
+        this.stages = stages;
+        this.windows = windows;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public long getSampledAt() {
+        return sampledAt;
+    }
+
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    public List<StageStats> getStages() {
+        return stages;
+    }
+
+    public List<WindowStats> getWindows() {
+        return windows;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeObject(nodeId);
+        out.writeLong(sampledAt);
+        out.writeLong(intervalMillis);
+        out.writeInt(stages.size());
+
+        for (StageStats stage : stages) {
+            stage.writeExternal(out);
+        }
+
+        out.writeInt(windows.size());
+
+        for (WindowStats window : windows) {
+            window.writeExternal(out);
+        }
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        nodeId = (String) in.readObject();
+        sampledAt = in.readLong();
+        intervalMillis = in.readLong();
+
+        final int stageCount = in.readInt();
+
+        stages = new ArrayList<>(stageCount);
+
+        for (int i = 0; i < stageCount; i++) {
+            final StageStats stage = new StageStats();
+            stage.readExternal(in);
+            stages.add(stage);
+        }
+
+        final int windowCount = in.readInt();
+
+        windows = new ArrayList<>(windowCount);
+
+        for (int i = 0; i < windowCount; i++) {
+            final WindowStats window = new WindowStats();
+            window.readExternal(in);
+            windows.add(window);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package dashboard.core.streaming.metrics;
+
+import org.gridgain.grid.streamer.GridStreamerWindow;
+
+public class WindowMetrics implements WindowMetricsMBean {
+
+    private final GridStreamerWindow<?> window;
+
+    WindowMetrics(GridStreamerWindow<?> window) {
+        this.window = window;
+    }
+
+    @Override
+    public int getSize() {
+        return window.size();
+    }
+
+    @Override
+    public int getEvictionQueueSize() {
+        return window.evictionQueueSize();
+    }
+
+    WindowStats stats() {
+        return new WindowStats(window.name(), window.size(), window.evictionQueueSize());
+    }
+}
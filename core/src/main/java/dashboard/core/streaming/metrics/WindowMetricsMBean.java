@@ -0,0 +1,8 @@
+package dashboard.core.streaming.metrics;
+
+public interface WindowMetricsMBean {
+
+    int getSize();
+
+    int getEvictionQueueSize();
+}
@@ -0,0 +1,51 @@
+package dashboard.core.streaming.metrics;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+public class WindowStats implements Externalizable {
+
+    private String name;
+
+    private int size;
+
+    private int evictionQueueSize;
+
+    // required for Externalizable
+    public WindowStats() {
+    }
+
+    WindowStats(String name, int size, int evictionQueueSize) {
+        this.name = name;
+        this.size = size;
+        this.evictionQueueSize = evictionQueueSize;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getEvictionQueueSize() {
+        return evictionQueueSize;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeObject(name);
+        out.writeInt(size);
+        out.writeInt(evictionQueueSize);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        name = (String) in.readObject();
+        size = in.readInt();
+        evictionQueueSize = in.readInt();
+    }
+}
@@ -0,0 +1,124 @@
+package dashboard.core.streaming.router;
+
+import dashboard.core.model.HashTag;
+import dashboard.core.model.Tweet;
+import dashboard.core.model.TweetEvent;
+import dashboard.core.utils.HashUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.gridgain.grid.GridNode;
+import org.gridgain.grid.streamer.GridStreamerContext;
+import org.gridgain.grid.streamer.router.GridStreamerRouter;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/*
+    routes each event to the streamer node that owns its key, so a hash tag or tweeter is only ever counted in the
+    windows of one node and adding nodes adds streaming capacity.  hash tags are keyed by lower cased text and
+    tweets, and tweet events, by screen name; anything without a key, and every event for a stage in localStages,
+    stays on the node that produced it.
+
+    ownership is rendezvous hashing over the streamer's nodes: each node scores the key and the highest score
+    wins, so a node joining or leaving only moves the keys it gains or loses.  counts made before such a move
+    stay behind on the old owner, which is why the reducers sum by key rather than assume one entry per key
+ */
+public class KeyPartitionRouter implements GridStreamerRouter {
+
+    private Set<String> localStages = Collections.emptySet();
+
+    /*
+        stages whose events never leave the node, e.g. the database stages whose data loaders already send each
+        entry to its cache primary
+     */
+    public void setLocalStages(Set<String> localStages) {
+        this.localStages = localStages;
+    }
+
+    @Nullable
+    @Override
+    public <T> GridNode route(GridStreamerContext ctx, String stageName, T evt) {
+
+        final String key = localStages.contains(stageName) ? null : key(evt);
+
+        return key != null ? owner(ctx.projection().nodes(), key) : ctx.projection().grid().localNode();
+    }
+
+    @Nullable
+    @Override
+    public <T> Map<GridNode, Collection<T>> route(GridStreamerContext ctx, String stageName, Collection<T> evts) {
+
+        final GridNode local = ctx.projection().grid().localNode();
+
+        if (localStages.contains(stageName)) {
+            return Collections.<GridNode, Collection<T>>singletonMap(local, evts);
+        }
+
+        final List<GridNode> nodes = new ArrayList<>(ctx.projection().nodes());
+
+        final Map<GridNode, Collection<T>> routed = new HashMap<>();
+
+        for (T evt : evts) {
+            final String key = key(evt);
+            final GridNode node = key != null ? owner(nodes, key) : local;
+
+            Collection<T> events = routed.get(node);
+
+            if (events == null) {
+                events = new ArrayList<>();
+                routed.put(node, events);
+            }
+
+            events.add(evt);
+        }
+
+        return routed;
+    }
+
+    @Nullable
+    static String key(Object evt) {
+
+        if (evt instanceof HashTag) {
+            final String text = ((HashTag) evt).getText();
+
+            return text != null ? text.toLowerCase(Locale.ROOT) : null;
+        }
+
+        if (evt instanceof Tweet) {
+            final String screenName = ((Tweet) evt).getScreenName();
+
+            return StringUtils.isNotBlank(screenName) ? screenName : null;
+        }
+
+        if (evt instanceof TweetEvent) {
+            return key(((TweetEvent) evt).getTweet());
+        }
+
+        return null;
+    }
+
+    static GridNode owner(Collection<GridNode> nodes, String key) {
+
+        final long keyHash = HashUtils.mix(key.hashCode());
+
+        GridNode owner = null;
+        long best = 0;
+
+        for (GridNode node : nodes) {
+            final long score = HashUtils.mix(keyHash ^ node.id().getMostSignificantBits() ^ HashUtils.mix(node.id().getLeastSignificantBits()));
+
+            if (owner == null || score > best) {
+                owner = node;
+                best = score;
+            }
+        }
+
+        return owner;
+    }
+}
@@ -0,0 +1,76 @@
+package dashboard.core.streaming.stage;
+
+import dashboard.core.graph.HashTagGraph;
+import dashboard.core.model.HashTag;
+import dashboard.core.model.TweetEvent;
+import org.gridgain.grid.GridException;
+import org.gridgain.grid.streamer.GridStreamerContext;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/*
+    adds the hash tags of each tweet with two or more to the node's HashTagGraph, which keeps minutes of
+    co-occurrence for /related/hashtags.  the graph is created by the first batch with the stage's settings
+ */
+public class AddHashTagPairsStage extends InstrumentedStage<TweetEvent> {
+
+    private int minutes = 10;
+
+    private int maxEdgesPerMinute = 100000;
+
+    private volatile HashTagGraph graph;
+
+    public void setMinutes(int minutes) {
+        this.minutes = minutes;
+    }
+
+    public void setMaxEdgesPerMinute(int maxEdgesPerMinute) {
+        this.maxEdgesPerMinute = maxEdgesPerMinute;
+    }
+
+    @Override
+    public String name() {
+        return this.getClass().getSimpleName();
+    }
+
+    @Nullable
+    @Override
+    protected Map<String, Collection<?>> process(GridStreamerContext gridStreamerContext, Collection<TweetEvent> events) throws GridException {
+
+        final List<List<String>> tweets = new ArrayList<>(events.size());
+
+        for (TweetEvent event : events) {
+            if (event.getHashTags().size() > 1) {
+                final List<String> texts = new ArrayList<>(event.getHashTags().size());
+
+                for (HashTag hashTag : event.getHashTags()) {
+                    texts.add(hashTag.getText());
+                }
+
+                tweets.add(texts);
+            }
+        }
+
+        if (!tweets.isEmpty()) {
+            graph(gridStreamerContext).record(tweets, System.currentTimeMillis());
+        }
+
+        return null;
+    }
+
+    private HashTagGraph graph(GridStreamerContext gridStreamerContext) {
+
+        HashTagGraph hashTagGraph = graph;
+
+        if (hashTagGraph == null) {
+            hashTagGraph = new HashTagGraph(minutes, maxEdgesPerMinute).register(gridStreamerContext.projection().grid());
+            graph = hashTagGraph;
+        }
+
+        return hashTagGraph;
+    }
+}
@@ -3,10 +3,10 @@ package dashboard.core.streaming.stage;
 import dashboard.core.model.HashTag;
 import dashboard.core.model.HashTagKey;
 import org.gridgain.grid.GridException;
-import org.gridgain.grid.cache.GridCache;
-import org.gridgain.grid.lang.GridPredicate;
+import org.gridgain.grid.dataload.GridDataLoadCacheUpdater;
+import org.gridgain.grid.dataload.GridDataLoadCacheUpdaters;
+import org.gridgain.grid.dataload.GridDataLoader;
 import org.gridgain.grid.streamer.GridStreamerContext;
-import org.gridgain.grid.streamer.GridStreamerStage;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
@@ -14,23 +14,33 @@ import java.util.Collections;
 import java.util.Map;
 
 
-public class AddHashTagToDatabaseStage implements GridStreamerStage<HashTag> {
+public class AddHashTagToDatabaseStage extends AddToDatabaseStage<HashTagKey, HashTag> {
 
     @Override
     public String name() {
         return this.getClass().getSimpleName();
     }
 
+    @Override
+    protected String cacheName() {
+        return HashTag.class.getName();
+    }
+
+    @Override
+    protected GridDataLoadCacheUpdater<HashTagKey, HashTag> updater() {
+        return GridDataLoadCacheUpdaters.batched();
+    }
+
     @Nullable
     @Override
-    public Map<String, Collection<?>> run(final GridStreamerContext gridStreamerContext, Collection<HashTag> hashTags) throws GridException {
+    protected Map<String, Collection<?>> process(final GridStreamerContext gridStreamerContext, Collection<HashTag> hashTags) throws GridException {
 
         if (!hashTags.isEmpty()) {
 
-            final GridCache<HashTagKey, HashTag> hashTagCache = gridStreamerContext.projection().grid().cache(HashTag.class.getName());
+            final GridDataLoader<HashTagKey, HashTag> loader = dataLoader(gridStreamerContext);
 
             for (HashTag hashTag : hashTags) {
-                hashTagCache.putxAsync(new HashTagKey(hashTag.getGUID(), hashTag.getTweetGUID()), hashTag, (GridPredicate) null);
+                loader.addData(new HashTagKey(hashTag.getGUID(), hashTag.getTweetGUID()), hashTag);
             }
 
         }
@@ -1,6 +1,12 @@
 package dashboard.core.streaming.stage;
 
+import dashboard.core.authors.HashTagAuthors;
 import dashboard.core.model.HashTag;
+import dashboard.core.series.HashTagSeries;
+import dashboard.core.streaming.checkpoint.WindowCheckpoint;
+import dashboard.core.streaming.index.CountingIndex;
+import dashboard.core.streaming.window.EventTimeWindows;
+import dashboard.core.streaming.window.WindowMemoryGovernor;
 import dashboard.core.utils.GridConstants;
 import org.gridgain.grid.Grid;
 import org.gridgain.grid.GridException;
@@ -8,15 +14,71 @@ import org.gridgain.grid.cache.datastructures.GridCacheAtomicSequence;
 import org.gridgain.grid.cache.datastructures.GridCacheDataStructures;
 import org.gridgain.grid.streamer.GridStreamerContext;
 import org.gridgain.grid.streamer.GridStreamerWindow;
+import org.gridgain.grid.streamer.window.GridStreamerBoundedTimeWindow;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 
+/*
+    a batch goes into the windows pre-aggregated: one event per distinct text, the first of the batch weighted by
+    the occurrences of the text, so each window's CountingIndex takes one update per distinct hash tag rather than
+    one per occurrence however hot a tag runs, and while WindowMemoryGovernor samples the windows only the admitted
+    events go in, weighted up.  the aggregation map is reused per streamer thread.  checkpoint, series, totals, the
+    database and the distinct authors of each tag still get every event.
 
+    with eventTime the hash tags are counted into EventTimeWindows by the created time of their tweet instead, and
+    the time windows are left empty but for their length.  tags too late for those windows show up as dropped, the
+    late ones still counted and the watermark as the stage's late and watermark values
+ */
 public class AddHashTagToWindowsStage extends AddToWindowStage<HashTag> {
 
+    private static final ThreadLocal<Map<String, HashTag>> AGGREGATES = new ThreadLocal<Map<String, HashTag>>() {
+
+        @Override
+        protected Map<String, HashTag> initialValue() {
+            return new HashMap<>();
+        }
+    };
+
+    private int authorsMinutes = 10;
+
+    private boolean eventTime;
+
+    private long slideMillis = 5000;
+
+    private long maxOutOfOrderMillis = 5000;
+
+    private long allowedLatenessMillis = 60000;
+
+    /*
+        minutes of distinct authors kept per hash tag, at least the longest window, 0 disables them
+     */
+    public void setAuthorsMinutes(int authorsMinutes) {
+        this.authorsMinutes = authorsMinutes;
+    }
+
+    public void setEventTime(boolean eventTime) {
+        this.eventTime = eventTime;
+    }
+
+    public void setSlideMillis(long slideMillis) {
+        this.slideMillis = slideMillis;
+    }
+
+    public void setMaxOutOfOrderMillis(long maxOutOfOrderMillis) {
+        this.maxOutOfOrderMillis = maxOutOfOrderMillis;
+    }
+
+    public void setAllowedLatenessMillis(long allowedLatenessMillis) {
+        this.allowedLatenessMillis = allowedLatenessMillis;
+    }
+
     @Override
     public String name() {
         return this.getClass().getSimpleName();
@@ -24,18 +86,38 @@ public class AddHashTagToWindowsStage extends AddToWindowStage<HashTag> {
 
     @Nullable
     @Override
-    public Map<String, Collection<?>> run(GridStreamerContext gridStreamerContext, Collection<HashTag> hashTags) throws GridException {
+    protected Map<String, Collection<?>> process(GridStreamerContext gridStreamerContext, Collection<HashTag> hashTags) throws GridException {
 
         if (!hashTags.isEmpty()) {
 
-            final GridStreamerWindow<HashTag> oneMinute = gridStreamerContext.window(GridConstants.ONE_MINUTE_WINDOW);
-            add(oneMinute, hashTags);
+            if (eventTime) {
+                final EventTimeWindows windows = eventTimeWindows(gridStreamerContext);
+
+                dropped(gridStreamerContext, windows.record(hashTags, System.currentTimeMillis()));
+
+                value(gridStreamerContext, "late", windows.getLate());
+                value(gridStreamerContext, "watermark", windows.getWatermark());
+            } else {
+                final Collection<HashTag> aggregated = sample(gridStreamerContext, aggregate(hashTags));
+
+                final GridStreamerWindow<HashTag> oneMinute = gridStreamerContext.window(GridConstants.ONE_MINUTE_WINDOW);
+                count(CountingIndex.get(gridStreamerContext, GridConstants.ONE_MINUTE_WINDOW), aggregated);
+                add(oneMinute, aggregated);
 
-            final GridStreamerWindow<HashTag> fiveMinute = gridStreamerContext.window(GridConstants.FIVE_MINUTE_WINDOW);
-            add(fiveMinute, hashTags);
+                final GridStreamerWindow<HashTag> fiveMinute = gridStreamerContext.window(GridConstants.FIVE_MINUTE_WINDOW);
+                count(CountingIndex.get(gridStreamerContext, GridConstants.FIVE_MINUTE_WINDOW), aggregated);
+                add(fiveMinute, aggregated);
 
-            final GridStreamerWindow<HashTag> tenMinute = gridStreamerContext.window(GridConstants.TEN_MINUTE_WINDOW);
-            add(tenMinute, hashTags);
+                final GridStreamerWindow<HashTag> tenMinute = gridStreamerContext.window(GridConstants.TEN_MINUTE_WINDOW);
+                count(CountingIndex.get(gridStreamerContext, GridConstants.TEN_MINUTE_WINDOW), aggregated);
+                add(tenMinute, aggregated);
+            }
+
+            checkpoint(gridStreamerContext, hashTags);
+
+            recordSeries(gridStreamerContext, hashTags);
+
+            recordAuthors(gridStreamerContext, hashTags);
 
             incrementTotalCount(gridStreamerContext, hashTags);
 
@@ -45,6 +127,141 @@ public class AddHashTagToWindowsStage extends AddToWindowStage<HashTag> {
 
     }
 
+    private static Collection<HashTag> aggregate(Collection<HashTag> hashTags) {
+
+        final Map<String, HashTag> byText = AGGREGATES.get();
+
+        try {
+            for (HashTag hashTag : hashTags) {
+                final HashTag first = byText.get(hashTag.getText());
+
+                if (first == null) {
+                    byText.put(hashTag.getText(), hashTag);
+                } else {
+                    first.setWeight(first.getWeight() + hashTag.getWeight());
+                }
+            }
+
+            return byText.size() == hashTags.size() ? hashTags : new ArrayList<>(byText.values());
+        } finally {
+            byText.clear();
+        }
+    }
+
+    // counted before they are enqueued, so an event evicted as soon as it is in is never taken off before it is added
+    private static void count(CountingIndex index, Collection<HashTag> hashTags) {
+        synchronized (index) {
+            for (HashTag hashTag : hashTags) {
+                index.add(hashTag.getText(), hashTag.getWeight());
+            }
+        }
+    }
+
+    private static Collection<HashTag> sample(GridStreamerContext gridStreamerContext, Collection<HashTag> hashTags) {
+
+        final WindowMemoryGovernor governor = WindowMemoryGovernor.get(gridStreamerContext.projection().grid());
+
+        if (governor == null || governor.getShift() == 0) {
+            return hashTags;
+        }
+
+        final List<HashTag> admitted = new ArrayList<>();
+
+        for (HashTag hashTag : hashTags) {
+            final int weight = governor.admit(hashTag.getWeight());
+
+            if (weight > 0) {
+                hashTag.setWeight(weight);
+                admitted.add(hashTag);
+            }
+        }
+
+        return admitted;
+    }
+
+    public boolean isEventTime() {
+        return eventTime;
+    }
+
+    /*
+        the event time windows of the streamer, created on first use
+     */
+    public EventTimeWindows eventTimeWindows(GridStreamerContext gridStreamerContext) {
+
+        final ConcurrentMap<String, EventTimeWindows> localSpace = gridStreamerContext.localSpace();
+
+        EventTimeWindows windows = localSpace.get(EventTimeWindows.LOCAL_SPACE_KEY);
+
+        if (windows == null) {
+            final EventTimeWindows created = new EventTimeWindows(span(gridStreamerContext), slideMillis, maxOutOfOrderMillis, allowedLatenessMillis);
+
+            windows = localSpace.putIfAbsent(EventTimeWindows.LOCAL_SPACE_KEY, created);
+
+            if (windows == null) {
+                windows = created;
+            }
+        }
+
+        return windows;
+    }
+
+    // the longest of the hash tag windows
+    private static long span(GridStreamerContext gridStreamerContext) {
+
+        long span = 0;
+
+        for (String name : new String[]{GridConstants.ONE_MINUTE_WINDOW, GridConstants.FIVE_MINUTE_WINDOW, GridConstants.TEN_MINUTE_WINDOW}) {
+            final GridStreamerWindow<HashTag> window = gridStreamerContext.window(name);
+
+            if (window instanceof GridStreamerBoundedTimeWindow) {
+                span = Math.max(span, ((GridStreamerBoundedTimeWindow) window).getTimeInterval());
+            }
+        }
+
+        return span;
+    }
+
+    private void checkpoint(GridStreamerContext gridStreamerContext, Collection<HashTag> hashTags) {
+
+        final WindowCheckpoint checkpoint = WindowCheckpoint.get(gridStreamerContext.projection().grid());
+
+        if (checkpoint != null) {
+            checkpoint.recordHashTags(hashTags);
+        }
+    }
+
+    private void recordSeries(GridStreamerContext gridStreamerContext, Collection<HashTag> hashTags) {
+
+        final HashTagSeries series = HashTagSeries.get(gridStreamerContext.projection().grid());
+
+        if (series != null) {
+            series.record(hashTags);
+        }
+    }
+
+    private void recordAuthors(GridStreamerContext gridStreamerContext, Collection<HashTag> hashTags) {
+
+        if (authorsMinutes <= 0) {
+            return;
+        }
+
+        final ConcurrentMap<String, HashTagAuthors> localSpace = gridStreamerContext.localSpace();
+
+        HashTagAuthors authors = localSpace.get(HashTagAuthors.LOCAL_SPACE_KEY);
+
+        if (authors == null) {
+            final HashTagAuthors created = new HashTagAuthors(authorsMinutes);
+
+            authors = localSpace.putIfAbsent(HashTagAuthors.LOCAL_SPACE_KEY, created);
+
+            if (authors == null) {
+                authors = created;
+            }
+        }
+
+        authors.record(hashTags, System.currentTimeMillis());
+    }
+
     private void incrementTotalCount(GridStreamerContext gridStreamerContext, Collection<HashTag> hashTags) {
 
         try {
@@ -0,0 +1,85 @@
+package dashboard.core.streaming.stage;
+
+import org.gridgain.grid.dataload.GridDataLoadCacheUpdater;
+import org.gridgain.grid.dataload.GridDataLoader;
+import org.gridgain.grid.streamer.GridStreamerContext;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.ConcurrentMap;
+
+/*
+    database stages hand their events to a data loader kept in the streamer's local space.  the loader buffers
+    entries per primary node and ships them as one batch; once perNodeParallelLoadOperations batches are in
+    flight to a node, addData blocks and pushes back on the pipeline
+ */
+public abstract class AddToDatabaseStage<K, V> extends InstrumentedStage<V> {
+
+    public static final String DATA_LOADER_PREFIX = "dataLoader:";
+
+    private int perNodeBufferSize = 512;
+
+    private int perNodeParallelLoadOperations = 4;
+
+    private long autoFlushFrequency = 1000;
+
+    public void setPerNodeBufferSize(int perNodeBufferSize) {
+        this.perNodeBufferSize = perNodeBufferSize;
+    }
+
+    public void setPerNodeParallelLoadOperations(int perNodeParallelLoadOperations) {
+        this.perNodeParallelLoadOperations = perNodeParallelLoadOperations;
+    }
+
+    public void setAutoFlushFrequency(long autoFlushFrequency) {
+        this.autoFlushFrequency = autoFlushFrequency;
+    }
+
+    protected abstract String cacheName();
+
+    @Nullable
+    protected GridDataLoadCacheUpdater<K, V> updater() {
+        return null;
+    }
+
+    GridDataLoader<K, V> dataLoader(GridStreamerContext gridStreamerContext) {
+
+        final ConcurrentMap<String, GridDataLoader<K, V>> localSpace = gridStreamerContext.localSpace();
+
+        final String key = DATA_LOADER_PREFIX + cacheName();
+
+        GridDataLoader<K, V> loader = localSpace.get(key);
+
+        if (loader == null) {
+
+            final GridDataLoader<K, V> created = gridStreamerContext.projection().grid().dataLoader(cacheName());
+
+            created.perNodeBufferSize(perNodeBufferSize);
+            created.perNodeParallelLoadOperations(perNodeParallelLoadOperations);
+            created.autoFlushFrequency(autoFlushFrequency);
+
+            final GridDataLoadCacheUpdater<K, V> updater = updater();
+
+            if (updater != null) {
+                created.updater(updater);
+            }
+
+            loader = localSpace.putIfAbsent(key, created);
+
+            if (loader == null) {
+                loader = created;
+            } else {
+                close(created);
+            }
+        }
+
+        return loader;
+    }
+
+    private void close(GridDataLoader<K, V> loader) {
+        try {
+            loader.close(true);
+        } catch (Exception e) {
+            logger.error("error closing data loader for cache " + cacheName(), e);
+        }
+    }
+}
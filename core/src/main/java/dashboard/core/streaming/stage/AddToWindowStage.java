@@ -1,16 +1,10 @@
 package dashboard.core.streaming.stage;
 
-import org.gridgain.grid.logger.GridLogger;
-import org.gridgain.grid.resources.GridLoggerResource;
-import org.gridgain.grid.streamer.GridStreamerStage;
 import org.gridgain.grid.streamer.GridStreamerWindow;
 
 import java.util.Collection;
 
-public abstract class AddToWindowStage<T> implements GridStreamerStage<T> {
-
-    @GridLoggerResource
-    protected GridLogger logger;
+public abstract class AddToWindowStage<T> extends InstrumentedStage<T> {
 
     void add(GridStreamerWindow<T> window, Collection<T> events) {
         try {
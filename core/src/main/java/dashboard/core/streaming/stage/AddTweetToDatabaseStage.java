@@ -1,38 +1,72 @@
 package dashboard.core.streaming.stage;
 
+import dashboard.core.column.TweetColumns;
 import dashboard.core.model.Tweet;
+import dashboard.core.streaming.loader.TweetCacheUpdater;
+import org.gridgain.grid.Grid;
 import org.gridgain.grid.GridException;
-import org.gridgain.grid.cache.GridCache;
-import org.gridgain.grid.lang.GridPredicate;
+import org.gridgain.grid.dataload.GridDataLoadCacheUpdater;
+import org.gridgain.grid.dataload.GridDataLoader;
 import org.gridgain.grid.streamer.GridStreamerContext;
-import org.gridgain.grid.streamer.GridStreamerStage;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
 import java.util.Map;
 
 
-public class AddTweetToDatabaseStage implements GridStreamerStage<Tweet> {
+public class AddTweetToDatabaseStage extends AddToDatabaseStage<String, Tweet> {
+
+    private int columnRows;
+
+    /*
+        rows of the node local TweetColumns copy, 0 disables it
+     */
+    public void setColumnRows(int columnRows) {
+        this.columnRows = columnRows;
+    }
 
     @Override
     public String name() {
         return this.getClass().getSimpleName();
     }
 
+    @Override
+    protected String cacheName() {
+        return Tweet.class.getName();
+    }
+
+    @Override
+    protected GridDataLoadCacheUpdater<String, Tweet> updater() {
+        return new TweetCacheUpdater();
+    }
+
     @Nullable
     @Override
-    public Map<String, Collection<?>> run(final GridStreamerContext gridStreamerContext, Collection<Tweet> tweets) throws GridException {
+    protected Map<String, Collection<?>> process(final GridStreamerContext gridStreamerContext, Collection<Tweet> tweets) throws GridException {
 
         if (!tweets.isEmpty()) {
 
-            final GridCache<String, Tweet> tweetCache = gridStreamerContext.projection().grid().cache(Tweet.class.getName());
+            final GridDataLoader<String, Tweet> loader = dataLoader(gridStreamerContext);
 
             for (Tweet tweet : tweets) {
-                tweetCache.putxAsync(tweet.getGUID(), tweet, (GridPredicate) null);
+                loader.addData(tweet.getGUID(), tweet);
+            }
+
+            if (columnRows > 0) {
+                columns(gridStreamerContext).append(tweets);
             }
         }
 
         return null;
     }
 
+    private TweetColumns columns(GridStreamerContext gridStreamerContext) {
+
+        final Grid grid = gridStreamerContext.projection().grid();
+
+        final TweetColumns columns = TweetColumns.get(grid);
+
+        return columns != null ? columns : new TweetColumns(columnRows).register(grid);
+    }
+
 }
@@ -1,7 +1,11 @@
 package dashboard.core.streaming.stage;
 
 import dashboard.core.model.Tweet;
+import dashboard.core.streaming.checkpoint.WindowCheckpoint;
+import dashboard.core.streaming.index.CountingIndex;
+import dashboard.core.streaming.window.WindowMemoryGovernor;
 import dashboard.core.utils.GridConstants;
+import org.apache.commons.lang3.StringUtils;
 import org.gridgain.grid.Grid;
 import org.gridgain.grid.GridException;
 import org.gridgain.grid.cache.datastructures.GridCacheAtomicSequence;
@@ -10,8 +14,10 @@ import org.gridgain.grid.streamer.GridStreamerContext;
 import org.gridgain.grid.streamer.GridStreamerWindow;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 
@@ -24,13 +30,18 @@ public class AddTweetToWindowsStage extends AddToWindowStage<Tweet> {
 
     @Nullable
     @Override
-    public Map<String, Collection<?>> run(GridStreamerContext gridStreamerContext, Collection<Tweet> tweets) throws GridException {
+    protected Map<String, Collection<?>> process(GridStreamerContext gridStreamerContext, Collection<Tweet> tweets) throws GridException {
 
         if (!tweets.isEmpty()) {
 
             final GridStreamerWindow<Tweet> streamerWindow = gridStreamerContext.window(GridConstants.TOP_TWEETERS_WINDOW);
 
-            add(streamerWindow, tweets);
+            final Collection<Tweet> admitted = sample(gridStreamerContext, tweets);
+
+            count(CountingIndex.get(gridStreamerContext, GridConstants.TOP_TWEETERS_WINDOW), admitted);
+            add(streamerWindow, admitted);
+
+            checkpoint(gridStreamerContext, tweets);
 
             incrementTotalCount(gridStreamerContext, tweets);
 
@@ -40,6 +51,49 @@ public class AddTweetToWindowsStage extends AddToWindowStage<Tweet> {
 
     }
 
+    // the window is unbounded, so its counts only go up until the streamer is reset
+    private static void count(CountingIndex index, Collection<Tweet> tweets) {
+        synchronized (index) {
+            for (Tweet tweet : tweets) {
+                if (StringUtils.isNotBlank(tweet.getScreenName())) {
+                    index.add(tweet.getScreenName(), tweet.getWeight());
+                }
+            }
+        }
+    }
+
+    // while WindowMemoryGovernor samples the windows only the admitted tweets go in, weighted up
+    private static Collection<Tweet> sample(GridStreamerContext gridStreamerContext, Collection<Tweet> tweets) {
+
+        final WindowMemoryGovernor governor = WindowMemoryGovernor.get(gridStreamerContext.projection().grid());
+
+        if (governor == null || governor.getShift() == 0) {
+            return tweets;
+        }
+
+        final List<Tweet> admitted = new ArrayList<>();
+
+        for (Tweet tweet : tweets) {
+            final int weight = governor.admit(tweet.getWeight());
+
+            if (weight > 0) {
+                tweet.setWeight(weight);
+                admitted.add(tweet);
+            }
+        }
+
+        return admitted;
+    }
+
+    private void checkpoint(GridStreamerContext gridStreamerContext, Collection<Tweet> tweets) {
+
+        final WindowCheckpoint checkpoint = WindowCheckpoint.get(gridStreamerContext.projection().grid());
+
+        if (checkpoint != null) {
+            checkpoint.recordTweets(tweets);
+        }
+    }
+
     private void incrementTotalCount(GridStreamerContext gridStreamerContext, Collection<Tweet> tweets) {
 
         try {
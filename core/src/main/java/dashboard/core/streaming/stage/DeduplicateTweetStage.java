@@ -0,0 +1,181 @@
+package dashboard.core.streaming.stage;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hashing;
+import dashboard.core.model.Tweet;
+import dashboard.core.model.TweetEvent;
+import dashboard.core.utils.RotatingBloomFilter;
+import org.apache.commons.lang3.StringUtils;
+import org.gridgain.grid.GridException;
+import org.gridgain.grid.streamer.GridStreamerContext;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/*
+    head of the pipeline: drops a tweet whose tweetId was seen in the last few rotations of a bloom filter, along
+    with its hash tags, and hands the rest to RateLimitTweetStage.  with textFingerprint a tweet whose text, minus
+    a leading RT @name: and links, was seen before is dropped too, which catches retweets and copies.  the router
+    sends a tweet to the node of its screen name, so ids are checked cluster wide but a copy posted by another
+    user is only caught when it lands on the same node.
+
+    fake tweets are multiplied copies of a real one with the same id.  they come as a count on the real tweet's
+    event and are made here once it is kept, so a duplicate's copies are dropped with it.  the filter remembers
+    a key for at least (generations - 1) * rotateMinutes, and with textFingerprint takes two keys a tweet so it is
+    sized for twice expectedTweets.  the tweets checked and the duplicates among them are the stage's checked and
+    duplicates values, the duplicates show up as dropped too
+ */
+public class DeduplicateTweetStage extends InstrumentedStage<TweetEvent> {
+
+    private static final Pattern RETWEET_PREFIX = Pattern.compile("^rt @\\w+:?\\s*");
+
+    private static final Pattern URL = Pattern.compile("https?://\\S+");
+
+    private long expectedTweets = 1000000;
+
+    private double falsePositiveRate = 0.001;
+
+    private int generations = 3;
+
+    private int rotateMinutes = 10;
+
+    private boolean textFingerprint;
+
+    private final AtomicLong checked = new AtomicLong();
+
+    private final AtomicLong duplicates = new AtomicLong();
+
+    private volatile RotatingBloomFilter filter;
+
+    private volatile long rotatedAt;
+
+    /*
+        tweets per rotation each generation is sized for
+     */
+    public void setExpectedTweets(long expectedTweets) {
+        this.expectedTweets = expectedTweets;
+    }
+
+    public void setFalsePositiveRate(double falsePositiveRate) {
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public void setGenerations(int generations) {
+        this.generations = generations;
+    }
+
+    public void setRotateMinutes(int rotateMinutes) {
+        this.rotateMinutes = rotateMinutes;
+    }
+
+    public void setTextFingerprint(boolean textFingerprint) {
+        this.textFingerprint = textFingerprint;
+    }
+
+    @Override
+    public String name() {
+        return this.getClass().getSimpleName();
+    }
+
+    @Nullable
+    @Override
+    protected Map<String, Collection<?>> process(GridStreamerContext gridStreamerContext, Collection<TweetEvent> events) throws GridException {
+
+        final RotatingBloomFilter bloomFilter = filter();
+
+        final List<TweetEvent> kept = new ArrayList<>(events.size());
+
+        int dropped = 0;
+        int real = 0;
+        int duplicate = 0;
+
+        for (TweetEvent event : events) {
+            final Tweet tweet = event.getTweet();
+
+            if (!tweet.isFake()) {
+                real++;
+
+                if (isDuplicate(bloomFilter, tweet)) {
+                    duplicate++;
+                    dropped += 1 + event.getCopies();
+                    continue;
+                }
+            }
+
+            kept.add(event);
+            kept.addAll(event.fakeCopies());
+        }
+
+        value(gridStreamerContext, "checked", checked.addAndGet(real));
+        value(gridStreamerContext, "duplicates", duplicates.addAndGet(duplicate));
+
+        dropped(gridStreamerContext, dropped);
+
+        return kept.isEmpty() ? null : Collections.<String, Collection<?>>singletonMap(RateLimitTweetStage.class.getSimpleName(), kept);
+    }
+
+    private boolean isDuplicate(RotatingBloomFilter bloomFilter, Tweet tweet) {
+
+        boolean duplicate = !bloomFilter.add(tweet.getTweetId());
+
+        // the fingerprint is added even for a known id so its copies are caught later
+        if (textFingerprint && StringUtils.isNotBlank(tweet.getText())) {
+            duplicate |= !bloomFilter.add(fingerprint(tweet.getText()));
+        }
+
+        return duplicate;
+    }
+
+    static long fingerprint(String text) {
+
+        String normalized = text.toLowerCase(Locale.ENGLISH).trim();
+
+        normalized = RETWEET_PREFIX.matcher(normalized).replaceFirst("");
+        normalized = URL.matcher(normalized).replaceAll("");
+        normalized = StringUtils.normalizeSpace(normalized);
+
+        return Hashing.murmur3_128().hashString(normalized, Charsets.UTF_8).asLong();
+    }
+
+    private RotatingBloomFilter filter() {
+
+        RotatingBloomFilter bloomFilter = filter;
+
+        if (bloomFilter == null) {
+            synchronized (this) {
+                bloomFilter = filter;
+
+                if (bloomFilter == null) {
+                    // a tweet's id and the fingerprint of its text are two keys in the same filter
+                    bloomFilter = new RotatingBloomFilter(textFingerprint ? expectedTweets * 2 : expectedTweets, falsePositiveRate, generations);
+
+                    logger.info("tweet dedup filter of " + (bloomFilter.getMemoryBytes() >> 10) + " KB, " + bloomFilter.getHashes() + " hashes");
+
+                    rotatedAt = System.currentTimeMillis();
+                    filter = bloomFilter;
+                }
+            }
+        }
+
+        final long now = System.currentTimeMillis();
+
+        if (rotateMinutes > 0 && now - rotatedAt >= TimeUnit.MINUTES.toMillis(rotateMinutes)) {
+            synchronized (this) {
+                if (now - rotatedAt >= TimeUnit.MINUTES.toMillis(rotateMinutes)) {
+                    bloomFilter.rotate();
+                    rotatedAt = now;
+                }
+            }
+        }
+
+        return bloomFilter;
+    }
+}
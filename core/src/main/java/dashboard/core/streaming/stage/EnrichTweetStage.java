@@ -0,0 +1,166 @@
+package dashboard.core.streaming.stage;
+
+import dashboard.core.enrich.TweetEnricher;
+import dashboard.core.model.Tweet;
+import org.gridgain.grid.GridException;
+import org.gridgain.grid.streamer.GridStreamerContext;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+    first stage of a tweet: runs the enrichers over the batch on a fork-join pool shared by the stage's runs, split
+    into chunks of CHUNK_SIZE tweets so every core works on a large batch.  the streamer thread waits for the
+    batch, at most about the largest enricher budget, and hands it on to AddTweetToWindowsStage.
+
+    when maxConcurrentBatches batches are already being enriched the pool is behind, and the batch is passed on
+    untouched rather than queueing up in front of the windows.  the running enriched, skipped and failed counts of
+    each enricher are the stage's <name>.enriched, <name>.skipped and <name>.failed values
+ */
+public class EnrichTweetStage extends InstrumentedStage<Tweet> {
+
+    private static final int CHUNK_SIZE = 64;
+
+    private List<TweetEnricher> enrichers = Collections.emptyList();
+
+    private int parallelism;
+
+    private int maxConcurrentBatches = 4;
+
+    private final AtomicInteger concurrentBatches = new AtomicInteger();
+
+    private volatile ForkJoinPool pool;
+
+    public void setEnrichers(List<TweetEnricher> enrichers) {
+        this.enrichers = enrichers;
+    }
+
+    /*
+        threads of the pool, 0 is one per core
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public void setMaxConcurrentBatches(int maxConcurrentBatches) {
+        this.maxConcurrentBatches = maxConcurrentBatches;
+    }
+
+    @Override
+    public String name() {
+        return this.getClass().getSimpleName();
+    }
+
+    @Nullable
+    @Override
+    protected Map<String, Collection<?>> process(GridStreamerContext gridStreamerContext, Collection<Tweet> tweets) throws GridException {
+
+        if (!tweets.isEmpty() && !enrichers.isEmpty()) {
+
+            try {
+                if (concurrentBatches.incrementAndGet() > maxConcurrentBatches) {
+                    for (TweetEnricher enricher : enrichers) {
+                        enricher.skip(tweets.size());
+                    }
+                } else {
+                    enrich(new ArrayList<>(tweets));
+                }
+            } finally {
+                concurrentBatches.decrementAndGet();
+            }
+
+            for (TweetEnricher enricher : enrichers) {
+                value(gridStreamerContext, enricher.name() + ".enriched", enricher.getEnriched());
+                value(gridStreamerContext, enricher.name() + ".skipped", enricher.getSkipped());
+                value(gridStreamerContext, enricher.name() + ".failed", enricher.getFailed());
+            }
+        }
+
+        return Collections.<String, Collection<?>>singletonMap(AddTweetToWindowsStage.class.getSimpleName(), tweets);
+    }
+
+    private void enrich(List<Tweet> tweets) {
+
+        final long start = System.nanoTime();
+
+        final long[] deadlines = new long[enrichers.size()];
+
+        for (int i = 0; i < deadlines.length; i++) {
+            deadlines[i] = start + TimeUnit.MILLISECONDS.toNanos(enrichers.get(i).getBudgetMillis());
+        }
+
+        pool().invoke(new EnrichTask(tweets, 0, tweets.size(), enrichers, deadlines));
+    }
+
+    private ForkJoinPool pool() {
+
+        ForkJoinPool forkJoinPool = pool;
+
+        if (forkJoinPool == null) {
+            synchronized (this) {
+                forkJoinPool = pool;
+
+                if (forkJoinPool == null) {
+                    forkJoinPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+                    pool = forkJoinPool;
+                }
+            }
+        }
+
+        return forkJoinPool;
+    }
+
+    private static class EnrichTask extends RecursiveAction {
+
+        private final List<Tweet> tweets;
+
+        private final int from;
+
+        private final int to;
+
+        private final List<TweetEnricher> enrichers;
+
+        private final long[] deadlines;
+
+        EnrichTask(List<Tweet> tweets, int from, int to, List<TweetEnricher> enrichers, long[] deadlines) {
+            this.tweets = tweets;
+            this.from = from;
+            this.to = to;
+            this.enrichers = enrichers;
+            this.deadlines = deadlines;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (to - from > CHUNK_SIZE) {
+                final int middle = (from + to) >>> 1;
+
+                invokeAll(new EnrichTask(tweets, from, middle, enrichers, deadlines), new EnrichTask(tweets, middle, to, enrichers, deadlines));
+
+                return;
+            }
+
+            for (int i = 0; i < enrichers.size(); i++) {
+                final TweetEnricher enricher = enrichers.get(i);
+
+                for (int j = from; j < to; j++) {
+                    if (System.nanoTime() - deadlines[i] >= 0) {
+                        enricher.skip(to - j);
+                        break;
+                    }
+
+                    enricher.apply(tweets.get(j));
+                }
+            }
+        }
+    }
+}
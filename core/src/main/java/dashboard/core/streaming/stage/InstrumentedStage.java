@@ -0,0 +1,93 @@
+package dashboard.core.streaming.stage;
+
+import dashboard.core.streaming.metrics.StageMetrics;
+import dashboard.core.streaming.metrics.StreamerMetrics;
+import org.gridgain.grid.GridException;
+import org.gridgain.grid.logger.GridLogger;
+import org.gridgain.grid.resources.GridLoggerResource;
+import org.gridgain.grid.streamer.GridStreamerContext;
+import org.gridgain.grid.streamer.GridStreamerStage;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Map;
+
+/*
+    base of every stage: times each run of process() and records it with the batch size into the node's
+    StreamerMetrics, when StreamerMetricsExporter is running
+ */
+public abstract class InstrumentedStage<T> implements GridStreamerStage<T> {
+
+    @GridLoggerResource
+    protected GridLogger logger;
+
+    private volatile StageMetrics metrics;
+
+    @Nullable
+    protected abstract Map<String, Collection<?>> process(GridStreamerContext gridStreamerContext, Collection<T> events) throws GridException;
+
+    @Nullable
+    @Override
+    public final Map<String, Collection<?>> run(GridStreamerContext gridStreamerContext, Collection<T> events) throws GridException {
+
+        final StageMetrics stageMetrics = metrics(gridStreamerContext);
+
+        if (stageMetrics == null) {
+            return process(gridStreamerContext, events);
+        }
+
+        final long start = System.nanoTime();
+
+        boolean failed = true;
+
+        try {
+            final Map<String, Collection<?>> next = process(gridStreamerContext, events);
+
+            failed = false;
+
+            return next;
+        } finally {
+            stageMetrics.record(events.size(), System.nanoTime() - start, failed);
+        }
+    }
+
+    /*
+        counts events process() filtered out of the batch
+     */
+    protected void dropped(GridStreamerContext gridStreamerContext, int count) {
+
+        final StageMetrics stageMetrics = metrics(gridStreamerContext);
+
+        if (stageMetrics != null && count > 0) {
+            stageMetrics.drop(count);
+        }
+    }
+
+    /*
+        reports a value particular to the stage with its metrics
+     */
+    protected void value(GridStreamerContext gridStreamerContext, String name, long value) {
+
+        final StageMetrics stageMetrics = metrics(gridStreamerContext);
+
+        if (stageMetrics != null) {
+            stageMetrics.value(name, value);
+        }
+    }
+
+    private StageMetrics metrics(GridStreamerContext gridStreamerContext) {
+
+        StageMetrics stageMetrics = metrics;
+
+        if (stageMetrics == null) {
+            final StreamerMetrics streamerMetrics = StreamerMetrics.get(gridStreamerContext.projection().grid());
+
+            if (streamerMetrics != null) {
+                stageMetrics = streamerMetrics.stage(name());
+                metrics = stageMetrics;
+            }
+        }
+
+        return stageMetrics;
+    }
+}
@@ -0,0 +1,107 @@
+package dashboard.core.streaming.stage;
+
+import dashboard.core.model.TweetEvent;
+import dashboard.core.model.TweetSummary;
+import dashboard.core.subscribe.Subscription;
+import dashboard.core.subscribe.SubscriptionMatch;
+import dashboard.core.subscribe.SubscriptionMatcher;
+import dashboard.core.subscribe.SubscriptionRegistry;
+import org.gridgain.grid.Grid;
+import org.gridgain.grid.GridException;
+import org.gridgain.grid.streamer.GridStreamerContext;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/*
+    matches the batch against the node's live subscriptions and sends each subscribing node the matches of its
+    subscriptions, one message a subscription.  RateLimitTweetStage only routes here while the node has
+    subscriptions.  a subscription gets at most maxMatchesPerBatch tweets of a batch, the rest show up as dropped.
+    a node that cannot be sent to has its subscriptions dropped
+ */
+public class MatchSubscriptionsStage extends InstrumentedStage<TweetEvent> {
+
+    private int maxMatchesPerBatch = 50;
+
+    public void setMaxMatchesPerBatch(int maxMatchesPerBatch) {
+        this.maxMatchesPerBatch = maxMatchesPerBatch;
+    }
+
+    @Override
+    public String name() {
+        return this.getClass().getSimpleName();
+    }
+
+    @Nullable
+    @Override
+    protected Map<String, Collection<?>> process(GridStreamerContext gridStreamerContext, Collection<TweetEvent> events) throws GridException {
+
+        final Grid grid = gridStreamerContext.projection().grid();
+
+        final SubscriptionRegistry registry = SubscriptionRegistry.get(grid);
+
+        final SubscriptionMatcher matcher = registry.matcher();
+
+        if (matcher.isEmpty()) {
+            return null;
+        }
+
+        final Map<Integer, SubscriptionMatch> matches = new HashMap<>();
+
+        int over = 0;
+
+        for (TweetEvent event : events) {
+            final BitSet matched = matcher.match(event.getTweet(), event.getHashTags());
+
+            for (int i = matched.nextSetBit(0); i >= 0; i = matched.nextSetBit(i + 1)) {
+                SubscriptionMatch match = matches.get(i);
+
+                if (match == null) {
+                    match = new SubscriptionMatch(matcher.subscription(i).getId());
+                    matches.put(i, match);
+                }
+
+                if (match.getTweets().size() < maxMatchesPerBatch) {
+                    match.getTweets().add(TweetSummary.create(event.getTweet()));
+                } else {
+                    over++;
+                }
+            }
+        }
+
+        dropped(gridStreamerContext, over);
+
+        final Map<UUID, List<SubscriptionMatch>> byNode = new HashMap<>();
+
+        for (Map.Entry<Integer, SubscriptionMatch> entry : matches.entrySet()) {
+            final Subscription subscription = matcher.subscription(entry.getKey());
+
+            List<SubscriptionMatch> nodeMatches = byNode.get(subscription.getNodeId());
+
+            if (nodeMatches == null) {
+                nodeMatches = new ArrayList<>();
+                byNode.put(subscription.getNodeId(), nodeMatches);
+            }
+
+            nodeMatches.add(entry.getValue());
+        }
+
+        for (Map.Entry<UUID, List<SubscriptionMatch>> entry : byNode.entrySet()) {
+            try {
+                grid.forNodeId(entry.getKey()).message().send(SubscriptionMatch.TOPIC, entry.getValue());
+            } catch (GridException e) {
+                logger.warning("dropping the subscriptions of node " + entry.getKey() + ", matches could not be sent: " + e.getMessage());
+
+                registry.unsubscribeNode(entry.getKey());
+            }
+        }
+
+        return null;
+    }
+}
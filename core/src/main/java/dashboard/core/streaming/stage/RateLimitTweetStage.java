@@ -0,0 +1,161 @@
+package dashboard.core.streaming.stage;
+
+import dashboard.core.model.HashTag;
+import dashboard.core.model.Tweet;
+import dashboard.core.model.TweetEvent;
+import dashboard.core.ratelimit.RateLimitAction;
+import dashboard.core.ratelimit.TokenBuckets;
+import dashboard.core.subscribe.SubscriptionRegistry;
+import org.gridgain.grid.GridException;
+import org.gridgain.grid.streamer.GridStreamerContext;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    limits each user to tweetsPerMinute with bursts of up to burst tweets, so one account cannot flood the top
+    tweeters window or push its hash tags into every window.  tweets within the rate go on to EnrichTweetStage,
+    their hash tags to AddHashTagToWindowsStage, those with several tags to AddHashTagPairsStage and, while there
+    are live subscriptions, all of them to MatchSubscriptionsStage; the rest are dropped or, with STORE_ONLY, only
+    stored.  fake copies share the user of their original and are only limited with limitFake.
+
+    a tweet arrives here on the node of its screen name, so a user's bucket lives on one node.  shed tweets show
+    up as dropped in the stage metrics, and their running total as the stage's shed value
+ */
+public class RateLimitTweetStage extends InstrumentedStage<TweetEvent> {
+
+    private int tweetsPerMinute = 60;
+
+    private int burst = 20;
+
+    private int maxUsers = 1 << 20;
+
+    private RateLimitAction action = RateLimitAction.DROP;
+
+    private boolean limitFake;
+
+    private final AtomicLong shed = new AtomicLong();
+
+    private volatile TokenBuckets buckets;
+
+    /*
+        0 disables the limit
+     */
+    public void setTweetsPerMinute(int tweetsPerMinute) {
+        this.tweetsPerMinute = tweetsPerMinute;
+    }
+
+    public void setBurst(int burst) {
+        this.burst = burst;
+    }
+
+    public void setMaxUsers(int maxUsers) {
+        this.maxUsers = maxUsers;
+    }
+
+    public void setAction(RateLimitAction action) {
+        this.action = action;
+    }
+
+    public void setLimitFake(boolean limitFake) {
+        this.limitFake = limitFake;
+    }
+
+    @Override
+    public String name() {
+        return this.getClass().getSimpleName();
+    }
+
+    @Nullable
+    @Override
+    protected Map<String, Collection<?>> process(GridStreamerContext gridStreamerContext, Collection<TweetEvent> events) throws GridException {
+
+        final TokenBuckets tokenBuckets = tweetsPerMinute > 0 ? buckets() : null;
+
+        final long now = System.currentTimeMillis();
+
+        final List<Tweet> tweets = new ArrayList<>(events.size());
+        final List<TweetEvent> kept = new ArrayList<>(events.size());
+        final List<HashTag> hashTags = new ArrayList<>();
+        final List<TweetEvent> paired = new ArrayList<>();
+
+        final List<Tweet> storedTweets = new ArrayList<>();
+        final List<HashTag> storedHashTags = new ArrayList<>();
+
+        int over = 0;
+
+        for (TweetEvent event : events) {
+            final Tweet tweet = event.getTweet();
+
+            if (tokenBuckets == null || tweet.isFake() && !limitFake || tokenBuckets.tryAcquire(tweet.getUserId(), now)) {
+                tweets.add(tweet);
+                kept.add(event);
+                hashTags.addAll(event.getHashTags());
+
+                if (event.getHashTags().size() > 1) {
+                    paired.add(event);
+                }
+            } else {
+                over++;
+
+                if (action == RateLimitAction.STORE_ONLY) {
+                    storedTweets.add(tweet);
+                    storedHashTags.addAll(event.getHashTags());
+                }
+            }
+        }
+
+        value(gridStreamerContext, "shed", shed.addAndGet(over));
+
+        dropped(gridStreamerContext, over);
+
+        final boolean subscribed = !SubscriptionRegistry.get(gridStreamerContext.projection().grid()).matcher().isEmpty();
+
+        final Map<String, Collection<?>> next = new HashMap<>();
+
+        put(next, EnrichTweetStage.class.getSimpleName(), tweets);
+        put(next, AddHashTagToWindowsStage.class.getSimpleName(), hashTags);
+        put(next, AddHashTagPairsStage.class.getSimpleName(), paired);
+
+        if (subscribed) {
+            put(next, MatchSubscriptionsStage.class.getSimpleName(), kept);
+        }
+
+        put(next, AddTweetToDatabaseStage.class.getSimpleName(), storedTweets);
+        put(next, AddHashTagToDatabaseStage.class.getSimpleName(), storedHashTags);
+
+        return next.isEmpty() ? null : next;
+    }
+
+    private static void put(Map<String, Collection<?>> next, String stage, Collection<?> events) {
+        if (!events.isEmpty()) {
+            next.put(stage, events);
+        }
+    }
+
+    private TokenBuckets buckets() {
+
+        TokenBuckets tokenBuckets = buckets;
+
+        if (tokenBuckets == null) {
+            synchronized (this) {
+                tokenBuckets = buckets;
+
+                if (tokenBuckets == null) {
+                    tokenBuckets = new TokenBuckets(maxUsers, tweetsPerMinute / 60.0, burst);
+
+                    logger.info("tweet rate limit of " + tweetsPerMinute + " a minute per user, " + (tokenBuckets.getMemoryBytes() >> 10) + " KB of buckets");
+
+                    buckets = tokenBuckets;
+                }
+            }
+        }
+
+        return tokenBuckets;
+    }
+}
@@ -1,19 +1,17 @@
 package dashboard.core.streaming.stage;
 
 import dashboard.core.utils.GridConstants;
-import org.gridgain.grid.logger.GridLogger;
-import org.gridgain.grid.resources.GridLoggerResource;
-import org.gridgain.grid.streamer.GridStreamerStage;
 import org.gridgain.grid.streamer.GridStreamerWindow;
 
 import java.util.Collection;
+import java.util.Collections;
 
-public abstract class RemoveFromWindowStage<T> implements GridStreamerStage<T> {
+public abstract class RemoveFromWindowStage<T> extends InstrumentedStage<T> {
 
-    @GridLoggerResource
-    private GridLogger logger;
-
-    void remove(GridStreamerWindow<T> window) {
+    /*
+        the events evicted, for the stage to take off the window's counts
+     */
+    Collection<T> remove(GridStreamerWindow<T> window) {
 
         try {
 
@@ -33,8 +31,12 @@ public abstract class RemoveFromWindowStage<T> implements GridStreamerStage<T> {
 
                 logger.trace("window name: " + window.name() + ", window size: " + windowSize + ", eviction size: " + evictionQueueSize);
             }
+
+            return evictedElements != null ? evictedElements : Collections.<T>emptyList();
         } catch (Exception e) {
             logger.error("error clearing evicted event from window " + window.name() + "...", e);
         }
+
+        return Collections.emptyList();
     }
 }
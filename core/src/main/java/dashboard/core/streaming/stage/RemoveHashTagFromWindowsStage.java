@@ -1,6 +1,7 @@
 package dashboard.core.streaming.stage;
 
 import dashboard.core.model.HashTag;
+import dashboard.core.streaming.index.CountingIndex;
 import dashboard.core.utils.GridConstants;
 import org.gridgain.grid.GridException;
 import org.gridgain.grid.streamer.GridStreamerContext;
@@ -20,20 +21,28 @@ public class RemoveHashTagFromWindowsStage extends RemoveFromWindowStage<HashTag
 
     @Nullable
     @Override
-    public Map<String, Collection<?>> run(GridStreamerContext gridStreamerContext, Collection<HashTag> hashTags) throws GridException {
+    protected Map<String, Collection<?>> process(GridStreamerContext gridStreamerContext, Collection<HashTag> hashTags) throws GridException {
 
         final GridStreamerWindow<HashTag> oneMinute = gridStreamerContext.window(GridConstants.ONE_MINUTE_WINDOW);
-        remove(oneMinute);
+        uncount(CountingIndex.get(gridStreamerContext, GridConstants.ONE_MINUTE_WINDOW), remove(oneMinute));
 
         final GridStreamerWindow<HashTag> fiveMinute = gridStreamerContext.window(GridConstants.FIVE_MINUTE_WINDOW);
-        remove(fiveMinute);
+        uncount(CountingIndex.get(gridStreamerContext, GridConstants.FIVE_MINUTE_WINDOW), remove(fiveMinute));
 
         final GridStreamerWindow<HashTag> tenMinute = gridStreamerContext.window(GridConstants.TEN_MINUTE_WINDOW);
-        remove(tenMinute);
+        uncount(CountingIndex.get(gridStreamerContext, GridConstants.TEN_MINUTE_WINDOW), remove(tenMinute));
 
         return null;
 
     }
 
+    private static void uncount(CountingIndex index, Collection<HashTag> evicted) {
+        synchronized (index) {
+            for (HashTag hashTag : evicted) {
+                index.remove(hashTag.getText(), hashTag.getWeight());
+            }
+        }
+    }
+
 
 }
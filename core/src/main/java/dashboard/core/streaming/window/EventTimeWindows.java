@@ -0,0 +1,219 @@
+package dashboard.core.streaming.window;
+
+import dashboard.core.model.HashTag;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    hash tag counts by the time the tweet was created rather than the time it arrived, so a replay at any speed
+    fills the windows the way the live stream did.  events are counted into one bucket per slideMillis of event
+    time, and a window is the sum of the buckets that start within its length before the watermark.
+
+    the watermark trails the latest event time seen by maxOutOfOrderMillis, so the windows only show event time
+    the stream is assumed complete up to.  an event behind the watermark is late and still counted, one more than
+    allowedLatenessMillis behind it is too late and left out.  an event without a created time is counted at its
+    arrival.
+
+    kept in the streamer's local space so a reset of the streamer starts it over
+ */
+public class EventTimeWindows {
+
+    public static final String LOCAL_SPACE_KEY = "eventTimeWindows";
+
+    private final long slideMillis;
+
+    private final long maxOutOfOrderMillis;
+
+    private final long allowedLatenessMillis;
+
+    private final Bucket[] buckets;
+
+    private final AtomicLong maxEventTime = new AtomicLong(Long.MIN_VALUE);
+
+    private final AtomicLong late = new AtomicLong();
+
+    private final AtomicLong tooLate = new AtomicLong();
+
+    /*
+        spanMillis is the longest window that will be asked for
+     */
+    public EventTimeWindows(long spanMillis, long slideMillis, long maxOutOfOrderMillis, long allowedLatenessMillis) {
+        this.slideMillis = slideMillis;
+        this.maxOutOfOrderMillis = maxOutOfOrderMillis;
+        this.allowedLatenessMillis = allowedLatenessMillis;
+
+        // room for the longest window behind the watermark, plus the buckets late and early events still go to
+        this.buckets = new Bucket[(int) ((spanMillis + maxOutOfOrderMillis + allowedLatenessMillis) / slideMillis) + 2];
+
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new Bucket();
+        }
+    }
+
+    /*
+        counts each hash tag by its weight, returns the number that were too late
+     */
+    public int record(Collection<HashTag> hashTags, long now) {
+
+        int dropped = 0;
+        int lateEvents = 0;
+
+        for (HashTag hashTag : hashTags) {
+            final long time = hashTag.getCreatedAt() > 0 ? hashTag.getCreatedAt() : now;
+
+            final long latest = maxEventTime.get();
+            final long watermark = latest - maxOutOfOrderMillis;
+
+            if (latest != Long.MIN_VALUE && time < watermark - allowedLatenessMillis) {
+                dropped++;
+                continue;
+            }
+
+            if (latest != Long.MIN_VALUE && time < watermark) {
+                lateEvents++;
+            }
+
+            final long index = time / slideMillis;
+
+            final Bucket bucket = buckets[(int) (index % buckets.length)];
+
+            synchronized (bucket) {
+                // a bucket only moves forward, an index behind it was recycled while this event waited
+                if (bucket.index > index) {
+                    dropped++;
+                    continue;
+                }
+
+                bucket.roll(index);
+                bucket.add(hashTag.getText(), hashTag.getWeight());
+            }
+
+            advance(time);
+        }
+
+        late.addAndGet(lateEvents);
+        tooLate.addAndGet(dropped);
+
+        return dropped;
+    }
+
+    /*
+        the limit highest hash tag counts over the windowMillis before the watermark, highest first
+     */
+    public Map<String, Long> counts(long windowMillis, int limit) {
+
+        final Map<String, Long> counts = new HashMap<>();
+
+        final long latest = maxEventTime.get();
+
+        if (latest == Long.MIN_VALUE) {
+            return counts;
+        }
+
+        final long to = latest - maxOutOfOrderMillis;
+        final long from = to - windowMillis;
+
+        for (Bucket bucket : buckets) {
+            synchronized (bucket) {
+                final long start = bucket.index * slideMillis;
+
+                if (bucket.index < 0 || start < from || start >= to) {
+                    continue;
+                }
+
+                for (Map.Entry<String, long[]> entry : bucket.counts.entrySet()) {
+                    final Long count = counts.get(entry.getKey());
+
+                    counts.put(entry.getKey(), (count != null ? count : 0) + entry.getValue()[0]);
+                }
+            }
+        }
+
+        return top(counts, limit);
+    }
+
+    /*
+        Long.MIN_VALUE until the first event
+     */
+    public long getWatermark() {
+        final long latest = maxEventTime.get();
+
+        return latest != Long.MIN_VALUE ? latest - maxOutOfOrderMillis : Long.MIN_VALUE;
+    }
+
+    public long getLate() {
+        return late.get();
+    }
+
+    public long getTooLate() {
+        return tooLate.get();
+    }
+
+    private static Map<String, Long> top(Map<String, Long> counts, int limit) {
+
+        final List<Map.Entry<String, Long>> sorted = new ArrayList<>(counts.entrySet());
+
+        Collections.sort(sorted, new Comparator<Map.Entry<String, Long>>() {
+
+            @Override
+            public int compare(Map.Entry<String, Long> o1, Map.Entry<String, Long> o2) {
+                return o2.getValue().compareTo(o1.getValue());
+            }
+        });
+
+        final Map<String, Long> top = new LinkedHashMap<>();
+
+        for (Map.Entry<String, Long> entry : sorted.subList(0, Math.min(sorted.size(), limit))) {
+            top.put(entry.getKey(), entry.getValue());
+        }
+
+        return top;
+    }
+
+    private void advance(long time) {
+
+        long latest = maxEventTime.get();
+
+        while (time > latest && !maxEventTime.compareAndSet(latest, time)) {
+            latest = maxEventTime.get();
+        }
+    }
+
+    private static class Bucket {
+
+        private final Map<String, long[]> counts = new HashMap<>();
+
+        private long index = -1;
+
+        void roll(long index) {
+            if (this.index != index) {
+                this.index = index;
+
+                counts.clear();
+            }
+        }
+
+        void add(String text, int weight) {
+
+            if (text == null) {
+                return;
+            }
+
+            final long[] count = counts.get(text);
+
+            if (count != null) {
+                count[0] += weight;
+            } else {
+                counts.put(text, new long[]{weight});
+            }
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package dashboard.core.streaming.window;
+
+import dashboard.core.model.Tweet;
+import dashboard.core.utils.GridConstants;
+import org.gridgain.grid.Grid;
+import org.gridgain.grid.GridException;
+import org.gridgain.grid.GridLifecycleBean;
+import org.gridgain.grid.GridLifecycleEventType;
+import org.gridgain.grid.logger.GridLogger;
+import org.gridgain.grid.resources.GridInstanceResource;
+import org.gridgain.grid.resources.GridLoggerResource;
+import org.gridgain.grid.streamer.GridStreamer;
+import org.gridgain.grid.streamer.GridStreamerWindow;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+    keeps the streamer windows of this node within budgetMb.  every intervalSeconds the footprint of the windows
+    is estimated from their sizes and the usual size of their events; over budget the windows are sampled at half
+    the rate they were, down to 1 in 2^MAX_SHIFT, and once the footprint is back under restorePercent of the budget
+    the rate is doubled again.  a sampled event carries the weight of the events it stands for, so the window
+    counts stay unbiased estimates.
+
+    the time windows drain within their length, so the rate follows the pressure with some lag.  the unbounded top
+    tweeters window never drains, but its counts live in a CountingIndex and its tweets are only held, so over
+    budget its oldest tweets are dropped first, as many as the excess, and the rate only halves for what is left
+ */
+public class WindowMemoryGovernor implements GridLifecycleBean {
+
+    private static final String NODE_LOCAL_KEY = WindowMemoryGovernor.class.getName();
+
+    private static final int MAX_SHIFT = 10;
+
+    // a hash tag event with its GUID and text, shared by the hash tag windows, and a tweet with its strings
+    private static final int HASH_TAG_BYTES = 320;
+
+    private static final int TWEET_BYTES = 1024;
+
+    // each window's queue entry for an event
+    private static final int ENTRY_BYTES = 48;
+
+    @GridInstanceResource
+    private Grid grid;
+
+    @GridLoggerResource
+    private GridLogger logger;
+
+    private int budgetMb;
+
+    private int restorePercent = 50;
+
+    private int intervalSeconds = 5;
+
+    private volatile int shift;
+
+    private ScheduledExecutorService executor;
+
+    /*
+        0 leaves the windows unsampled
+     */
+    public void setBudgetMb(int budgetMb) {
+        this.budgetMb = budgetMb;
+    }
+
+    public void setRestorePercent(int restorePercent) {
+        this.restorePercent = restorePercent;
+    }
+
+    public void setIntervalSeconds(int intervalSeconds) {
+        this.intervalSeconds = intervalSeconds;
+    }
+
+    /*
+        null unless the governor is running on this node
+     */
+    public static WindowMemoryGovernor get(Grid grid) {
+        final ConcurrentMap<String, WindowMemoryGovernor> nodeLocal = grid.nodeLocalMap();
+
+        return nodeLocal.get(NODE_LOCAL_KEY);
+    }
+
+    /*
+        1 in 2^shift events are admitted to the windows
+     */
+    public int getShift() {
+        return shift;
+    }
+
+    /*
+        the weight an admitted event of weight takes on, 0 when it is not admitted
+     */
+    public int admit(int weight) {
+
+        final int current = shift;
+
+        if (current == 0) {
+            return weight;
+        }
+
+        return (ThreadLocalRandom.current().nextInt() & ((1 << current) - 1)) == 0 ? weight << current : 0;
+    }
+
+    @Override
+    public void onLifecycleEvent(GridLifecycleEventType evt) throws GridException {
+
+        if (evt == GridLifecycleEventType.AFTER_GRID_START && budgetMb > 0 && intervalSeconds > 0) {
+
+            final ConcurrentMap<String, WindowMemoryGovernor> nodeLocal = grid.nodeLocalMap();
+
+            nodeLocal.put(NODE_LOCAL_KEY, this);
+
+            executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "window-memory-governor");
+                    thread.setDaemon(true);
+
+                    return thread;
+                }
+            });
+
+            executor.scheduleAtFixedRate(new Runnable() {
+
+                @Override
+                public void run() {
+                    try {
+                        check();
+                    } catch (Exception e) {
+                        logger.error("error checking window memory", e);
+                    }
+                }
+            }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+
+        } else if (evt == GridLifecycleEventType.BEFORE_GRID_STOP && executor != null) {
+
+            executor.shutdownNow();
+            executor = null;
+
+            final ConcurrentMap<String, WindowMemoryGovernor> nodeLocal = grid.nodeLocalMap();
+
+            nodeLocal.remove(NODE_LOCAL_KEY, this);
+        }
+    }
+
+    private void check() throws GridException {
+
+        final GridStreamer streamer = grid.streamer(GridConstants.STREAMER_NAME);
+
+        if (streamer == null) {
+            return;
+        }
+
+        long longest = 0;
+        long entries = 0;
+
+        // the hash tag windows hold the same events, the longest of them all of them
+        for (String name : new String[]{GridConstants.ONE_MINUTE_WINDOW, GridConstants.FIVE_MINUTE_WINDOW, GridConstants.TEN_MINUTE_WINDOW}) {
+            final long size = size(streamer.context().window(name));
+
+            longest = Math.max(longest, size);
+            entries += size;
+        }
+
+        final GridStreamerWindow<Tweet> topTweeters = streamer.context().window(GridConstants.TOP_TWEETERS_WINDOW);
+
+        final long budget = (long) budgetMb << 20;
+
+        final long tweets = size(topTweeters);
+
+        long bytes = longest * HASH_TAG_BYTES + tweets * TWEET_BYTES + (entries + tweets) * ENTRY_BYTES;
+
+        if (bytes > budget && tweets > 0) {
+            final int trimmed = (int) Math.min(tweets, (bytes - budget) / (TWEET_BYTES + ENTRY_BYTES) + 1);
+
+            topTweeters.dequeue(trimmed);
+
+            bytes -= (long) trimmed * (TWEET_BYTES + ENTRY_BYTES);
+
+            logger.info("trimmed the " + trimmed + " oldest tweets from the top tweeters window, its counts are kept");
+        }
+
+        final int previous = shift;
+
+        if (bytes > budget && previous < MAX_SHIFT) {
+            shift = previous + 1;
+        } else if (bytes < budget * restorePercent / 100 && previous > 0) {
+            shift = previous - 1;
+        }
+
+        if (shift != previous) {
+            logger.info("windows at ~" + (bytes >> 20) + " MB of a " + budgetMb + " MB budget, sampling 1 in " + (1 << shift) + " events");
+        }
+    }
+
+    private static long size(GridStreamerWindow<?> window) {
+        return window != null ? window.size() + window.evictionQueueSize() : 0;
+    }
+}
@@ -0,0 +1,202 @@
+package dashboard.core.subscribe;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+    aho-corasick automaton over lower cased keywords: one pass over a text finds every keyword in it, whole words
+    only, however many keywords there are.  a state's edges are kept as sorted chars searched by bisection, and
+    each state lists the keywords ending there or at any of its failure states, so a match never walks the
+    failure chain.  immutable
+ */
+class KeywordAutomaton {
+
+    private static final char[] NO_LABELS = new char[0];
+
+    private static final int[] NO_KEYWORDS = new int[0];
+
+    private final char[][] labels;
+
+    private final int[][] targets;
+
+    private final int[] failure;
+
+    private final int[][] outputs;
+
+    private final int[] lengths;
+
+    KeywordAutomaton(List<String> keywords) {
+
+        // the trie, one sorted edge map per state
+        final List<TreeMap<Character, Integer>> edges = new ArrayList<>();
+        final List<List<Integer>> ends = new ArrayList<>();
+
+        edges.add(new TreeMap<Character, Integer>());
+        ends.add(new ArrayList<Integer>());
+
+        lengths = new int[keywords.size()];
+
+        for (int k = 0; k < keywords.size(); k++) {
+            final String keyword = keywords.get(k).toLowerCase(Locale.ROOT);
+
+            lengths[k] = keyword.length();
+
+            int state = 0;
+
+            for (int i = 0; i < keyword.length(); i++) {
+                final Integer next = edges.get(state).get(keyword.charAt(i));
+
+                if (next != null) {
+                    state = next;
+                } else {
+                    edges.get(state).put(keyword.charAt(i), edges.size());
+                    state = edges.size();
+
+                    edges.add(new TreeMap<Character, Integer>());
+                    ends.add(new ArrayList<Integer>());
+                }
+            }
+
+            ends.get(state).add(k);
+        }
+
+        final int states = edges.size();
+
+        labels = new char[states][];
+        targets = new int[states][];
+        failure = new int[states];
+        outputs = new int[states][];
+
+        for (int s = 0; s < states; s++) {
+            final TreeMap<Character, Integer> edge = edges.get(s);
+
+            labels[s] = edge.isEmpty() ? NO_LABELS : new char[edge.size()];
+            targets[s] = new int[edge.size()];
+
+            int i = 0;
+
+            for (Map.Entry<Character, Integer> entry : edge.entrySet()) {
+                labels[s][i] = entry.getKey();
+                targets[s][i] = entry.getValue();
+                i++;
+            }
+        }
+
+        // failure links breadth first, so a state's failure state is complete before the state
+        final Deque<Integer> queue = new ArrayDeque<>();
+
+        outputs[0] = toArray(ends.get(0), NO_KEYWORDS);
+
+        for (int child : targets[0]) {
+            failure[child] = 0;
+            queue.add(child);
+        }
+
+        while (!queue.isEmpty()) {
+            final int state = queue.poll();
+
+            outputs[state] = toArray(ends.get(state), outputs[failure[state]]);
+
+            for (int i = 0; i < labels[state].length; i++) {
+                final int child = targets[state][i];
+
+                failure[child] = step(failure[state], labels[state][i]);
+                queue.add(child);
+            }
+        }
+    }
+
+    int size() {
+        return lengths.length;
+    }
+
+    /*
+        sets the index of every keyword found in text as a whole word
+     */
+    void match(CharSequence text, BitSet matched) {
+
+        if (lengths.length == 0 || text == null) {
+            return;
+        }
+
+        int state = 0;
+
+        for (int i = 0; i < text.length(); i++) {
+            state = step(state, Character.toLowerCase(text.charAt(i)));
+
+            for (int keyword : outputs[state]) {
+                final int start = i - lengths[keyword] + 1;
+
+                if ((start == 0 || !isWordChar(text.charAt(start - 1))) && (i + 1 == text.length() || !isWordChar(text.charAt(i + 1)))) {
+                    matched.set(keyword);
+                }
+            }
+        }
+    }
+
+    private int step(int state, char c) {
+
+        while (true) {
+            final int next = next(state, c);
+
+            if (next >= 0) {
+                return next;
+            }
+
+            if (state == 0) {
+                return 0;
+            }
+
+            state = failure[state];
+        }
+    }
+
+    private int next(int state, char c) {
+
+        final char[] label = labels[state];
+
+        int low = 0;
+        int high = label.length - 1;
+
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+
+            if (label[middle] < c) {
+                low = middle + 1;
+            } else if (label[middle] > c) {
+                high = middle - 1;
+            } else {
+                return targets[state][middle];
+            }
+        }
+
+        return -1;
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static int[] toArray(List<Integer> own, int[] inherited) {
+
+        if (own.isEmpty()) {
+            return inherited;
+        }
+
+        final int[] keywords = new int[own.size() + inherited.length];
+
+        for (int i = 0; i < own.size(); i++) {
+            keywords[i] = own.get(i);
+        }
+
+        System.arraycopy(inherited, 0, keywords, own.size(), inherited.length);
+
+        return keywords;
+    }
+}
@@ -0,0 +1,96 @@
+package dashboard.core.subscribe;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/*
+    a live filter: a tweet matches when its text has any of keywords as a whole word, it is by any of
+    screenNames or it carries any of hashTags, all compared lower cased.  matches go to the node that subscribed
+ */
+public class Subscription implements Externalizable {
+
+    private String id;
+
+    private UUID nodeId;
+
+    private List<String> keywords = new ArrayList<>();
+
+    private List<String> screenNames = new ArrayList<>();
+
+    private List<String> hashTags = new ArrayList<>();
+
+    // required for Externalizable
+    public Subscription() {
+    }
+
+    public Subscription(String id, UUID nodeId, List<String> keywords, List<String> screenNames, List<String> hashTags) {
+        this.id = id;
+        this.nodeId = nodeId;
+        this.keywords = keywords;
+        this.screenNames = screenNames;
+        this.hashTags = hashTags;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public UUID getNodeId() {
+        return nodeId;
+    }
+
+    public List<String> getKeywords() {
+        return keywords;
+    }
+
+    public List<String> getScreenNames() {
+        return screenNames;
+    }
+
+    public List<String> getHashTags() {
+        return hashTags;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeObject(id);
+        out.writeObject(nodeId);
+        writeStrings(out, keywords);
+        writeStrings(out, screenNames);
+        writeStrings(out, hashTags);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        id = (String) in.readObject();
+        nodeId = (UUID) in.readObject();
+        keywords = readStrings(in);
+        screenNames = readStrings(in);
+        hashTags = readStrings(in);
+    }
+
+    private static void writeStrings(ObjectOutput out, List<String> strings) throws IOException {
+        out.writeInt(strings.size());
+
+        for (String string : strings) {
+            out.writeUTF(string);
+        }
+    }
+
+    private static List<String> readStrings(ObjectInput in) throws IOException {
+        final int size = in.readInt();
+
+        final List<String> strings = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            strings.add(in.readUTF());
+        }
+
+        return strings;
+    }
+}
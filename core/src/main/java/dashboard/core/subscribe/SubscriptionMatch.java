@@ -0,0 +1,63 @@
+package dashboard.core.subscribe;
+
+import dashboard.core.model.TweetSummary;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+    the tweets of one streamer batch that matched a subscription, sent to the subscribing node on TOPIC
+ */
+public class SubscriptionMatch implements Externalizable {
+
+    public static final String TOPIC = "dashboard.subscriptions";
+
+    private String subscriptionId;
+
+    private List<TweetSummary> tweets = new ArrayList<>();
+
+    // required for Externalizable
+    public SubscriptionMatch() {
+    }
+
+    public SubscriptionMatch(String subscriptionId) {
+        this.subscriptionId = subscriptionId;
+    }
+
+    public String getSubscriptionId() {
+        return subscriptionId;
+    }
+
+    public List<TweetSummary> getTweets() {
+        return tweets;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeObject(subscriptionId);
+        out.writeInt(tweets.size());
+
+        for (TweetSummary tweet : tweets) {
+            tweet.writeExternal(out);
+        }
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        subscriptionId = (String) in.readObject();
+
+        final int size = in.readInt();
+
+        tweets = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            final TweetSummary tweet = new TweetSummary();
+            tweet.readExternal(in);
+            tweets.add(tweet);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package dashboard.core.subscribe;
+
+import dashboard.core.model.HashTag;
+import dashboard.core.model.Tweet;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/*
+    the subscriptions of a node compiled for matching: every distinct keyword in one automaton run over the text
+    once, screen names and hash tags in hash maps, each pointing at the subscriptions that asked for it.  the cost
+    of a tweet depends on its length and its matches, not on the number of subscriptions.  immutable, replaced
+    whole when the subscriptions change
+ */
+public class SubscriptionMatcher {
+
+    static final SubscriptionMatcher EMPTY = new SubscriptionMatcher(new ArrayList<Subscription>());
+
+    private final Subscription[] subscriptions;
+
+    private final KeywordAutomaton automaton;
+
+    // keyword index to the subscriptions that have it
+    private final int[][] keywordSubscriptions;
+
+    private final Map<String, int[]> screenNames = new HashMap<>();
+
+    private final Map<String, int[]> hashTags = new HashMap<>();
+
+    SubscriptionMatcher(Collection<Subscription> subscriptions) {
+
+        this.subscriptions = subscriptions.toArray(new Subscription[subscriptions.size()]);
+
+        final Map<String, List<Integer>> keywords = new LinkedHashMap<>();
+        final Map<String, List<Integer>> names = new HashMap<>();
+        final Map<String, List<Integer>> tags = new HashMap<>();
+
+        for (int i = 0; i < this.subscriptions.length; i++) {
+            index(keywords, this.subscriptions[i].getKeywords(), i);
+            index(names, this.subscriptions[i].getScreenNames(), i);
+            index(tags, this.subscriptions[i].getHashTags(), i);
+        }
+
+        this.automaton = new KeywordAutomaton(new ArrayList<>(keywords.keySet()));
+        this.keywordSubscriptions = new int[keywords.size()][];
+
+        int k = 0;
+
+        for (List<Integer> indexes : keywords.values()) {
+            keywordSubscriptions[k++] = toArray(indexes);
+        }
+
+        for (Map.Entry<String, List<Integer>> entry : names.entrySet()) {
+            screenNames.put(entry.getKey(), toArray(entry.getValue()));
+        }
+
+        for (Map.Entry<String, List<Integer>> entry : tags.entrySet()) {
+            hashTags.put(entry.getKey(), toArray(entry.getValue()));
+        }
+    }
+
+    public boolean isEmpty() {
+        return subscriptions.length == 0;
+    }
+
+    public Subscription subscription(int index) {
+        return subscriptions[index];
+    }
+
+    /*
+        the indexes of the subscriptions the tweet matches
+     */
+    public BitSet match(Tweet tweet, Collection<HashTag> tweetHashTags) {
+
+        final BitSet matched = new BitSet(subscriptions.length);
+
+        if (automaton.size() > 0 && tweet.getText() != null) {
+            final BitSet keywords = new BitSet(automaton.size());
+
+            automaton.match(tweet.getText(), keywords);
+
+            for (int k = keywords.nextSetBit(0); k >= 0; k = keywords.nextSetBit(k + 1)) {
+                set(matched, keywordSubscriptions[k]);
+            }
+        }
+
+        if (!screenNames.isEmpty() && tweet.getScreenName() != null) {
+            set(matched, screenNames.get(tweet.getScreenName().toLowerCase(Locale.ROOT)));
+        }
+
+        if (!hashTags.isEmpty()) {
+            for (HashTag hashTag : tweetHashTags) {
+                if (hashTag.getText() != null) {
+                    set(matched, hashTags.get(hashTag.getText().toLowerCase(Locale.ROOT)));
+                }
+            }
+        }
+
+        return matched;
+    }
+
+    private static void set(BitSet matched, int[] indexes) {
+        if (indexes != null) {
+            for (int index : indexes) {
+                matched.set(index);
+            }
+        }
+    }
+
+    // leading @ and # are dropped so either form subscribes
+    private static void index(Map<String, List<Integer>> terms, List<String> values, int subscription) {
+
+        for (String value : values) {
+            final String term = StringUtils.stripStart(StringUtils.trimToEmpty(value), "@#").toLowerCase(Locale.ROOT);
+
+            if (term.isEmpty()) {
+                continue;
+            }
+
+            List<Integer> indexes = terms.get(term);
+
+            if (indexes == null) {
+                indexes = new ArrayList<>();
+                terms.put(term, indexes);
+            }
+
+            if (indexes.isEmpty() || indexes.get(indexes.size() - 1) != subscription) {
+                indexes.add(subscription);
+            }
+        }
+    }
+
+    private static int[] toArray(List<Integer> indexes) {
+
+        final int[] array = new int[indexes.size()];
+
+        for (int i = 0; i < array.length; i++) {
+            array[i] = indexes.get(i);
+        }
+
+        return array;
+    }
+}
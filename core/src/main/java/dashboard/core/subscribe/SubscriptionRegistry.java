@@ -0,0 +1,79 @@
+package dashboard.core.subscribe;
+
+import org.gridgain.grid.Grid;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+
+/*
+    the live subscriptions on this streamer node.  a change recompiles the matcher under the registry's lock and
+    publishes it whole, so the stage keeps matching against the previous one meanwhile and never waits
+ */
+public class SubscriptionRegistry {
+
+    private static final String NODE_LOCAL_KEY = SubscriptionRegistry.class.getName();
+
+    // guarded by this
+    private final Map<String, Subscription> subscriptions = new LinkedHashMap<>();
+
+    private volatile SubscriptionMatcher matcher = SubscriptionMatcher.EMPTY;
+
+    public static SubscriptionRegistry get(Grid grid) {
+        final ConcurrentMap<String, SubscriptionRegistry> nodeLocal = grid.nodeLocalMap();
+
+        SubscriptionRegistry registry = nodeLocal.get(NODE_LOCAL_KEY);
+
+        if (registry == null) {
+            final SubscriptionRegistry created = new SubscriptionRegistry();
+
+            registry = nodeLocal.putIfAbsent(NODE_LOCAL_KEY, created);
+
+            if (registry == null) {
+                registry = created;
+            }
+        }
+
+        return registry;
+    }
+
+    public SubscriptionMatcher matcher() {
+        return matcher;
+    }
+
+    public synchronized void subscribe(Subscription subscription) {
+        subscriptions.put(subscription.getId(), subscription);
+        compile();
+    }
+
+    public synchronized void unsubscribe(String id) {
+        if (subscriptions.remove(id) != null) {
+            compile();
+        }
+    }
+
+    /*
+        drops the subscriptions of a node that can no longer be sent to
+     */
+    public synchronized void unsubscribeNode(UUID nodeId) {
+
+        boolean removed = false;
+
+        for (Iterator<Subscription> iterator = subscriptions.values().iterator(); iterator.hasNext(); ) {
+            if (nodeId.equals(iterator.next().getNodeId())) {
+                iterator.remove();
+                removed = true;
+            }
+        }
+
+        if (removed) {
+            compile();
+        }
+    }
+
+    private void compile() {
+        matcher = subscriptions.isEmpty() ? SubscriptionMatcher.EMPTY : new SubscriptionMatcher(subscriptions.values());
+    }
+}
@@ -1,15 +1,20 @@
 package dashboard.core.twitter;
 
+import dashboard.core.model.HashTag;
 import dashboard.core.model.HashTagFactory;
+import dashboard.core.model.TweetEvent;
 import dashboard.core.model.TweetFactory;
-import dashboard.core.streaming.stage.AddHashTagToWindowsStage;
-import dashboard.core.streaming.stage.AddTweetToWindowsStage;
+import dashboard.core.streaming.stage.DeduplicateTweetStage;
 import org.gridgain.grid.GridException;
 import org.gridgain.grid.streamer.GridStreamer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.social.twitter.api.*;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
 public class TweetStreamListener implements StreamListener {
 
     private final Logger log = LoggerFactory.getLogger(getClass());
@@ -18,34 +23,46 @@ public class TweetStreamListener implements StreamListener {
 
     private int multiplier;
 
+    private final AtomicLong tweets = new AtomicLong();
+
+    private final AtomicLong hashTags = new AtomicLong();
+
     public TweetStreamListener(GridStreamer streamer, int multiplier) {
         this.streamer = streamer;
         this.multiplier = multiplier;
     }
 
+    public long getTweets() {
+        return tweets.get();
+    }
+
+    public long getHashTags() {
+        return hashTags.get();
+    }
+
     @Override
     public void onTweet(org.springframework.social.twitter.api.Tweet tweet) {
 
-        addTweetToStreamer(tweet, false);
-
-        if (multiplier > 0) {
-            for (int i = 0; i<multiplier; i++) {
-                addTweetToStreamer(tweet, true);
-            }
-        }
+        addTweetToStreamer(tweet);
 
     }
 
-    private void addTweetToStreamer(Tweet tweet, boolean fake) {
+    // the multiplier fake copies are made by DeduplicateTweetStage once it has kept the tweet
+    private void addTweetToStreamer(Tweet tweet) {
         try {
-            final dashboard.core.model.Tweet ggTweet = TweetFactory.create(tweet, fake);
+            final dashboard.core.model.Tweet ggTweet = TweetFactory.create(tweet, false);
 
-            streamer.addEventToStage(AddTweetToWindowsStage.class.getSimpleName(), ggTweet);
+            final List<HashTag> ggHashTags = new ArrayList<>();
 
             for (HashTagEntity entity : tweet.getEntities().getHashTags()) {
-                streamer.addEventToStage(AddHashTagToWindowsStage.class.getSimpleName(), HashTagFactory.create(ggTweet, entity));
+                ggHashTags.add(HashTagFactory.create(ggTweet, entity));
             }
 
+            streamer.addEventToStage(DeduplicateTweetStage.class.getSimpleName(), new TweetEvent(ggTweet, ggHashTags, multiplier));
+
+            tweets.addAndGet(1 + multiplier);
+            hashTags.addAndGet(ggHashTags.size() * (1 + multiplier));
+
 
         } catch (GridException e) {
             log.error("error adding Tweet to streamer... ", e);
@@ -0,0 +1,109 @@
+package dashboard.core.utils;
+
+import org.gridgain.grid.Grid;
+import org.gridgain.grid.GridConfiguration;
+import org.gridgain.grid.GridException;
+import org.gridgain.grid.GridGain;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+
+import java.io.Closeable;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+/*
+    a single in-process grid from grid-gain.xml with the embedded profile (grid-embedded.properties): loopback only
+    discovery, no REST or email, small caches and nothing to recover on start.  startup time and the heap in use
+    once the grid is up are logged and kept so test harnesses and benchmarks can report them
+ */
+public class EmbeddedGrid implements Closeable {
+
+    public static final String PROFILE_PROPERTY = "grid.profile";
+
+    public static final String PROFILE = "embedded";
+
+    private static final Logger log = LoggerFactory.getLogger(EmbeddedGrid.class);
+
+    private final ClassPathXmlApplicationContext ctx;
+
+    private final Grid grid;
+
+    private final long startupMillis;
+
+    private final long baselineHeapBytes;
+
+    private EmbeddedGrid(ClassPathXmlApplicationContext ctx, Grid grid, long startupMillis, long baselineHeapBytes) {
+        this.ctx = ctx;
+        this.grid = grid;
+        this.startupMillis = startupMillis;
+        this.baselineHeapBytes = baselineHeapBytes;
+    }
+
+    public static boolean isSelected() {
+        return PROFILE.equals(System.getProperty(PROFILE_PROPERTY));
+    }
+
+    /*
+        selects the embedded profile for the next grid-gain.xml context.  explicit -D settings win, so a harness
+        can still pick another profile or host
+     */
+    public static void configure() {
+        setDefault(PROFILE_PROPERTY, PROFILE);
+        setDefault("GRIDGAIN_LOCAL_HOST", "127.0.0.1");
+        setDefault("GRIDGAIN_UPDATE_NOTIFIER", "false");
+        setDefault("GRIDGAIN_NO_ASCII", "true");
+    }
+
+    public static EmbeddedGrid start() throws GridException {
+
+        configure();
+
+        final long start = System.nanoTime();
+
+        final ClassPathXmlApplicationContext ctx = new ClassPathXmlApplicationContext("grid-gain.xml");
+
+        final Grid grid;
+
+        try {
+            grid = GridGain.start(ctx.getBean(GridConfiguration.class));
+        } catch (GridException e) {
+            ctx.close();
+            throw e;
+        }
+
+        final long startupMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        System.gc();
+
+        final long baselineHeapBytes = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+
+        log.info("embedded grid started in " + startupMillis + " ms, baseline heap " + (baselineHeapBytes >> 20) + " MB");
+
+        return new EmbeddedGrid(ctx, grid, startupMillis, baselineHeapBytes);
+    }
+
+    private static void setDefault(String key, String value) {
+        if (System.getProperty(key) == null) {
+            System.setProperty(key, value);
+        }
+    }
+
+    public Grid grid() {
+        return grid;
+    }
+
+    public long getStartupMillis() {
+        return startupMillis;
+    }
+
+    public long getBaselineHeapBytes() {
+        return baselineHeapBytes;
+    }
+
+    @Override
+    public void close() {
+        GridGain.stop(grid.name(), true);
+        ctx.close();
+    }
+}
@@ -11,5 +11,6 @@ public class GridConstants {
     public static final String TOP_TWEETERS_WINDOW = "topTweeters";
     public static final int EVICTION_COUNT = 1000;
     public static final int MAX_NUM_RETURNED = 5;
+    public static final int SEARCH_PAGE_SIZE = 50;
     public static final String ATOMIC_CACHE = "atomic";
 }
@@ -0,0 +1,18 @@
+package dashboard.core.utils;
+
+public class HashUtils {
+
+    /*
+        the 64-bit finalizer of murmur3, spreads every bit of hash over every bit of the result.  keys that are
+        already ids or hash codes go through it before they pick a slot, a node or a register
+     */
+    public static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+}
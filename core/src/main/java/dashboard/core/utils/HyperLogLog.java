@@ -0,0 +1,178 @@
+package dashboard.core.utils;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Arrays;
+
+/*
+    distinct count sketch of long values, 2^10 registers for a standard error of ~3%.  a sketch starts sparse,
+    holding the 32 bit hashes of up to SPARSE_MAX distinct values and counting them exactly, and turns into the
+    1 KB of registers once it outgrows them, so the many rarely seen keys stay a few bytes each.  sketches merge
+    losslessly, in any order.  not thread safe
+ */
+public class HyperLogLog implements Externalizable {
+
+    private static final int PRECISION = 10;
+
+    private static final int REGISTERS = 1 << PRECISION;
+
+    private static final int SPARSE_MAX = REGISTERS / 8;
+
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    // distinct hashes while sparse, null once dense
+    private int[] sparse = new int[4];
+
+    private int sparseSize;
+
+    private byte[] registers;
+
+    // required for Externalizable
+    public HyperLogLog() {
+    }
+
+    public void add(long value) {
+        addHash(hash(value));
+    }
+
+    public void merge(HyperLogLog other) {
+
+        if (other.registers != null) {
+            toDense();
+
+            for (int i = 0; i < REGISTERS; i++) {
+                if (other.registers[i] > registers[i]) {
+                    registers[i] = other.registers[i];
+                }
+            }
+        } else {
+            for (int i = 0; i < other.sparseSize; i++) {
+                addHash(other.sparse[i]);
+            }
+        }
+    }
+
+    public long estimate() {
+
+        if (registers == null) {
+            return sparseSize;
+        }
+
+        double sum = 0;
+        int zeros = 0;
+
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+
+            if (register == 0) {
+                zeros++;
+            }
+        }
+
+        final double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+
+        // linear counting is more accurate while many registers are still empty
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            return Math.round(REGISTERS * Math.log((double) REGISTERS / zeros));
+        }
+
+        return Math.round(estimate);
+    }
+
+    private void addHash(int hash) {
+
+        if (registers != null) {
+            set(hash);
+            return;
+        }
+
+        for (int i = 0; i < sparseSize; i++) {
+            if (sparse[i] == hash) {
+                return;
+            }
+        }
+
+        if (sparseSize == SPARSE_MAX) {
+            toDense();
+            set(hash);
+            return;
+        }
+
+        if (sparseSize == sparse.length) {
+            sparse = Arrays.copyOf(sparse, Math.min(SPARSE_MAX, sparse.length * 2));
+        }
+
+        sparse[sparseSize++] = hash;
+    }
+
+    private void toDense() {
+
+        if (registers != null) {
+            return;
+        }
+
+        registers = new byte[REGISTERS];
+
+        for (int i = 0; i < sparseSize; i++) {
+            set(sparse[i]);
+        }
+
+        sparse = null;
+        sparseSize = 0;
+    }
+
+    private void set(int hash) {
+
+        final int index = hash >>> (32 - PRECISION);
+        final byte rank = (byte) (Integer.numberOfLeadingZeros((hash << PRECISION) | (1 << (PRECISION - 1))) + 1);
+
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    private static int hash(long value) {
+        final long hash = HashUtils.mix(value);
+
+        return (int) (hash ^ hash >>> 32);
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+
+        out.writeBoolean(registers != null);
+
+        if (registers != null) {
+            out.write(registers);
+        } else {
+            out.writeInt(sparseSize);
+
+            for (int i = 0; i < sparseSize; i++) {
+                out.writeInt(sparse[i]);
+            }
+        }
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+
+        if (in.readBoolean()) {
+            registers = new byte[REGISTERS];
+            in.readFully(registers);
+
+            sparse = null;
+            sparseSize = 0;
+        } else {
+            sparseSize = in.readInt();
+            sparse = new int[Math.max(4, sparseSize)];
+
+            for (int i = 0; i < sparseSize; i++) {
+                sparse[i] = in.readInt();
+            }
+
+            registers = null;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package dashboard.core.utils;
+
+import java.util.Arrays;
+
+/*
+    open addressing map of long to long, two parallel arrays and linear probing.  sixteen bytes an entry and no
+    objects per entry, so an index over many millions of records stays small and invisible to the garbage
+    collector.  key 0 marks an empty slot in the arrays and is held on the side.  not thread safe
+ */
+public class LongLongHashMap {
+
+    public static final long MISSING = -1;
+
+    private static final long EMPTY = 0;
+
+    private long[] keys;
+
+    private long[] values;
+
+    private int size;
+
+    private boolean hasZeroKey;
+
+    private long zeroValue;
+
+    public LongLongHashMap(int expectedSize) {
+        allocate(Math.max(16, Integer.highestOneBit(Math.max(expectedSize, 8) * 2 - 1) << 1));
+    }
+
+    public long get(long key) {
+        if (key == EMPTY) {
+            return hasZeroKey ? zeroValue : MISSING;
+        }
+
+        final int mask = keys.length - 1;
+
+        for (int slot = slot(key, mask); ; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+
+            if (keys[slot] == EMPTY) {
+                return MISSING;
+            }
+        }
+    }
+
+    public void put(long key, long value) {
+        if (key == EMPTY) {
+            size += hasZeroKey ? 0 : 1;
+            hasZeroKey = true;
+            zeroValue = value;
+            return;
+        }
+
+        if ((size + 1) * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+
+        final int mask = keys.length - 1;
+
+        for (int slot = slot(key, mask); ; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+
+            if (keys[slot] == EMPTY) {
+                keys[slot] = key;
+                values[slot] = value;
+                size++;
+                return;
+            }
+        }
+    }
+
+    public long remove(long key) {
+        if (key == EMPTY) {
+            if (!hasZeroKey) {
+                return MISSING;
+            }
+
+            hasZeroKey = false;
+            size--;
+
+            return zeroValue;
+        }
+
+        final int mask = keys.length - 1;
+
+        int slot = slot(key, mask);
+
+        while (keys[slot] != key) {
+            if (keys[slot] == EMPTY) {
+                return MISSING;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        final long removed = values[slot];
+
+        // shift the rest of the probe run back so lookups never stop early at the hole
+        int hole = slot;
+
+        for (int next = (hole + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            final int home = slot(keys[next], mask);
+
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+        }
+
+        keys[hole] = EMPTY;
+        values[hole] = 0;
+        size--;
+
+        return removed;
+    }
+
+    /*
+        adds delta to the value of key, treating a missing key as 0, and returns the new value
+     */
+    public long add(long key, long delta) {
+        if (key == EMPTY) {
+            put(key, (hasZeroKey ? zeroValue : 0) + delta);
+            return zeroValue;
+        }
+
+        if ((size + 1) * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+
+        final int mask = keys.length - 1;
+
+        for (int slot = slot(key, mask); ; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot] += delta;
+            }
+
+            if (keys[slot] == EMPTY) {
+                keys[slot] = key;
+                size++;
+                return values[slot] = delta;
+            }
+        }
+    }
+
+    public void forEach(EntryVisitor visitor) {
+        if (hasZeroKey) {
+            visitor.visit(EMPTY, zeroValue);
+        }
+
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                visitor.visit(keys[i], values[i]);
+            }
+        }
+    }
+
+    /*
+        drops every entry whose value the filter rejects, in one pass that rebuilds the table
+     */
+    public void retainValues(ValueFilter filter) {
+        final long[] oldKeys = keys;
+        final long[] oldValues = values;
+        final boolean zero = hasZeroKey;
+
+        allocate(keys.length);
+
+        hasZeroKey = zero && filter.retain(zeroValue);
+        size += hasZeroKey ? 1 : 0;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY && filter.retain(oldValues[i])) {
+                insert(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(values, 0);
+        hasZeroKey = false;
+        size = 0;
+    }
+
+    private void rehash(int capacity) {
+        final long[] oldKeys = keys;
+        final long[] oldValues = values;
+
+        allocate(capacity);
+
+        size += hasZeroKey ? 1 : 0;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                insert(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void insert(long key, long value) {
+        final int mask = keys.length - 1;
+
+        int slot = slot(key, mask);
+
+        while (keys[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        size = 0;
+    }
+
+    private static int slot(long key, int mask) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    public interface ValueFilter {
+
+        boolean retain(long value);
+    }
+
+    public interface EntryVisitor {
+
+        void visit(long key, long value);
+    }
+}
@@ -0,0 +1,69 @@
+package dashboard.core.utils;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+
+/*
+    a node-N directory under a root shared by every node on a host.  each node takes the first one it can lock,
+    so a restarted node gets back the files it wrote before and two live nodes never share one
+ */
+public class NodeDirectory implements Closeable {
+
+    private static final String LOCK_FILE = "lock";
+
+    private final File directory;
+
+    private final RandomAccessFile lockFile;
+
+    private final FileLock lock;
+
+    private NodeDirectory(File directory, RandomAccessFile lockFile, FileLock lock) {
+        this.directory = directory;
+        this.lockFile = lockFile;
+        this.lock = lock;
+    }
+
+    public static NodeDirectory lock(File root) throws IOException {
+
+        for (int i = 0; ; i++) {
+            final File directory = new File(root, "node-" + i);
+
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("unable to create node directory " + directory);
+            }
+
+            final RandomAccessFile lockFile = new RandomAccessFile(new File(directory, LOCK_FILE), "rw");
+
+            FileLock lock;
+
+            try {
+                lock = lockFile.getChannel().tryLock();
+            } catch (OverlappingFileLockException e) {
+                lock = null;
+            }
+
+            if (lock != null) {
+                return new NodeDirectory(directory, lockFile, lock);
+            }
+
+            lockFile.close();
+        }
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            lock.release();
+        } finally {
+            lockFile.close();
+        }
+    }
+}
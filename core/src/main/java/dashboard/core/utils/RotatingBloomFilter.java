@@ -0,0 +1,120 @@
+package dashboard.core.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+    bloom filter over long keys split into generations.  add() sets the key's bits in the newest generation and
+    reports whether they were all set in any generation already; rotate() clears the oldest generation and makes
+    it the newest, so a key is remembered for between generations - 1 and generations rotations.
+
+    each generation is sized for expectedInsertions at falsePositiveRate / generations, keeping the false positive
+    rate over all of them near falsePositiveRate.  bits are set with compare and swap, so add() takes no lock; two
+    threads adding the same new key at once may both see it as new
+ */
+public class RotatingBloomFilter {
+
+    private final AtomicLongArray[] generations;
+
+    private final long bits;
+
+    private final int hashes;
+
+    private volatile int newest;
+
+    public RotatingBloomFilter(long expectedInsertions, double falsePositiveRate, int generations) {
+
+        // with one generation a rotation would clear the bits add() is setting
+        generations = Math.max(2, generations);
+
+        final double rate = falsePositiveRate / generations;
+
+        final long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(rate) / (Math.log(2) * Math.log(2)));
+
+        this.bits = Math.max(64, (optimalBits + 63) & ~63L);
+        this.hashes = Math.max(1, (int) Math.round((double) bits / expectedInsertions * Math.log(2)));
+        this.generations = new AtomicLongArray[generations];
+
+        for (int i = 0; i < generations; i++) {
+            this.generations[i] = new AtomicLongArray((int) (bits >>> 6));
+        }
+    }
+
+    /*
+        true when the key was not seen before, false when it probably was
+     */
+    public boolean add(long key) {
+
+        final long hash1 = HashUtils.mix(key);
+        final long hash2 = HashUtils.mix(hash1 ^ 0x9E3779B97F4A7C15L);
+
+        final int current = newest;
+
+        boolean seen = false;
+
+        for (int g = 0; g < generations.length && !seen; g++) {
+            seen = contains(generations[g], hash1, hash2);
+        }
+
+        final AtomicLongArray generation = generations[current];
+
+        for (int i = 0; i < hashes; i++) {
+            set(generation, index(hash1, hash2, i));
+        }
+
+        return !seen;
+    }
+
+    public synchronized void rotate() {
+
+        final int oldest = (newest + 1) % generations.length;
+
+        final AtomicLongArray generation = generations[oldest];
+
+        for (int i = 0; i < generation.length(); i++) {
+            generation.set(i, 0);
+        }
+
+        newest = oldest;
+    }
+
+    public long getMemoryBytes() {
+        return generations.length * (bits >>> 3);
+    }
+
+    public int getHashes() {
+        return hashes;
+    }
+
+    private boolean contains(AtomicLongArray generation, long hash1, long hash2) {
+
+        for (int i = 0; i < hashes; i++) {
+            final long index = index(hash1, hash2, i);
+
+            if ((generation.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private long index(long hash1, long hash2, int i) {
+        return ((hash1 + i * hash2) & Long.MAX_VALUE) % bits;
+    }
+
+    private static void set(AtomicLongArray generation, long index) {
+
+        final int word = (int) (index >>> 6);
+        final long mask = 1L << index;
+
+        long value;
+
+        do {
+            value = generation.get(word);
+
+            if ((value & mask) != 0) {
+                return;
+            }
+        } while (!generation.compareAndSet(word, value, value | mask));
+    }
+}
@@ -0,0 +1,24 @@
+#!/bin/sh
+
+#
+# Loads 1,000,000 tweets with the caches on heap and again with a 100,000 entry heap tier in front of
+# off-heap storage, logging throughput and gc pauses for each run.
+#
+
+SCRIPT_DIR=$(cd $(dirname "$0"); pwd)
+
+. $SCRIPT_DIR/common.sh
+
+COUNT=${1:-1000000}
+
+echo ">>> on-heap"
+
+"$JAVA" ${JVM_OPTS} -DGRIDGAIN_QUIET=true -DGRIDGAIN_UPDATE_NOTIFIER=false -DGRIDGAIN_HOME="${GRIDGAIN_HOME}" \
+    -Dcache.tweet.heapEntries=1000000 -Dcache.tweet.offHeapMaxMemory=-1 -Dindex.offHeapMaxMemory=-1 \
+    ${JVM_XOPTS} -cp "${CP}" dashboard.node.CacheLoadTest ${COUNT}
+
+echo ">>> off-heap"
+
+"$JAVA" ${JVM_OPTS} -DGRIDGAIN_QUIET=true -DGRIDGAIN_UPDATE_NOTIFIER=false -DGRIDGAIN_HOME="${GRIDGAIN_HOME}" \
+    -Dcache.tweet.heapEntries=100000 -Dcache.tweet.offHeapMaxMemory=0 -Dindex.offHeapMaxMemory=0 \
+    ${JVM_XOPTS} -cp "${CP}" dashboard.node.CacheLoadTest ${COUNT}
@@ -0,0 +1,12 @@
+#!/bin/sh
+
+SCRIPT_DIR=$(cd $(dirname "$0"); pwd)
+
+. $SCRIPT_DIR/common.sh
+
+# a single loopback node with small caches, see grid-embedded.properties.  the startup time and baseline heap
+# are logged once the grid is up
+JVM_OPTS="-Xms256m -Xmx1g -Djava.net.preferIPv4Stack=true"
+
+"$JAVA" ${JVM_OPTS} -DGRIDGAIN_QUIET=true -DGRIDGAIN_UPDATE_NOTIFIER=false -DGRIDGAIN_SCRIPT \
+    -DGRIDGAIN_HOME="${GRIDGAIN_HOME}" -DGRIDGAIN_PROG_NAME="$0" ${JVM_XOPTS} -cp "${CP}" dashboard.node.StartNode embedded
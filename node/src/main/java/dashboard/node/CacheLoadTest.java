@@ -0,0 +1,143 @@
+package dashboard.node;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import dashboard.core.model.Tweet;
+import dashboard.core.model.TweetFactory;
+import dashboard.core.streaming.loader.TweetCacheUpdater;
+import dashboard.core.utils.GridConstants;
+import org.gridgain.grid.Grid;
+import org.gridgain.grid.GridConfiguration;
+import org.gridgain.grid.GridGain;
+import org.gridgain.grid.cache.GridCache;
+import org.gridgain.grid.dataload.GridDataLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class CacheLoadTest {
+
+    /*
+        Loads synthetic tweets into the Tweet cache the same way AddTweetToDatabaseStage does and reports load
+        throughput and gc pauses.  Compare storage modes by overriding grid.properties with system properties:
+
+        on-heap:   -Dcache.tweet.heapEntries=1000000 -Dcache.tweet.offHeapMaxMemory=-1
+        off-heap:  -Dcache.tweet.heapEntries=100000 -Dcache.tweet.offHeapMaxMemory=0 -Dindex.offHeapMaxMemory=0
+
+        The first argument is the number of tweets to load, 1,000,000 by default.  See bin/run-cache-test.sh
+
+        No on-heap vs off-heap figures have been recorded yet, the comparison has not been run
+     */
+
+    private static final Logger log = LoggerFactory.getLogger(CacheLoadTest.class);
+
+    private static final String[] WORDS = {"grid", "gain", "memory", "stream", "cache", "tweet", "data", "java",
+            "fast", "node", "cluster", "query", "index", "heap", "pause", "scale", "event", "window", "count", "search"};
+
+    public static void main(String[] args) throws Exception {
+
+        final int count = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+
+        final AtomicLong maxPause = new AtomicLong();
+
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            ((NotificationEmitter) gc).addNotificationListener(new NotificationListener() {
+
+                @Override
+                public void handleNotification(Notification notification, Object handback) {
+                    if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                        final long duration = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData()).getGcInfo().getDuration();
+
+                        long current;
+
+                        do {
+                            current = maxPause.get();
+                        } while (duration > current && !maxPause.compareAndSet(current, duration));
+                    }
+                }
+            }, null, null);
+        }
+
+        final ClassPathXmlApplicationContext ctx = new ClassPathXmlApplicationContext("grid-gain.xml");
+        final GridConfiguration config = ctx.getBean(GridConfiguration.class);
+
+        final Grid grid = GridGain.start(config);
+
+        try {
+            final long gcCountBefore = gcCount();
+            final long gcTimeBefore = gcTime();
+            maxPause.set(0);
+
+            final Random random = new Random(42);
+
+            final long start = System.currentTimeMillis();
+
+            final GridDataLoader<String, Tweet> loader = grid.dataLoader(Tweet.class.getName());
+            loader.updater(new TweetCacheUpdater());
+
+            try {
+                for (int i = 0; i < count; i++) {
+                    final Tweet tweet = TweetFactory.create(i, random.nextInt(100000), "user" + random.nextInt(100000), text(random),
+                            new Date(), "en", "web", i % 10 != 0);
+
+                    loader.addData(tweet.getGUID(), tweet);
+                }
+            } finally {
+                loader.close(false);
+            }
+
+            final long elapsed = Math.max(1, System.currentTimeMillis() - start);
+
+            final GridCache<String, Tweet> cache = grid.cache(Tweet.class.getName());
+
+            log.info("memory mode: " + cache.configuration().getMemoryMode() + ", off-heap max " + cache.configuration().getOffHeapMaxMemory());
+            log.info("loaded " + count + " tweets in " + elapsed + " ms (" + (count * 1000L / elapsed) + " tweets/sec)");
+            log.info("gc: " + (gcCount() - gcCountBefore) + " collections, " + (gcTime() - gcTimeBefore) + " ms total, " + maxPause.get() + " ms max pause");
+            log.info("heap entries: " + cache.size());
+            log.info("off-heap entries: " + cache.offHeapEntriesCount() + " (" + cache.offHeapAllocatedSize() / (1024 * 1024) + " MB)");
+            log.info("heap used: " + (Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory()) / (1024 * 1024) + " MB");
+
+        } finally {
+            GridGain.stop(GridConstants.GRID_NAME, true);
+        }
+    }
+
+    private static String text(Random random) {
+        final StringBuilder text = new StringBuilder();
+
+        for (int i = 0; i < 12; i++) {
+            text.append(WORDS[random.nextInt(WORDS.length)]).append(random.nextInt(1000)).append(' ');
+        }
+
+        return text.toString();
+    }
+
+    private static long gcCount() {
+        long total = 0;
+
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += gc.getCollectionCount();
+        }
+
+        return total;
+    }
+
+    private static long gcTime() {
+        long total = 0;
+
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += gc.getCollectionTime();
+        }
+
+        return total;
+    }
+}
@@ -1,5 +1,6 @@
 package dashboard.node;
 
+import dashboard.core.utils.EmbeddedGrid;
 import org.gridgain.grid.GridConfiguration;
 import org.gridgain.grid.GridException;
 import org.gridgain.grid.GridGain;
@@ -11,10 +12,18 @@ public class StartNode {
         Start node with the following system property to avoid 8080 web conflicts
 
         -DGRIDGAIN_JETTY_PORT=8090
+
+        Pass embedded (or -Dgrid.profile=embedded) for a single loopback node that boots without recovering
+        anything, see grid-embedded.properties
      */
 
     public static void main(String[] args) throws GridException {
 
+        if (args.length > 0 && EmbeddedGrid.PROFILE.equals(args[0]) || EmbeddedGrid.isSelected()) {
+            EmbeddedGrid.start();
+            return;
+        }
+
         final ClassPathXmlApplicationContext ctx = new ClassPathXmlApplicationContext("grid-gain.xml");
         final GridConfiguration config = ctx.getBean(GridConfiguration.class);
 
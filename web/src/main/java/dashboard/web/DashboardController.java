@@ -1,19 +1,30 @@
 package dashboard.web;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import dashboard.core.column.TweetColumnGroup;
+import dashboard.core.model.HashTagTimeSeries;
+import dashboard.core.series.SeriesResolution;
 import dashboard.core.utils.GridConstants;
+import dashboard.web.model.KeyValuePair;
 import dashboard.web.service.TwitterService;
 import org.atmosphere.cpr.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.ModelMap;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 
 import java.text.NumberFormat;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -21,6 +32,13 @@ import java.util.concurrent.TimeUnit;
 @Controller
 public class DashboardController {
 
+    private static final int DEFAULT_SERIES_SLOTS = 168;
+
+    private static final int MAX_SERIES_SLOTS = 2000;
+
+    private static final List<String> HASH_TAG_WINDOWS = Arrays.asList(
+            GridConstants.ONE_MINUTE_WINDOW, GridConstants.FIVE_MINUTE_WINDOW, GridConstants.TEN_MINUTE_WINDOW);
+
     private final Logger log = LoggerFactory.getLogger(getClass());
 
     @Autowired
@@ -144,6 +162,121 @@ public class DashboardController {
     }
 
 
+    @RequestMapping(value = "/counts/sampling")
+    @ResponseBody
+    public void windowSampling(AtmosphereResource atmosphereResource) {
+
+        final ObjectMapper mapper = new ObjectMapper();
+
+        broadcast(atmosphereResource,
+                5,
+                "/counts/sampling",
+                new Callable<String>() {
+
+                    public String call() throws Exception {
+                        final int shift = twitterService.getWindowSamplingShift();
+
+                        return mapper.writeValueAsString(shift > 0 ? "1 in " + (1 << shift) : "all");
+                    }
+
+                }
+        );
+    }
+
+
+    /*
+        tags seen in the same tweets as tag over the last window, e.g. /related/hashtags?tag=nba&window=oneMinute.
+        polled rather than pushed, since the tag and window are the client's own and a broadcaster per pair would
+        run its grid-wide reduce for as long as the web node is up.  an unknown window is a bad request
+     */
+    @RequestMapping(value = "/related/hashtags", method = RequestMethod.GET)
+    public ResponseEntity<List<KeyValuePair>> relatedHashTags(@RequestParam(value = "tag") String tag,
+                                                              @RequestParam(value = "window", defaultValue = GridConstants.FIVE_MINUTE_WINDOW) String window) {
+
+        if (!HASH_TAG_WINDOWS.contains(window)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        return new ResponseEntity<>(twitterService.getRelatedHashTags(tag, window), HttpStatus.OK);
+    }
+
+    /*
+        registers a live filter, e.g. POST /subscriptions?keywords=goal,penalty&hashTags=worldcup.  a tweet matching
+        any of the keywords, screenNames or hashTags is pushed to the listeners of /subscriptions/stream?id= with
+        the returned id.  the id is null without terms or once the node has as many live subscriptions as it takes
+     */
+    @RequestMapping(value = "/subscriptions", method = RequestMethod.POST)
+    @ResponseBody
+    public Map<String, String> subscribe(@RequestParam(value = "keywords", required = false) List<String> keywords,
+                                         @RequestParam(value = "screenNames", required = false) List<String> screenNames,
+                                         @RequestParam(value = "hashTags", required = false) List<String> hashTags) {
+
+        final String id = twitterService.subscribe(orEmpty(keywords), orEmpty(screenNames), orEmpty(hashTags));
+
+        return Collections.singletonMap("id", id);
+    }
+
+    @RequestMapping(value = "/subscriptions", method = RequestMethod.DELETE)
+    @ResponseBody
+    public void unsubscribe(@RequestParam(value = "id") String id) {
+        twitterService.unsubscribe(id);
+    }
+
+    /*
+        the tweets matching subscription id as they stream through, pushed as they match rather than on a schedule
+     */
+    @RequestMapping(value = "/subscriptions/stream")
+    @ResponseBody
+    public void subscriptionStream(AtmosphereResource atmosphereResource, @RequestParam(value = "id") String id) {
+
+        this.suspend(atmosphereResource);
+
+        BroadcasterFactory.getDefault().lookup("/subscriptions/" + id, true).addAtmosphereResource(atmosphereResource);
+    }
+
+    /*
+        hash tag counts for charts, e.g. /series/hashtags?resolution=HOUR for the last week by hour.  from and to
+        are epoch millis, from defaults to DEFAULT_SERIES_SLOTS steps before to
+     */
+    @RequestMapping(value = "/series/hashtags", method = RequestMethod.GET)
+    @ResponseBody
+    public HashTagTimeSeries hashTagSeries(@RequestParam(value = "resolution", defaultValue = "HOUR") SeriesResolution resolution,
+                                           @RequestParam(value = "from", required = false) Long from,
+                                           @RequestParam(value = "to", required = false) Long to,
+                                           @RequestParam(value = "limit", defaultValue = "10") int limit) {
+
+        final long end = to != null ? to : System.currentTimeMillis();
+
+        long start = from != null ? from : end - resolution.getStep() * DEFAULT_SERIES_SLOTS;
+
+        start = Math.max(start, end - resolution.getStep() * MAX_SERIES_SLOTS);
+
+        return twitterService.getHashTagSeries(resolution, start, end, limit);
+    }
+
+    /*
+        tweet counts scanned from the streamer nodes' column copies, e.g. /analytics/tweets?group=LANGUAGE or
+        group=MINUTE for a histogram.  from and to are epoch millis, from defaults to an hour before to
+     */
+    @RequestMapping(value = "/analytics/tweets", method = RequestMethod.GET)
+    @ResponseBody
+    public Map<String, Long> tweetCounts(@RequestParam(value = "group", defaultValue = "LANGUAGE") TweetColumnGroup group,
+                                         @RequestParam(value = "from", required = false) Long from,
+                                         @RequestParam(value = "to", required = false) Long to,
+                                         @RequestParam(value = "includeFake", defaultValue = "false") boolean includeFake,
+                                         @RequestParam(value = "limit", defaultValue = "10") int limit) {
+
+        final long end = to != null ? to : System.currentTimeMillis();
+
+        final long start = from != null ? from : end - TimeUnit.HOURS.toMillis(1);
+
+        return twitterService.countTweets(group, start, end, includeFake, limit);
+    }
+
+    private static List<String> orEmpty(List<String> values) {
+        return values != null ? values : Collections.<String>emptyList();
+    }
+
     private void broadcast(AtmosphereResource atmosphereResource, int broadcastFrequencySeconds, String url, Callable<String> callable) {
 
 
@@ -1,5 +1,7 @@
 package dashboard.web;
 
+import dashboard.core.ingest.IngestSource;
+import dashboard.core.ingest.IngestStatus;
 import dashboard.web.service.TwitterService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,6 +11,7 @@ import org.springframework.ui.ModelMap;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
 
 import javax.servlet.http.HttpServletRequest;
 import java.util.Date;
@@ -31,7 +34,9 @@ public class IngestController {
 
         final String minutes = request.getParameter("duration");
         final String multiplierString = request.getParameter("multiplier");
-
+        final String sourceString = request.getParameter("source");
+        final String shardsString = request.getParameter("shards");
+        final String rateString = request.getParameter("rate");
 
 
         int duration = 10000;
@@ -47,18 +52,53 @@ public class IngestController {
         }
 
 
+        IngestSource source = IngestSource.TWITTER;
+
+        if (StringUtils.hasText(sourceString)) {
+            source = IngestSource.valueOf(sourceString);
+        }
+
+        int shards = 1;
+
+        if (StringUtils.hasText(shardsString)) {
+            shards = Integer.parseInt(shardsString);
+        }
+
+        int rate = 0;
+
+        if (StringUtils.hasText(rateString)) {
+            rate = Integer.parseInt(rateString);
+        }
+
         if (log.isDebugEnabled()) {
-            log.debug("will ingest twitter data for " + duration + " milliseconds with multiplier of " + multiplier);
+            log.debug("will ingest " + source + " data for " + duration + " milliseconds with multiplier of " + multiplier);
         }
 
         request.getSession().setAttribute("startTime", new Date());
         request.getSession().setAttribute("duration", duration);
         request.getSession().setAttribute("multiplier", multiplier);
 
-        twitterService.ingest(duration, multiplier);
+        twitterService.ingest(source, duration, multiplier, shards, rate);
 
         return "redirect:/dashboard";
     }
 
+    @RequestMapping(value = "/ingest/cancel", method = RequestMethod.POST)
+    public String cancel() {
+
+        twitterService.cancelIngest();
+
+        return "redirect:/ingest";
+    }
+
+    /*
+        progress of the current or last ingest session, summed over the nodes running its shards
+     */
+    @RequestMapping(value = "/ingest/status", method = RequestMethod.GET)
+    @ResponseBody
+    public IngestStatus status() {
+        return twitterService.getIngestStatus();
+    }
+
 
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package dashboard.web;
+
+import dashboard.core.streaming.metrics.StreamerMetricsSnapshot;
+import dashboard.web.service.TwitterService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.List;
+
+@Controller
+public class MetricsController {
+
+    @Autowired
+    private TwitterService twitterService;
+
+    /*
+        per node stage latency, batch size and throughput over the last sampling interval, plus window sizes and
+        eviction queue depths
+     */
+    @RequestMapping(value = "/metrics", method = RequestMethod.GET)
+    @ResponseBody
+    public List<StreamerMetricsSnapshot> metrics() {
+        return twitterService.getStreamerMetrics();
+    }
+}
@@ -1,5 +1,7 @@
 package dashboard.web;
 
+import dashboard.core.utils.GridConstants;
+import dashboard.web.model.TweetPage;
 import dashboard.web.service.TwitterService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,6 +10,8 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.ModelMap;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 
 import javax.servlet.http.HttpServletRequest;
 
@@ -30,10 +34,25 @@ public class SearchController {
         final String text = request.getParameter("text");
         final String screenName = request.getParameter("screenName");
 
-        model.put("tweets", twitterService.findTweets(text, screenName));
+        model.put("page", twitterService.findTweets(text, screenName, GridConstants.SEARCH_PAGE_SIZE));
 
         return "tile.1.search";
     }
 
+    @RequestMapping(value = "/search/hashtag", method = RequestMethod.GET)
+    public String hashTag(@RequestParam("tag") String hashTag, ModelMap model) {
 
-}
\ No newline at end of file
+        model.put("hashTag", hashTag);
+        model.put("page", twitterService.findTweetsByHashTag(hashTag, GridConstants.SEARCH_PAGE_SIZE));
+
+        return "tile.1.search";
+    }
+
+    @RequestMapping(value = "/search/more", method = RequestMethod.GET)
+    @ResponseBody
+    public TweetPage more(@RequestParam("cursor") String cursor) {
+        return twitterService.findMoreTweets(cursor, GridConstants.SEARCH_PAGE_SIZE);
+    }
+
+
+}
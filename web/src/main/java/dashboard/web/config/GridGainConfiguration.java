@@ -1,5 +1,6 @@
 package dashboard.web.config;
 
+import dashboard.core.utils.EmbeddedGrid;
 import org.gridgain.grid.GridConfiguration;
 import org.gridgain.grid.GridSpringBean;
 import org.springframework.context.annotation.Bean;
@@ -12,6 +13,12 @@ public class GridGainConfiguration {
 
     @Bean
     public GridSpringBean bean() throws Exception {
+
+        // -Dgrid.profile=embedded runs the whole dashboard in the web app's JVM
+        if (EmbeddedGrid.isSelected()) {
+            EmbeddedGrid.configure();
+        }
+
         AbstractApplicationContext ctx = new ClassPathXmlApplicationContext("grid-gain.xml");
 
         GridSpringBean bean = new GridSpringBean();
@@ -5,12 +5,19 @@ public class KeyValuePair {
 
     private String key;
     private String value;
+    private String authors;
 
     public KeyValuePair(String key, String value) {
         this.key = key;
         this.value = value;
     }
 
+    public KeyValuePair(String key, String value, String authors) {
+        this.key = key;
+        this.value = value;
+        this.authors = authors;
+    }
+
     public String getKey() {
         return key;
     }
@@ -18,4 +25,8 @@ public class KeyValuePair {
     public String getValue() {
         return value;
     }
+
+    public String getAuthors() {
+        return authors;
+    }
 }
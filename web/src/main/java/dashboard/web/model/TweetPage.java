@@ -0,0 +1,28 @@
+package dashboard.web.model;
+
+import dashboard.core.model.TweetSummary;
+
+import java.util.List;
+
+
+public class TweetPage {
+
+    private List<TweetSummary> tweets;
+    private String cursor;
+
+    public TweetPage(List<TweetSummary> tweets, String cursor) {
+        this.tweets = tweets;
+        this.cursor = cursor;
+    }
+
+    public List<TweetSummary> getTweets() {
+        return tweets;
+    }
+
+    /*
+        opaque token for the next page, null once the results are exhausted
+     */
+    public String getCursor() {
+        return cursor;
+    }
+}
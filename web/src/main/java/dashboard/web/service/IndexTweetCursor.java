@@ -0,0 +1,73 @@
+package dashboard.web.service;
+
+import com.google.common.collect.Lists;
+import dashboard.core.hpc.TweetSearchClosure;
+import dashboard.core.hpc.TweetSearchReducer;
+import dashboard.core.model.Tweet;
+import dashboard.core.model.TweetSummary;
+import org.gridgain.grid.Grid;
+import org.gridgain.grid.GridException;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/*
+    pages through the text index newest first.  each page asks every node for at most count matches older
+    than the last tweet returned, so the web node never holds more than nodes * count rows
+ */
+class IndexTweetCursor implements TweetCursor {
+
+    private final Grid grid;
+
+    private final Set<String> tokens;
+
+    private final String screenName;
+
+    private long beforeTweetId = Long.MAX_VALUE;
+
+    private boolean exhausted;
+
+    IndexTweetCursor(Grid grid, Set<String> tokens, String screenName) {
+        this.grid = grid;
+        this.tokens = tokens;
+        this.screenName = screenName;
+    }
+
+    @Override
+    public List<TweetSummary> next(int count) throws GridException {
+
+        if (exhausted) {
+            return Lists.newArrayList();
+        }
+
+        final Collection<Collection<TweetSummary>> nodeResults = grid.forCache(Tweet.class.getName()).compute()
+                .broadcast(new TweetSearchClosure(tokens, screenName, beforeTweetId, count)).get();
+
+        final TweetSearchReducer reducer = new TweetSearchReducer(count);
+
+        for (Collection<TweetSummary> nodeResult : nodeResults) {
+            reducer.collect(nodeResult);
+        }
+
+        final List<TweetSummary> tweets = Lists.newArrayList(reducer.reduce());
+
+        if (tweets.size() < count) {
+            exhausted = true;
+        } else {
+            beforeTweetId = tweets.get(tweets.size() - 1).getTweetId();
+        }
+
+        return tweets;
+    }
+
+    @Override
+    public boolean exhausted() {
+        return exhausted;
+    }
+
+    @Override
+    public void close() {
+        exhausted = true;
+    }
+}
@@ -0,0 +1,58 @@
+package dashboard.web.service;
+
+import com.google.common.collect.Lists;
+import dashboard.core.model.TweetSummary;
+import org.gridgain.grid.GridException;
+import org.gridgain.grid.cache.query.GridCacheQueryFuture;
+
+import java.util.Date;
+import java.util.List;
+
+/*
+    pulls projected rows off a distributed fields query as they arrive.  the query is run with keepAll(false)
+    and a page size equal to the view's page size, so only the pages in flight are held on this node
+ */
+class QueryTweetCursor implements TweetCursor {
+
+    private final GridCacheQueryFuture<List<?>> future;
+
+    private boolean exhausted;
+
+    QueryTweetCursor(GridCacheQueryFuture<List<?>> future) {
+        this.future = future;
+    }
+
+    @Override
+    public List<TweetSummary> next(int count) throws GridException {
+
+        List<TweetSummary> tweets = Lists.newArrayListWithCapacity(count);
+
+        while (!exhausted && tweets.size() < count) {
+            final List<?> row = future.next();
+
+            if (row == null) {
+                exhausted = true;
+            } else {
+                tweets.add(new TweetSummary(((Number) row.get(0)).longValue(), (String) row.get(1), (String) row.get(2), (Date) row.get(3)));
+            }
+        }
+
+        return tweets;
+    }
+
+    @Override
+    public boolean exhausted() {
+        return exhausted;
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (!future.isDone()) {
+                future.cancel();
+            }
+        } catch (GridException ignored) {
+            // cursor is being discarded anyway
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package dashboard.web.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dashboard.core.hpc.UnsubscribeClosure;
+import dashboard.core.subscribe.SubscriptionMatch;
+import dashboard.core.utils.GridConstants;
+import dashboard.core.utils.GridUtils;
+import org.atmosphere.cpr.Broadcaster;
+import org.atmosphere.cpr.BroadcasterFactory;
+import org.gridgain.grid.Grid;
+import org.gridgain.grid.GridException;
+import org.gridgain.grid.lang.GridBiPredicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+    hands the matches the streamer nodes send this node to the atmosphere broadcaster of their subscription.  every
+    SWEEP_MILLIS the subscriptions are swept, and one whose broadcaster has had no listener for IDLE_MILLIS is
+    unsubscribed on the streamer nodes whether it has matched anything or not.  each subscription recompiles the
+    matcher of every streamer node, so this node holds at most MAX_SUBSCRIPTIONS at once
+ */
+@Component
+class SubscriptionRelay {
+
+    static final int MAX_SUBSCRIPTIONS = 100;
+
+    private static final long IDLE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final long SWEEP_MILLIS = 15000;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    // subscription id to when it last had a listener
+    private final ConcurrentMap<String, Long> subscriptions = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean listening = new AtomicBoolean();
+
+    static String url(String subscriptionId) {
+        return "/subscriptions/" + subscriptionId;
+    }
+
+    /*
+        false when this node already holds MAX_SUBSCRIPTIONS
+     */
+    boolean add(Grid grid, String subscriptionId) {
+
+        if (listening.compareAndSet(false, true)) {
+            grid.message().localListen(SubscriptionMatch.TOPIC, new GridBiPredicate<UUID, SubscriptionMatch>() {
+
+                @Override
+                public boolean apply(UUID nodeId, SubscriptionMatch match) {
+                    relay(match);
+
+                    return true;
+                }
+            });
+        }
+
+        synchronized (subscriptions) {
+            if (subscriptions.size() >= MAX_SUBSCRIPTIONS) {
+                return false;
+            }
+
+            subscriptions.put(subscriptionId, System.currentTimeMillis());
+        }
+
+        return true;
+    }
+
+    void remove(String subscriptionId) {
+        subscriptions.remove(subscriptionId);
+        unsubscribe(subscriptionId);
+    }
+
+    private void unsubscribe(String subscriptionId) {
+        try {
+            GridUtils.getGrid().streamer(GridConstants.STREAMER_NAME).context().broadcast(new UnsubscribeClosure(subscriptionId));
+        } catch (GridException e) {
+            log.error("error removing subscription " + subscriptionId + "...", e);
+        }
+    }
+
+    @Scheduled(fixedDelay = SWEEP_MILLIS)
+    public void sweep() {
+
+        final long now = System.currentTimeMillis();
+
+        for (Map.Entry<String, Long> subscription : subscriptions.entrySet()) {
+            final String id = subscription.getKey();
+
+            if (listened(id)) {
+                subscriptions.replace(id, subscription.getValue(), now);
+            } else if (now - subscription.getValue() > IDLE_MILLIS && subscriptions.remove(id, subscription.getValue())) {
+                log.debug("dropping idle subscription " + id);
+
+                unsubscribe(id);
+            }
+        }
+    }
+
+    private void relay(SubscriptionMatch match) {
+
+        final String id = match.getSubscriptionId();
+
+        if (!subscriptions.containsKey(id)) {
+            return;
+        }
+
+        final Broadcaster broadcaster = BroadcasterFactory.getDefault().lookup(url(id), false);
+
+        if (broadcaster != null && !broadcaster.getAtmosphereResources().isEmpty()) {
+            try {
+                broadcaster.broadcast(mapper.writeValueAsString(match.getTweets()));
+            } catch (IOException e) {
+                log.error("error writing matches of subscription " + id + "...", e);
+            }
+        }
+    }
+
+    private static boolean listened(String subscriptionId) {
+
+        final Broadcaster broadcaster = BroadcasterFactory.getDefault().lookup(url(subscriptionId), false);
+
+        return broadcaster != null && !broadcaster.getAtmosphereResources().isEmpty();
+    }
+}
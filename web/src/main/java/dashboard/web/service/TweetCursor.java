@@ -0,0 +1,16 @@
+package dashboard.web.service;
+
+import dashboard.core.model.TweetSummary;
+import org.gridgain.grid.GridException;
+
+import java.util.List;
+
+
+interface TweetCursor {
+
+    List<TweetSummary> next(int count) throws GridException;
+
+    boolean exhausted();
+
+    void close();
+}
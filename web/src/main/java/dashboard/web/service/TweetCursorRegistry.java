@@ -0,0 +1,50 @@
+package dashboard.web.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/*
+    open search cursors keyed by an opaque id.  idle cursors are closed after a few minutes and the number
+    kept open is capped, which bounds the memory search can pin on the web node
+ */
+@Component
+class TweetCursorRegistry {
+
+    private static final int MAX_OPEN_CURSORS = 1000;
+
+    private static final int IDLE_MINUTES = 5;
+
+    private final Cache<String, TweetCursor> cursors = CacheBuilder.newBuilder()
+            .maximumSize(MAX_OPEN_CURSORS)
+            .expireAfterAccess(IDLE_MINUTES, TimeUnit.MINUTES)
+            .removalListener(new RemovalListener<String, TweetCursor>() {
+
+                @Override
+                public void onRemoval(RemovalNotification<String, TweetCursor> notification) {
+                    notification.getValue().close();
+                }
+            })
+            .build();
+
+    String open(TweetCursor cursor) {
+        final String id = UUID.randomUUID().toString();
+
+        cursors.put(id, cursor);
+
+        return id;
+    }
+
+    TweetCursor get(String id) {
+        return cursors.getIfPresent(id);
+    }
+
+    void close(String id) {
+        cursors.invalidate(id);
+    }
+}
@@ -1,22 +1,51 @@
 package dashboard.web.service;
 
-import dashboard.core.model.Tweet;
+import dashboard.core.column.TweetColumnGroup;
+import dashboard.core.ingest.IngestSource;
+import dashboard.core.ingest.IngestStatus;
+import dashboard.core.model.HashTagTimeSeries;
+import dashboard.core.series.SeriesResolution;
+import dashboard.core.streaming.metrics.StreamerMetricsSnapshot;
 import dashboard.web.model.KeyValuePair;
+import dashboard.web.model.TweetPage;
 
 import java.util.List;
+import java.util.Map;
 
 
 public interface TwitterService {
 
-    void ingest(int duration, int multiplier);
+    IngestStatus ingest(IngestSource source, int duration, int multiplier, int shards, int tweetsPerSecond);
+
+    void cancelIngest();
+
+    IngestStatus getIngestStatus();
 
     List<KeyValuePair> getHashTagSummary(String windowName);
 
+    List<KeyValuePair> getRelatedHashTags(String hashTag, String windowName);
+
     List<KeyValuePair> getTopTweeters();
 
     long getTotalTweets();
 
     long getTotalHashTags();
 
-    List<Tweet> findTweets(String text, String screenName);
+    int getWindowSamplingShift();
+
+    TweetPage findTweets(String text, String screenName, int pageSize);
+
+    TweetPage findMoreTweets(String cursor, int pageSize);
+
+    TweetPage findTweetsByHashTag(String hashTag, int limit);
+
+    String subscribe(List<String> keywords, List<String> screenNames, List<String> hashTags);
+
+    void unsubscribe(String subscriptionId);
+
+    HashTagTimeSeries getHashTagSeries(SeriesResolution resolution, long from, long to, int limit);
+
+    Map<String, Long> countTweets(TweetColumnGroup group, long from, long to, boolean includeFake, int limit);
+
+    List<StreamerMetricsSnapshot> getStreamerMetrics();
 }
@@ -1,16 +1,45 @@
 package dashboard.web.service;
 
 import com.google.common.collect.Lists;
+import dashboard.core.column.TweetColumnGroup;
+import dashboard.core.hpc.CountReducer;
+import dashboard.core.hpc.FlushDataLoadersClosure;
+import dashboard.core.hpc.HashTagAuthorsClosure;
+import dashboard.core.hpc.HashTagAuthorsReducer;
 import dashboard.core.hpc.HashTagClosure;
-import dashboard.core.hpc.HashTagReducer;
+import dashboard.core.hpc.HashTagSeriesClosure;
+import dashboard.core.hpc.HashTagSeriesReducer;
+import dashboard.core.hpc.IngestStatusClosure;
+import dashboard.core.hpc.IngestStatusReducer;
+import dashboard.core.hpc.RelatedHashTagsClosure;
+import dashboard.core.hpc.ResetStreamerClosure;
+import dashboard.core.hpc.StartIngestClosure;
+import dashboard.core.hpc.StopIngestClosure;
+import dashboard.core.hpc.StreamerMetricsClosure;
+import dashboard.core.hpc.StreamerMetricsReducer;
+import dashboard.core.hpc.SubscribeClosure;
 import dashboard.core.hpc.TweetClosure;
-import dashboard.core.hpc.TweetReducer;
+import dashboard.core.hpc.TweetColumnsClosure;
+import dashboard.core.hpc.TweetColumnsReducer;
+import dashboard.core.hpc.TweetSearchReducer;
+import dashboard.core.hpc.WindowSamplingClosure;
+import dashboard.core.hpc.WindowSamplingReducer;
+import dashboard.core.ingest.IngestSource;
+import dashboard.core.ingest.IngestStatus;
 import dashboard.core.model.HashTag;
+import dashboard.core.model.HashTagTimeSeries;
 import dashboard.core.model.Tweet;
+import dashboard.core.model.TweetSummary;
+import dashboard.core.search.TweetTokenizer;
+import dashboard.core.series.HashTagSeries;
+import dashboard.core.series.SeriesResolution;
+import dashboard.core.streaming.metrics.StreamerMetricsSnapshot;
+import dashboard.core.subscribe.Subscription;
 import dashboard.core.twitter.TweetStreamListener;
 import dashboard.core.utils.GridConstants;
 import dashboard.core.utils.GridUtils;
 import dashboard.web.model.KeyValuePair;
+import dashboard.web.model.TweetPage;
 import org.apache.commons.lang3.StringUtils;
 import org.gridgain.grid.Grid;
 import org.gridgain.grid.GridException;
@@ -19,62 +48,194 @@ import org.gridgain.grid.cache.datastructures.GridCacheAtomicSequence;
 import org.gridgain.grid.cache.datastructures.GridCacheDataStructures;
 import org.gridgain.grid.cache.query.GridCacheQuery;
 import org.gridgain.grid.streamer.GridStreamer;
-import org.gridgain.grid.streamer.index.GridStreamerIndexEntry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.social.twitter.api.Stream;
 import org.springframework.social.twitter.api.StreamListener;
 import org.springframework.social.twitter.api.Twitter;
 import org.springframework.stereotype.Service;
 
 import java.text.NumberFormat;
-import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ScheduledFuture;
 
 @Service
 public class TwitterServiceImpl implements TwitterService {
 
+    // per kind of term, so one subscription cannot grow the matching automaton without bound
+    private static final int MAX_SUBSCRIPTION_TERMS = 20;
 
     private final Logger log = LoggerFactory.getLogger(getClass());
 
     @Autowired
     private Twitter twitter;
 
+    @Autowired
+    private TweetCursorRegistry cursorRegistry;
+
+    @Autowired
+    private SubscriptionRelay subscriptionRelay;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    // false keeps the windows, and their checkpoints, running on into the next ingest session
+    @Value("${ingest.resetWindows:true}")
+    private boolean resetWindows;
+
+    // the current or last ingest session, guarded by this
+    private String sessionId;
+
+    private IngestSource sessionSource;
+
+    private long sessionStart;
+
+    private long sessionStop;
+
+    private Stream sampleStream;
+
+    private TweetStreamListener streamListener;
+
+    private ScheduledFuture<?> scheduledFinish;
+
 
     @Override
-    @Async
-    public void ingest(int duration, int multiplier) {
+    public synchronized IngestStatus ingest(IngestSource source, int duration, int multiplier, int shards, int tweetsPerSecond) {
 
-        Stream sampleStream = null;
+        if (sessionId != null) {
+            finish(sessionId);
+        }
 
         final Grid grid = GridUtils.getGrid();
 
         final GridStreamer tweetStreamer = grid.streamer(GridConstants.STREAMER_NAME);
 
+        final String id = UUID.randomUUID().toString();
+
         try {
-            List<StreamListener> listeners = Lists.newArrayList();
-            listeners.add(new TweetStreamListener(tweetStreamer, multiplier));
+            if (source == IngestSource.TWITTER) {
+                final TweetStreamListener listener = new TweetStreamListener(tweetStreamer, multiplier);
+
+                List<StreamListener> listeners = Lists.newArrayList();
+                listeners.add(listener);
+
+                sampleStream = twitter.streamingOperations().sample(listeners);
+                streamListener = listener;
+            } else {
+                tweetStreamer.context().broadcast(new StartIngestClosure(id, source, shards, multiplier, tweetsPerSecond, duration));
+            }
+        } catch (GridException e) {
+            log.error("error starting " + source + " ingest shards...", e);
+
+            stopShards(tweetStreamer, id);
 
-            sampleStream = twitter.streamingOperations().sample(listeners);
+            return null;
+        }
 
-            Thread.sleep(duration);
+        sessionId = id;
+        sessionSource = source;
+        sessionStart = System.currentTimeMillis();
+        sessionStop = 0;
 
-        } catch (InterruptedException e) {
-            log.error("stream thread interrupted...", e);
-        } finally {
-            log.debug("closing stream");
+        // the session ends on the scheduler, no thread waits out the duration
+        scheduledFinish = taskScheduler.schedule(new Runnable() {
 
-            if (tweetStreamer != null) {
-                tweetStreamer.reset();
-                tweetStreamer.resetMetrics();
+            @Override
+            public void run() {
+                finish(id);
             }
+        }, new Date(sessionStart + duration));
 
-            if (sampleStream != null) {
-                sampleStream.close();
+        return getIngestStatus();
+    }
+
+    @Override
+    public synchronized void cancelIngest() {
+        if (sessionId != null && sessionStop == 0) {
+            finish(sessionId);
+        }
+    }
+
+    @Override
+    public synchronized IngestStatus getIngestStatus() {
+
+        if (sessionId == null) {
+            return null;
+        }
+
+        if (sessionSource == IngestSource.TWITTER) {
+            return new IngestStatus(sessionId, sessionSource, 1, sessionStop == 0 ? 1 : 0,
+                    streamListener.getTweets(), streamListener.getHashTags(), sessionStart, sessionStop);
+        }
+
+        try {
+            final IngestStatus status = GridUtils.getGrid().streamer(GridConstants.STREAMER_NAME).context()
+                    .reduce(new IngestStatusClosure(), new IngestStatusReducer(sessionId));
+
+            if (status != null) {
+                return status;
             }
+        } catch (GridException e) {
+            log.error("error getting ingest status...", e);
+        }
+
+        return new IngestStatus(sessionId, sessionSource, 0, 0, 0, 0, sessionStart, sessionStop);
+    }
+
+    private synchronized void finish(String id) {
+
+        if (!id.equals(sessionId) || sessionStop != 0) {
+            return;
+        }
+
+        log.debug("closing ingest session " + id);
+
+        sessionStop = System.currentTimeMillis();
+
+        if (scheduledFinish != null) {
+            scheduledFinish.cancel(false);
+            scheduledFinish = null;
+        }
+
+        if (sampleStream != null) {
+            sampleStream.close();
+            sampleStream = null;
+        }
+
+        final GridStreamer tweetStreamer = GridUtils.getGrid().streamer(GridConstants.STREAMER_NAME);
+
+        stopShards(tweetStreamer, id);
+
+        try {
+            tweetStreamer.context().broadcast(new FlushDataLoadersClosure());
+        } catch (GridException e) {
+            log.error("error flushing data loaders...", e);
+        }
+
+        if (resetWindows) {
+            try {
+                tweetStreamer.context().broadcast(new ResetStreamerClosure());
+            } catch (GridException e) {
+                log.error("error resetting streamer windows...", e);
+            }
+        } else {
+            tweetStreamer.resetMetrics();
+        }
+    }
+
+    private void stopShards(GridStreamer tweetStreamer, String id) {
+        try {
+            tweetStreamer.context().broadcast(new StopIngestClosure(id));
+        } catch (GridException e) {
+            log.error("error stopping ingest shards...", e);
         }
     }
 
@@ -89,10 +250,18 @@ public class TwitterServiceImpl implements TwitterService {
 
         try {
 
-            Collection<GridStreamerIndexEntry<HashTag, String, Long>> reduceResults = streamer.context().reduce(new HashTagClosure(windowName), new HashTagReducer());
+            Map<String, Long> reduceResults = streamer.context().reduce(new HashTagClosure(windowName), new CountReducer());
+
+            // only the top tags are sketched back, merged across the nodes
+            final Map<String, Long> authors = reduceResults.isEmpty() ? Collections.<String, Long>emptyMap() :
+                    streamer.context().reduce(new HashTagAuthorsClosure(windowName, reduceResults.keySet()), new HashTagAuthorsReducer());
+
+            // the full tag is needed to link through to its tweets, the view abbreviates it
+            for (Map.Entry<String, Long> entry : reduceResults.entrySet()) {
+                final Long authorCount = authors.get(entry.getKey());
 
-            for (GridStreamerIndexEntry<HashTag, String, Long> entry : reduceResults) {
-                results.add(new KeyValuePair(StringUtils.abbreviate(entry.key(), 20), NumberFormat.getNumberInstance().format(entry.value())));
+                results.add(new KeyValuePair(entry.getKey(), NumberFormat.getNumberInstance().format(entry.getValue()),
+                        authorCount != null ? NumberFormat.getNumberInstance().format(authorCount) : null));
             }
 
         } catch (GridException e) {
@@ -104,6 +273,28 @@ public class TwitterServiceImpl implements TwitterService {
     }
 
 
+    @Override
+    public List<KeyValuePair> getRelatedHashTags(String hashTag, String windowName) {
+
+        final GridStreamer streamer = GridUtils.getGrid().streamer(GridConstants.STREAMER_NAME);
+
+        final List<KeyValuePair> results = Lists.newArrayList();
+
+        try {
+
+            final Map<String, Long> related = streamer.context().reduce(new RelatedHashTagsClosure(hashTag, windowName), new CountReducer());
+
+            for (Map.Entry<String, Long> entry : related.entrySet()) {
+                results.add(new KeyValuePair(entry.getKey(), NumberFormat.getNumberInstance().format(entry.getValue())));
+            }
+
+        } catch (GridException e) {
+            log.error("grid exception occurred...", e);
+        }
+
+        return results;
+    }
+
     @Override
     public List<KeyValuePair> getTopTweeters() {
         final Grid grid = GridUtils.getGrid();
@@ -114,10 +305,10 @@ public class TwitterServiceImpl implements TwitterService {
 
         try {
 
-            Collection<GridStreamerIndexEntry<Tweet, String, Long>> reduceResults = streamer.context().reduce(new TweetClosure(), new TweetReducer());
+            Map<String, Long> reduceResults = streamer.context().reduce(new TweetClosure(), new CountReducer());
 
-            for (GridStreamerIndexEntry<Tweet, String, Long> entry : reduceResults) {
-                results.add(new KeyValuePair(StringUtils.abbreviate(entry.key(), 20), NumberFormat.getNumberInstance().format(entry.value())));
+            for (Map.Entry<String, Long> entry : reduceResults.entrySet()) {
+                results.add(new KeyValuePair(StringUtils.abbreviate(entry.getKey(), 20), NumberFormat.getNumberInstance().format(entry.getValue())));
             }
 
         } catch (GridException e) {
@@ -166,51 +357,246 @@ public class TwitterServiceImpl implements TwitterService {
         return 0L;
     }
 
+    // the windows admit 1 in 2^shift events while memory is short, 0 when they admit all
+    @Override
+    public int getWindowSamplingShift() {
+        try {
+            final Integer shift = GridUtils.getGrid().streamer(GridConstants.STREAMER_NAME).context()
+                    .reduce(new WindowSamplingClosure(), new WindowSamplingReducer());
+
+            return shift != null ? shift : 0;
+        } catch (GridException e) {
+            log.error("error getting window sampling", e);
+        }
+
+        return 0;
+    }
+
     @Override
-    public List<Tweet> findTweets(String text, String screenName) {
+    public TweetPage findTweets(String text, String screenName, int pageSize) {
 
         final Grid grid = GridUtils.getGrid();
 
-        final GridCache<String, Tweet> cache = grid.cache(Tweet.class.getName());
+        final Set<String> tokens = TweetTokenizer.tokenize(text);
 
-        List<Tweet> tweets = Lists.newArrayList();
+        // text with nothing the index keeps, a lone letter or a url, matches no tweet rather than any tweet
+        if (StringUtils.isNotBlank(text) && tokens.isEmpty()) {
+            return new TweetPage(Lists.<TweetSummary>newArrayList(), null);
+        }
 
         try {
 
-            List<String> parameters = Lists.newArrayList();
-            StringBuilder s = new StringBuilder("fake = 'false'");
+            final TweetCursor cursor;
+
+            if (!tokens.isEmpty()) {
+
+                if (log.isDebugEnabled()) {
+                    log.debug("findTweets tokens " + tokens);
+                }
+
+                cursor = new IndexTweetCursor(grid, tokens, screenName);
+
+            } else {
+
+                final GridCache<String, Tweet> cache = grid.cache(Tweet.class.getName());
+
+                List<String> parameters = Lists.newArrayList();
+                StringBuilder s = new StringBuilder("select tweetId, screenName, text, createdAt from Tweet where fake = 'false'");
+
+                if (StringUtils.isNotBlank(screenName)) {
+                    s.append(" and screenName = ?");
+                    parameters.add(screenName);
+                }
 
-            if (StringUtils.isNotBlank(text)) {
-                s.append(" and text like ?");
-                parameters.add("%" + text + "%");
+                // each node sorts its own rows, the pages of the nodes arrive as they are ready
+                s.append(" order by tweetId desc");
+
+                final String sql = s.toString();
+
+                if (log.isDebugEnabled()) {
+                    log.debug("findTweets sql [" + sql + "]");
+                }
+
+                GridCacheQuery<List<?>> query = cache.queries().createSqlFieldsQuery(sql);
+
+                query.pageSize(pageSize);
+                query.keepAll(false);
+
+                cursor = new QueryTweetCursor(query.execute(parameters.toArray()));
             }
-            if (StringUtils.isNotBlank(screenName)) {
-                s.append(" and screenName = ?");
-                parameters.add(screenName);
+
+            return page(cursorRegistry.open(cursor), cursor, pageSize);
+
+        } catch (GridException e) {
+            log.error("error getting tweets with text [" + text + "] and screen name [" + screenName + "]", e);
+        }
+
+        return new TweetPage(Lists.<TweetSummary>newArrayList(), null);
+    }
+
+    @Override
+    public TweetPage findMoreTweets(String cursorId, int pageSize) {
+
+        final TweetCursor cursor = cursorRegistry.get(cursorId);
+
+        if (cursor != null) {
+            try {
+                return page(cursorId, cursor, pageSize);
+            } catch (GridException e) {
+                log.error("error getting next page for cursor [" + cursorId + "]", e);
+                cursorRegistry.close(cursorId);
             }
+        }
+
+        return new TweetPage(Lists.<TweetSummary>newArrayList(), null);
+    }
+
+    @Override
+    public TweetPage findTweetsByHashTag(String hashTag, int limit) {
+
+        final Grid grid = GridUtils.getGrid();
+
+        final GridCache<String, Tweet> cache = grid.cache(Tweet.class.getName());
 
-            s.append(" limit 100");
+        final TweetSearchReducer reducer = new TweetSearchReducer(limit);
 
-            final String sql = s.toString();
+        try {
+
+            // hash tags are stored with their tweet, so every node joins only its own entries
+            final String sql = "select t.tweetId, t.screenName, t.text, t.createdAt" +
+                    " from Tweet t, \"" + HashTag.class.getName() + "\".HashTag h" +
+                    " where h.text = ? and h.tweetGUID = t.GUID and t.fake = 'false'" +
+                    " order by t.tweetId desc limit " + limit;
 
             if (log.isDebugEnabled()) {
-                log.debug("findTweets sql [" + sql + "]");
+                log.debug("findTweetsByHashTag sql [" + sql + "]");
+            }
+
+            GridCacheQuery<List<?>> query = cache.queries().createSqlFieldsQuery(sql);
+
+            final QueryTweetCursor cursor = new QueryTweetCursor(query.execute(hashTag));
+
+            while (!cursor.exhausted()) {
+                reducer.collect(cursor.next(limit));
             }
 
-            GridCacheQuery<Map.Entry<String, Tweet>> query = cache.queries().createSqlQuery(Tweet.class, sql);
+        } catch (GridException e) {
+            log.error("error getting tweets for hash tag [" + hashTag + "]", e);
+        }
+
+        return new TweetPage(Lists.newArrayList(reducer.reduce()), null);
+    }
+
+    @Override
+    public String subscribe(List<String> keywords, List<String> screenNames, List<String> hashTags) {
+
+        if (keywords.isEmpty() && screenNames.isEmpty() && hashTags.isEmpty()) {
+            return null;
+        }
+
+        final Grid grid = GridUtils.getGrid();
+
+        final Subscription subscription = new Subscription(UUID.randomUUID().toString(), grid.localNode().id(),
+                limit(keywords), limit(screenNames), limit(hashTags));
+
+        // listening before the streamer nodes know the subscription, so no early match is missed
+        if (!subscriptionRelay.add(grid, subscription.getId())) {
+            log.warn("refusing subscription, " + SubscriptionRelay.MAX_SUBSCRIPTIONS + " are live on this node");
+
+            return null;
+        }
+
+        try {
+            grid.streamer(GridConstants.STREAMER_NAME).context().broadcast(new SubscribeClosure(subscription));
+        } catch (GridException e) {
+            log.error("error adding subscription...", e);
+
+            subscriptionRelay.remove(subscription.getId());
 
-            final Collection<Map.Entry<String, Tweet>> searchResults = query.execute(parameters.toArray()).get();
+            return null;
+        }
+
+        return subscription.getId();
+    }
+
+    @Override
+    public void unsubscribe(String subscriptionId) {
+        subscriptionRelay.remove(subscriptionId);
+    }
+
+    private static List<String> limit(List<String> terms) {
+        return Lists.newArrayList(terms.subList(0, Math.min(terms.size(), MAX_SUBSCRIPTION_TERMS)));
+    }
+
+    @Override
+    public HashTagTimeSeries getHashTagSeries(SeriesResolution resolution, long from, long to, int limit) {
+
+        final Grid grid = GridUtils.getGrid();
 
-            for (Map.Entry<String, Tweet> entry : searchResults) {
-                tweets.add(entry.getValue());
+        final GridStreamer streamer = grid.streamer(GridConstants.STREAMER_NAME);
+
+        try {
+
+            final HashTagTimeSeries series = streamer.context().reduce(new HashTagSeriesClosure(resolution, from, to), new HashTagSeriesReducer(limit));
+
+            if (series != null) {
+                return series;
             }
 
         } catch (GridException e) {
-            log.error("error getting tweets with text [" + text + "]", e);
+            log.error("error getting " + resolution + " hash tag series from " + from + " to " + to, e);
+        }
+
+        return HashTagSeries.empty(resolution, from, to);
+    }
+
+    @Override
+    public Map<String, Long> countTweets(TweetColumnGroup group, long from, long to, boolean includeFake, int limit) {
+
+        final Grid grid = GridUtils.getGrid();
+
+        final GridStreamer streamer = grid.streamer(GridConstants.STREAMER_NAME);
+
+        try {
+
+            return streamer.context().reduce(new TweetColumnsClosure(group, from, to, includeFake, limit), new TweetColumnsReducer(group, limit));
+
+        } catch (GridException e) {
+            log.error("error counting tweets by " + group + " from " + from + " to " + to, e);
+        }
+
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public List<StreamerMetricsSnapshot> getStreamerMetrics() {
+
+        final GridStreamer streamer = GridUtils.getGrid().streamer(GridConstants.STREAMER_NAME);
+
+        try {
+            return streamer.context().reduce(new StreamerMetricsClosure(), new StreamerMetricsReducer());
+        } catch (GridException e) {
+            log.error("error getting streamer metrics...", e);
+        }
+
+        return Collections.emptyList();
+    }
+
+    private TweetPage page(String cursorId, TweetCursor cursor, int pageSize) throws GridException {
+
+        final List<TweetSummary> tweets;
+
+        synchronized (cursor) {
+            tweets = cursor.next(pageSize);
         }
 
+        if (cursor.exhausted()) {
+            cursorRegistry.close(cursorId);
+
+            return new TweetPage(tweets, null);
+        }
 
-        return tweets;
+        return new TweetPage(tweets, cursorId);
     }
 
 }
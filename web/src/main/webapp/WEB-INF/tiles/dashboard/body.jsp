@@ -33,6 +33,14 @@
     </div>
 </div>
 
+<div class="row">
+    <div class="col-lg-12">
+        <small class="text-muted" title="the windows sample events while their memory is over budget, counts are estimates then">
+            Window events admitted: <span id="sampling"></span>
+        </small>
+    </div>
+</div>
+
 <hr/>
 
 <div class="row">
@@ -48,6 +56,7 @@
             <tr>
                 <th class="col-lg-2">HashTag</th>
                 <th class="col-lg-1">Count</th>
+                <th class="col-lg-1" title="distinct users, estimated">Authors</th>
             </tr>
             </thead>
             <tbody id="last5">
@@ -66,6 +75,7 @@
             <tr>
                 <th class="col-lg-2">HashTag</th>
                 <th class="col-lg-1">Count</th>
+                <th class="col-lg-1" title="distinct users, estimated">Authors</th>
             </tr>
             </thead>
             <tbody id="last15">
@@ -84,6 +94,7 @@
             <tr>
                 <th class="col-lg-2">HashTag</th>
                 <th class="col-lg-1">Count</th>
+                <th class="col-lg-1" title="distinct users, estimated">Authors</th>
             </tr>
             </thead>
             <tbody id="last60">
@@ -111,8 +122,9 @@
 
 <script id="hashTagTemplate" type="text/x-jquery-tmpl">
     <tr>
-        <td>\${key}</td>
+        <td><a href="<c:url value="/search/hashtag"/>?tag=\${encodeURIComponent(key)}" title="\${key}">\${key.length > 20 ? key.substring(0, 17) + '...' : key}</a></td>
         <td>\${value}</td>
+        <td>\${authors}</td>
     </tr>
 </script>
 
@@ -133,6 +145,7 @@
         getStreamingData('<c:url value="/counts/topTweets"/>', '#topTweets', "#topTweetsTemplate");
         getStreamingDataSingle('<c:url value="/counts/totalTweets"/>', '#totalCounter');
         getStreamingDataSingle('<c:url value="/counts/tweetsWithHashTag"/>', '#totalTags');
+        getStreamingDataSingle('<c:url value="/counts/sampling"/>', '#sampling');
     });
 
     function getStreamingData(url, divId, templateId) {
@@ -25,6 +25,34 @@
         </div>
     </div>
 
+    <div class="form-group">
+        <label for="source" class="col-lg-2 control-label">Source</label>
+
+        <div class="col-lg-4">
+            <select class="form-control" id="source" name="source">
+                <option value="TWITTER">Twitter sample stream</option>
+                <option value="SYNTHETIC">Synthetic tweets on every node</option>
+                <option value="REPLAY">Replay each node's tweet log</option>
+            </select>
+        </div>
+    </div>
+
+    <div class="form-group">
+        <label for="shards" class="col-lg-2 control-label">Shards per Node</label>
+
+        <div class="col-lg-4">
+            <input type="number" min="1" class="form-control" id="shards" name="shards" placeholder="Ingest threads per node for synthetic and replay sources">
+        </div>
+    </div>
+
+    <div class="form-group">
+        <label for="rate" class="col-lg-2 control-label">Tweets per Second</label>
+
+        <div class="col-lg-4">
+            <input type="number" min="0" class="form-control" id="rate" name="rate" placeholder="Per shard limit, leave empty for as fast as possible">
+        </div>
+    </div>
+
     <div class="form-group">
         <div class="col-lg-offset-2 col-lg-10">
             <button type="submit" class="btn btn-primary">Capture Twitter Data</button>
@@ -33,3 +61,11 @@
     </div>
 </form>
 
+<form class="form-horizontal" role="form" action="<c:url value="/ingest/cancel"/>" method="post">
+    <div class="form-group">
+        <div class="col-lg-offset-2 col-lg-10">
+            <button type="submit" class="btn btn-danger">Stop Current Session</button>
+            <a href="<c:url value="/ingest/status"/>" class="btn btn-link">Session Status</a>
+        </div>
+    </div>
+</form>
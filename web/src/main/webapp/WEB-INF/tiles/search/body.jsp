@@ -4,7 +4,7 @@
 <h3>Search Tweet Database</h3>
 
 <div class="bs-callout bs-callout-info">
-    <p>Query is executed against GridGain In-Memory Database. Search results limited to <strong>100</strong> results.</p>
+    <p>Query is executed against GridGain In-Memory Database. Results are returned newest first, <strong>50</strong> at a time.</p>
 </div>
 
 <form class="form-horizontal" role="form" action="<c:url value="/search"/>" method="post">
@@ -12,7 +12,7 @@
         <label for="text" class="col-lg-2 control-label">Tweet</label>
 
         <div class="col-lg-4">
-            <input type="text" class="form-control" id="text" name="text" placeholder="Search for tweets containing this text">
+            <input type="text" class="form-control" id="text" name="text" placeholder="Search for tweets containing all of these words">
         </div>
     </div>
 
@@ -31,7 +31,11 @@
     </div>
 </form>
 
-<c:if test="${! empty tweets}">
+<c:if test="${! empty hashTag}">
+    <h4>Latest tweets tagged <strong>#<c:out value="${hashTag}"/></strong></h4>
+</c:if>
+
+<c:if test="${! empty page.tweets}">
 
     <table class="table table-striped">
         <thead>
@@ -41,10 +45,10 @@
             <th>Tweet</th>
         </tr>
         </thead>
-        <tbody>
+        <tbody id="tweets">
 
 
-        <c:forEach var="tweet" items="${tweets}">
+        <c:forEach var="tweet" items="${page.tweets}">
             <tr>
                 <td style="white-space: nowrap">${tweet.screenName}</td>
                 <td style="white-space: nowrap"><fmt:formatDate value="${tweet.createdAt}" dateStyle="short" timeStyle="short" type="both"/></td>
@@ -54,5 +58,39 @@
         </tbody>
     </table>
 
+    <c:if test="${! empty page.cursor}">
+        <button id="more" type="button" class="btn btn-default" data-cursor="${page.cursor}">More</button>
+    </c:if>
+
 </c:if>
 
+<script id="tweetTemplate" type="text/x-jquery-tmpl">
+    <tr>
+        <td style="white-space: nowrap">\${screenName}</td>
+        <td style="white-space: nowrap">\${new Date(createdAt).toLocaleString()}</td>
+        <td>\${text}</td>
+    </tr>
+</script>
+
+<script type="text/javascript">
+
+    $(document).ready(function () {
+        $('#more').click(function () {
+
+            var button = $(this);
+
+            $.getJSON('<c:url value="/search/more"/>', {cursor: button.data('cursor')}, function (page) {
+
+                $('#tweetTemplate').tmpl(page.tweets).appendTo('#tweets');
+
+                if (page.cursor) {
+                    button.data('cursor', page.cursor);
+                } else {
+                    button.remove();
+                }
+            });
+        });
+    });
+
+</script>
+